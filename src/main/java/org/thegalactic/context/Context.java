@@ -14,14 +14,17 @@ package org.thegalactic.context;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.BitSet;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Random;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.Vector;
+import java.util.concurrent.CancellationException;
 
+import org.thegalactic.context.enumeration.ConceptCollector;
+import org.thegalactic.context.enumeration.ConceptEnumerator;
+import org.thegalactic.context.enumeration.FrequentCloseByOne;
 import org.thegalactic.context.io.ContextIOFactory;
 import org.thegalactic.dgraph.Node;
 import org.thegalactic.io.Filer;
@@ -30,8 +33,10 @@ import org.thegalactic.lattice.ClosureSystem;
 import org.thegalactic.lattice.Concept;
 import org.thegalactic.lattice.ConceptLattice;
 import org.thegalactic.lattice.Lattice;
+import org.thegalactic.util.Budget;
 import org.thegalactic.util.ComparableSet;
 import org.thegalactic.util.Couple;
+import org.thegalactic.util.IndexSet;
 
 /**
  * This class gives a standard representation for a context.
@@ -144,7 +149,6 @@ public class Context extends ClosureSystem {
                 attr = r.nextInt(nbAttrPerGrp) + 1;
             }
         }
-        ctx.setBitSets();
         return ctx;
     }
 
@@ -175,24 +179,48 @@ public class Context extends ClosureSystem {
      * ------------- BITSET ADDON ------------------
      */
     /**
-     * A bit set for intent.
+     * A set of attribute indexes for intent, indexed by observation index.
+     *
+     * Each set is stored as a sorted array or as a bit set depending on its
+     * density.
+     */
+    private ArrayList<IndexSet> indexSetIntent;
+
+    /**
+     * A set of observation indexes for extent, indexed by attribute index.
+     *
+     * Each set is stored as a sorted array or as a bit set depending on its
+     * density.
+     */
+    private ArrayList<IndexSet> indexSetExtent;
+
+    /**
+     * A symbol table associating its index to each observation.
      */
-    private TreeMap<Comparable, BitSet> bitsetIntent;
+    private SymbolTable observationSymbols;
 
     /**
-     * A bit set for extent.
+     * A symbol table associating its index to each attribute.
      */
-    private TreeMap<Comparable, BitSet> bitsetExtent;
+    private SymbolTable attributeSymbols;
 
     /**
-     * An array for observations.
+     * A bit set of the observation indexes whose intent is shared with a
+     * snapshot.
      */
-    private ArrayList<Comparable> arrayObservations;
+    private BitSet sharedIntent;
 
     /**
-     * An array for attributes.
+     * A bit set of the attribute indexes whose extent is shared with a
+     * snapshot.
      */
-    private ArrayList<Comparable> arrayAttributes;
+    private BitSet sharedExtent;
+
+    /**
+     * The last snapshot of this component, or null if this component has been
+     * changed since.
+     */
+    private ContextSnapshot snapshot;
 
     /*
      * ------------- CONSTRUCTORS ------------------
@@ -264,10 +292,13 @@ public class Context extends ClosureSystem {
         this.attributes = new TreeSet();
         this.intent = new TreeMap();
         this.extent = new TreeMap();
-        this.bitsetIntent = new TreeMap();
-        this.bitsetExtent = new TreeMap();
-        this.arrayObservations = new ArrayList();
-        this.arrayAttributes = new ArrayList();
+        this.indexSetIntent = new ArrayList();
+        this.indexSetExtent = new ArrayList();
+        this.observationSymbols = new SymbolTable();
+        this.attributeSymbols = new SymbolTable();
+        this.sharedIntent = new BitSet();
+        this.sharedExtent = new BitSet();
+        this.snapshot = null;
         return this;
     }
 
@@ -290,7 +321,6 @@ public class Context extends ClosureSystem {
                 }
             }
         }
-        ctx.setBitSets();
         return ctx;
     }
 
@@ -436,10 +466,10 @@ public class Context extends ClosureSystem {
     public boolean addToAttributes(Comparable att) {
         if (!this.containsAttribute(att)) {
             this.extent.put(att, new TreeSet<Comparable>());
+            this.attributeSymbols = this.writable(this.attributeSymbols);
+            allocate(this.attributeSymbols, this.indexSetExtent, this.sharedExtent, att);
         }
-        boolean ok = this.attributes.add(att);
-        this.setBitSets();
-        return ok;
+        return this.attributes.add(att);
     }
 
     /**
@@ -457,7 +487,6 @@ public class Context extends ClosureSystem {
                 all = false;
             }
         }
-        this.setBitSets();
         return all;
     }
 
@@ -471,13 +500,15 @@ public class Context extends ClosureSystem {
      * @return true if the attribute was successfully removed
      */
     public boolean removeFromAttributes(Comparable att) {
-        this.extent.remove(att);
-        for (Comparable o : this.getObservations()) {
-            this.intent.get(o).remove(att);
+        TreeSet<Comparable> attExtent = this.extent.remove(att);
+        if (attExtent != null) {
+            for (Comparable o : attExtent) {
+                this.intent.get(o).remove(att);
+            }
+            this.attributeSymbols = this.writable(this.attributeSymbols);
+            this.release(this.attributeSymbols, this.indexSetExtent, this.indexSetIntent, this.sharedIntent, att);
         }
-        boolean ok = this.attributes.remove(att);
-        this.setBitSets();
-        return ok;
+        return this.attributes.remove(att);
     }
 
     /**
@@ -521,10 +552,10 @@ public class Context extends ClosureSystem {
     public boolean addToObservations(Comparable obs) {
         if (!this.containsObservation(obs)) {
             this.intent.put(obs, new TreeSet<Comparable>());
+            this.observationSymbols = this.writable(this.observationSymbols);
+            allocate(this.observationSymbols, this.indexSetIntent, this.sharedIntent, obs);
         }
-        boolean ok = this.observations.add(obs);
-        this.setBitSets();
-        return ok;
+        return this.observations.add(obs);
     }
 
     /**
@@ -542,7 +573,6 @@ public class Context extends ClosureSystem {
                 all = false;
             }
         }
-        this.setBitSets();
         return all;
     }
 
@@ -556,18 +586,129 @@ public class Context extends ClosureSystem {
      * @return true if the observation was removed
      */
     public boolean removeFromObservations(Comparable obs) {
-        this.intent.remove(obs);
-        for (Comparable att : this.getAttributes()) {
-            this.extent.get(att).remove(obs);
+        TreeSet<Comparable> obsIntent = this.intent.remove(obs);
+        if (obsIntent != null) {
+            for (Comparable att : obsIntent) {
+                this.extent.get(att).remove(obs);
+            }
+            this.observationSymbols = this.writable(this.observationSymbols);
+            this.release(this.observationSymbols, this.indexSetIntent, this.indexSetExtent, this.sharedExtent, obs);
         }
-        boolean ok = this.observations.remove(obs);
-        this.setBitSets();
-        return ok;
+        return this.observations.remove(obs);
+    }
+
+    /**
+     * Allocates the lowest free index for a new element.
+     *
+     * The element is added to `symbols` and an empty index set, not shared,
+     * is stored in `sets` at its index.
+     *
+     * @param symbols symbol table of the elements
+     * @param sets    index sets by index
+     * @param shared  bit set of the shared index sets
+     * @param element the new element
+     *
+     * @return the allocated index
+     */
+    private static int allocate(SymbolTable symbols, ArrayList<IndexSet> sets, BitSet shared, Comparable element) {
+        int index = symbols.add(element);
+        shared.clear(index);
+        if (index == sets.size()) {
+            sets.add(IndexSet.create());
+        } else {
+            sets.set(index, IndexSet.create());
+        }
+        return index;
+    }
+
+    /**
+     * Releases the index of a removed element.
+     *
+     * This index is removed from each crossing index set of `others`.
+     *
+     * @param symbols symbol table of the elements
+     * @param sets    index sets by index
+     * @param others  crossing index sets
+     * @param shared  bit set of the shared crossing index sets
+     * @param element the removed element
+     */
+    private void release(SymbolTable symbols, ArrayList<IndexSet> sets, ArrayList<IndexSet> others, BitSet shared, Comparable element) {
+        int index = symbols.getId(element);
+        IndexSet crosses = sets.get(index);
+        for (int i = crosses.nextIndex(0); i >= 0; i = crosses.nextIndex(i + 1)) {
+            others.set(i, this.writable(others, shared, i).remove(index, symbols.capacity()));
+        }
+        symbols.remove(element);
+        sets.set(index, null);
+    }
+
+    /**
+     * Returns the specified symbol table, or a copy of it if it is shared
+     * with a snapshot, before a change of this component.
+     *
+     * @param symbols a symbol table of this component
+     *
+     * @return a symbol table that can be changed
+     */
+    private SymbolTable writable(SymbolTable symbols) {
+        this.snapshot = null;
+        if (symbols.isFrozen()) {
+            return new SymbolTable(symbols);
+        }
+        return symbols;
+    }
+
+    /**
+     * Returns the index set of the specified index, replaced by a copy if it
+     * is shared with a snapshot, before a change of this component.
+     *
+     * @param sets   index sets by index
+     * @param shared bit set of the shared index sets
+     * @param index  an index
+     *
+     * @return an index set that can be changed
+     */
+    private IndexSet writable(ArrayList<IndexSet> sets, BitSet shared, int index) {
+        this.snapshot = null;
+        IndexSet set = sets.get(index);
+        if (shared.get(index)) {
+            shared.clear(index);
+            set = set.copy();
+            sets.set(index, set);
+        }
+        return set;
+    }
+
+    /**
+     * Returns an immutable snapshot of this component.
+     *
+     * The snapshot shares the index sets and symbol tables of this component,
+     * which are copied by the next changes of this component only when they
+     * are touched. A snapshot is never changed, so that it can be used by any
+     * number of threads while this component keeps being changed by the
+     * thread taking the snapshots. The same snapshot is returned until this
+     * component is changed.
+     *
+     * @return the snapshot
+     */
+    public ContextSnapshot snapshot() {
+        if (this.snapshot == null) {
+            this.attributeSymbols.freeze();
+            this.observationSymbols.freeze();
+            this.sharedIntent.set(0, this.indexSetIntent.size());
+            this.sharedExtent.set(0, this.indexSetExtent.size());
+            this.snapshot = new ContextSnapshot(this.attributeSymbols, this.observationSymbols,
+                    new ArrayList<IndexSet>(this.indexSetIntent), new ArrayList<IndexSet>(this.indexSetExtent));
+        }
+        return this.snapshot;
     }
 
     /**
      * Set the needed structures for the bitset optimization.
-     * WARNING: this must be called each time your dataset change
+     *
+     * The bitset structures are kept up to date by each change of this
+     * component, so this method is only needed to rebuild them from scratch:
+     * indexes are then reallocated following the ascending order.
      */
     public void setBitSets() {
         this.setMaps();
@@ -578,15 +719,13 @@ public class Context extends ClosureSystem {
      * Set the mapping structure for the bitset optimization.
      */
     private void setMaps() {
-        this.arrayAttributes = new ArrayList();
-        this.arrayObservations = new ArrayList();
-        Iterator<Comparable> i = this.attributes.iterator();
-        while (i.hasNext()) {
-            this.arrayAttributes.add(i.next());
+        this.attributeSymbols = new SymbolTable();
+        for (Comparable att : this.attributes) {
+            this.attributeSymbols.add(att);
         }
-        i = this.observations.iterator();
-        while (i.hasNext()) {
-            this.arrayObservations.add(i.next());
+        this.observationSymbols = new SymbolTable();
+        for (Comparable obs : this.observations) {
+            this.observationSymbols.add(obs);
         }
     }
 
@@ -594,28 +733,208 @@ public class Context extends ClosureSystem {
      * Set the extent and intent structures for the bitset optimization.
      */
     private void setBitSetsIntentExtent() {
-        this.bitsetIntent = new TreeMap();
-        this.bitsetExtent = new TreeMap();
-        Iterator<Comparable> i = this.attributes.iterator();
-        BitSet b = new BitSet(this.observations.size());
-        while (i.hasNext()) {
-            Comparable att = i.next();
-            for (Comparable c : this.extent.get(att)) {
-                b.set(this.arrayObservations.indexOf(c));
+        int size = this.observationSymbols.capacity();
+        this.indexSetIntent = new ArrayList(size);
+        for (int i = 0; i < size; i++) {
+            TreeSet<Comparable> obsIntent = this.intent.get(this.observationSymbols.getSymbol(i));
+            int[] values = new int[obsIntent.size()];
+            int k = 0;
+            for (Comparable c : obsIntent) {
+                values[k] = this.attributeSymbols.getId(c);
+                k++;
+            }
+            this.indexSetIntent.add(IndexSet.create(values, k, this.attributeSymbols.capacity()));
+        }
+        this.indexSetExtent = transpose(this.indexSetIntent, this.attributeSymbols.capacity());
+        this.sharedIntent = new BitSet();
+        this.sharedExtent = new BitSet();
+        this.snapshot = null;
+    }
+
+    /**
+     * Returns the transposition of the specified index sets.
+     *
+     * The result contains, for each index `j` lesser than `size`, the set of
+     * indexes `i` such that `j` belongs to the set of index `i`.
+     *
+     * @param sets index sets by index
+     * @param size number of possible indexes in the sets
+     *
+     * @return the transposed index sets
+     */
+    private static ArrayList<IndexSet> transpose(ArrayList<IndexSet> sets, int size) {
+        int[] counts = new int[size];
+        for (IndexSet set : sets) {
+            for (int j = set.nextIndex(0); j >= 0; j = set.nextIndex(j + 1)) {
+                counts[j]++;
             }
-            this.bitsetExtent.put(att, (BitSet) b.clone());
-            b.clear();
         }
-        i = this.observations.iterator();
-        b = new BitSet(this.attributes.size());
-        while (i.hasNext()) {
-            Comparable obs = i.next();
-            for (Comparable c : this.intent.get(obs)) {
-                b.set(this.arrayAttributes.indexOf(c));
+        int[][] values = new int[size][];
+        for (int j = 0; j < size; j++) {
+            values[j] = new int[counts[j]];
+            counts[j] = 0;
+        }
+        for (int i = 0; i < sets.size(); i++) {
+            IndexSet set = sets.get(i);
+            for (int j = set.nextIndex(0); j >= 0; j = set.nextIndex(j + 1)) {
+                values[j][counts[j]] = i;
+                counts[j]++;
+            }
+        }
+        ArrayList<IndexSet> result = new ArrayList(size);
+        for (int j = 0; j < size; j++) {
+            result.add(IndexSet.create(values[j], counts[j], sets.size()));
+            values[j] = null;
+        }
+        return result;
+    }
+
+    /**
+     * Loads this component from indexed attributes, observations and intents.
+     *
+     * The previous content of this component is discarded. The lists are
+     * owned by this component after the call. This method is used by
+     * {@link ContextBuilder} to build all the structures at once.
+     *
+     * @param attributes   attributes by index
+     * @param observations observations by index
+     * @param intents      index set of attributes by observation index
+     *
+     * @return this for chaining
+     */
+    Context load(ArrayList<Comparable> attributes, ArrayList<Comparable> observations, ArrayList<IndexSet> intents) {
+        this.init();
+        this.indexSetIntent = intents;
+        ArrayList<TreeSet<Comparable>> extents = new ArrayList(attributes.size());
+        for (int j = 0; j < attributes.size(); j++) {
+            Comparable a = attributes.get(j);
+            this.attributes.add(a);
+            this.attributeSymbols.add(a);
+            TreeSet<Comparable> set = new TreeSet<Comparable>();
+            this.extent.put(a, set);
+            extents.add(set);
+        }
+        for (int i = 0; i < observations.size(); i++) {
+            Comparable o = observations.get(i);
+            this.observations.add(o);
+            this.observationSymbols.add(o);
+            TreeSet<Comparable> set = new TreeSet<Comparable>();
+            IndexSet row = intents.get(i).optimize(attributes.size());
+            intents.set(i, row);
+            for (int j = row.nextIndex(0); j >= 0; j = row.nextIndex(j + 1)) {
+                set.add(attributes.get(j));
+                extents.get(j).add(o);
             }
-            this.bitsetIntent.put(obs, (BitSet) b.clone());
-            b.clear();
+            this.intent.put(o, set);
         }
+        this.indexSetExtent = transpose(intents, attributes.size());
+        return this;
+    }
+
+    /**
+     * Returns the index of the specified attribute in the bitset structures.
+     *
+     * Indexes are stable: the index of an attribute does not change until the
+     * attribute is removed.
+     *
+     * @param att an attribute
+     *
+     * @return the index of the attribute, or -1 if it does not belong to this
+     *         component
+     */
+    public int getAttributeIndex(Comparable att) {
+        return this.attributeSymbols.getId(att);
+    }
+
+    /**
+     * Returns the index of the specified observation in the bitset structures.
+     *
+     * Indexes are stable: the index of an observation does not change until
+     * the observation is removed.
+     *
+     * @param obs an observation
+     *
+     * @return the index of the observation, or -1 if it does not belong to
+     *         this component
+     */
+    public int getObservationIndex(Comparable obs) {
+        return this.observationSymbols.getId(obs);
+    }
+
+    /**
+     * Returns the attribute of the specified index in the bitset structures.
+     *
+     * @param index an index lesser than `getAttributeSymbols().capacity()`
+     *
+     * @return the attribute, or null if the index is not used
+     */
+    public Comparable getAttribute(int index) {
+        return this.attributeSymbols.getSymbol(index);
+    }
+
+    /**
+     * Returns the observation of the specified index in the bitset structures.
+     *
+     * @param index an index lesser than `getObservationSymbols().capacity()`
+     *
+     * @return the observation, or null if the index is not used
+     */
+    public Comparable getObservation(int index) {
+        return this.observationSymbols.getSymbol(index);
+    }
+
+    /**
+     * Returns the symbol table of the attributes of this component.
+     *
+     * The table is updated by each change of this component.
+     *
+     * @return the symbol table of the attributes
+     */
+    public SymbolTable getAttributeSymbols() {
+        return this.attributeSymbols;
+    }
+
+    /**
+     * Returns the symbol table of the observations of this component.
+     *
+     * The table is updated by each change of this component.
+     *
+     * @return the symbol table of the observations
+     */
+    public SymbolTable getObservationSymbols() {
+        return this.observationSymbols;
+    }
+
+    /**
+     * Returns the index set of the attributes that are intent of the
+     * observation of the specified index.
+     *
+     * The index set is the one used by this component: it must not be
+     * modified, and it is no longer up to date once the intent of the
+     * observation is changed.
+     *
+     * @param obs index of an observation
+     *
+     * @return the index set of attributes
+     */
+    public IndexSet intentBits(int obs) {
+        return this.indexSetIntent.get(obs);
+    }
+
+    /**
+     * Returns the index set of the observations that are extent of the
+     * attribute of the specified index.
+     *
+     * The index set is the one used by this component: it must not be
+     * modified, and it is no longer up to date once the extent of the
+     * attribute is changed.
+     *
+     * @param att index of an attribute
+     *
+     * @return the index set of observations
+     */
+    public IndexSet extentBits(int att) {
+        return this.indexSetExtent.get(att);
     }
 
     /*
@@ -646,11 +965,28 @@ public class Context extends ClosureSystem {
      * @return the set of observations
      */
     public TreeSet<Comparable> getIntent(TreeSet<Comparable> set) {
-        TreeSet<Comparable> resIntent = new TreeSet(this.getAttributes());
-        for (Comparable obs : set) {
-            resIntent.retainAll(this.getIntent(obs));
+        return this.toAttributes(this.intentBitSet(set));
+    }
+
+    /**
+     * Returns the bitset of attributes that are all intent of observations of
+     * the specified bitset.
+     *
+     * Bit `i` of the specified bitset stands for the observation of index `i`,
+     * and bit `j` of the returned bitset stands for the attribute of index `j`
+     * (see {@link #getObservationIndex} and {@link #getAttributeIndex}). No
+     * boxing occurs.
+     *
+     * @param set bitset of observations
+     *
+     * @return the bitset of attributes
+     */
+    public BitSet getIntentBitSet(BitSet set) {
+        ArrayList<IndexSet> sets = new ArrayList<IndexSet>(set.cardinality());
+        for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+            sets.add(this.indexSetIntent.get(i));
         }
-        return resIntent;
+        return IndexSet.intersection(sets, this.attributeSymbols.ids());
     }
 
     /**
@@ -662,17 +998,29 @@ public class Context extends ClosureSystem {
      * @return the number of attributes
      */
     public int getIntentNb(TreeSet<Comparable> set) {
-        int size = this.getAttributes().size();
-        BitSet obsIntent = new BitSet(size);
-        obsIntent.set(0, size);
+        return this.intentBitSet(set).cardinality();
+    }
+
+    /**
+     * Returns the bitset of attributes that are all intent of observations of
+     * the specified set.
+     *
+     * An unknown observation gives an empty bitset.
+     *
+     * @param set set of observations
+     *
+     * @return the bitset of attributes
+     */
+    private BitSet intentBitSet(TreeSet<Comparable> set) {
+        ArrayList<IndexSet> sets = new ArrayList<IndexSet>(set.size());
         for (Comparable obs : set) {
-            try {
-                obsIntent.and(this.bitsetIntent.get(obs));
-            } catch (NullPointerException e) {
-                return 0;
+            int index = this.observationSymbols.getId(obs);
+            if (index < 0) {
+                return new BitSet();
             }
+            sets.add(this.indexSetIntent.get(index));
         }
-        return obsIntent.cardinality();
+        return IndexSet.intersection(sets, this.attributeSymbols.ids());
     }
 
     /**
@@ -717,11 +1065,28 @@ public class Context extends ClosureSystem {
      * @return the set of observations
      */
     public TreeSet<Comparable> getExtent(TreeSet<Comparable> set) {
-        TreeSet<Comparable> attExtent = new TreeSet(this.getObservations());
-        for (Comparable att : set) {
-            attExtent.retainAll(this.getExtent(att));
+        return this.toObservations(this.extentBitSet(set));
+    }
+
+    /**
+     * Returns the bitset of observations that are all intent of attributes of
+     * the specified bitset.
+     *
+     * Bit `i` of the specified bitset stands for the attribute of index `i`,
+     * and bit `j` of the returned bitset stands for the observation of index
+     * `j` (see {@link #getAttributeIndex} and {@link #getObservationIndex}).
+     * No boxing occurs.
+     *
+     * @param set bitset of attributes
+     *
+     * @return the bitset of observations
+     */
+    public BitSet getExtentBitSet(BitSet set) {
+        ArrayList<IndexSet> sets = new ArrayList<IndexSet>(set.cardinality());
+        for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+            sets.add(this.indexSetExtent.get(i));
         }
-        return attExtent;
+        return IndexSet.intersection(sets, this.observationSymbols.ids());
     }
 
     /**
@@ -733,17 +1098,59 @@ public class Context extends ClosureSystem {
      * @return the number of observations
      */
     public int getExtentNb(TreeSet<Comparable> set) {
-        int size = this.getObservations().size();
-        BitSet attExtent = new BitSet(size);
-        attExtent.set(0, size);
+        return this.extentBitSet(set).cardinality();
+    }
+
+    /**
+     * Returns the bitset of observations that are all intent of attributes of
+     * the specified set.
+     *
+     * An unknown attribute gives an empty bitset.
+     *
+     * @param set set of attributes
+     *
+     * @return the bitset of observations
+     */
+    private BitSet extentBitSet(TreeSet<Comparable> set) {
+        ArrayList<IndexSet> sets = new ArrayList<IndexSet>(set.size());
         for (Comparable att : set) {
-            try {
-                attExtent.and(this.bitsetExtent.get(att));
-            } catch (NullPointerException e) {
-                return 0;
+            int index = this.attributeSymbols.getId(att);
+            if (index < 0) {
+                return new BitSet();
             }
+            sets.add(this.indexSetExtent.get(index));
+        }
+        return IndexSet.intersection(sets, this.observationSymbols.ids());
+    }
+
+    /**
+     * Returns the set of attributes of the specified bitset.
+     *
+     * @param set bitset of attributes
+     *
+     * @return the set of attributes
+     */
+    private TreeSet<Comparable> toAttributes(BitSet set) {
+        TreeSet<Comparable> result = new TreeSet<Comparable>();
+        for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+            result.add(this.attributeSymbols.getSymbol(i));
         }
-        return attExtent.cardinality();
+        return result;
+    }
+
+    /**
+     * Returns the set of observations of the specified bitset.
+     *
+     * @param set bitset of observations
+     *
+     * @return the set of observations
+     */
+    private TreeSet<Comparable> toObservations(BitSet set) {
+        TreeSet<Comparable> result = new TreeSet<Comparable>();
+        for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+            result.add(this.observationSymbols.getSymbol(i));
+        }
+        return result;
     }
 
     /**
@@ -777,7 +1184,10 @@ public class Context extends ClosureSystem {
     public boolean addExtentIntent(Comparable obs, Comparable att) {
         if (this.containsObservation(obs) && this.containsAttribute(att)) {
             boolean ok = this.intent.get(obs).add(att) && this.extent.get(att).add(obs);
-            this.setBitSets();
+            int i = this.observationSymbols.getId(obs);
+            int j = this.attributeSymbols.getId(att);
+            this.indexSetIntent.set(i, this.writable(this.indexSetIntent, this.sharedIntent, i).add(j, this.attributeSymbols.capacity()));
+            this.indexSetExtent.set(j, this.writable(this.indexSetExtent, this.sharedExtent, j).add(i, this.observationSymbols.capacity()));
             return ok;
         } else {
             return false;
@@ -798,7 +1208,10 @@ public class Context extends ClosureSystem {
     public boolean removeExtentIntent(Comparable obs, Comparable att) {
         if (this.containsObservation(obs) && this.containsAttribute(att)) {
             boolean ok = this.intent.get(obs).remove(att) && this.extent.get(att).remove(obs);
-            this.setBitSets();
+            int i = this.observationSymbols.getId(obs);
+            int j = this.attributeSymbols.getId(att);
+            this.indexSetIntent.set(i, this.writable(this.indexSetIntent, this.sharedIntent, i).remove(j, this.attributeSymbols.capacity()));
+            this.indexSetExtent.set(j, this.writable(this.indexSetExtent, this.sharedExtent, j).remove(i, this.observationSymbols.capacity()));
             return ok;
         } else {
             return false;
@@ -914,18 +1327,17 @@ public class Context extends ClosureSystem {
      *
      * Reducible attributes are attributes equivalent by closure to others
      * attributes.
-     * They are computed by `getReducibleElements` od `ClosureSystem` in
-     * O(|A|^3|O|)
+     * They are computed by {@link ContextReduction} in O(|A|^2|O|)
      *
      * @return the set of reducibles removed attributes, with their equivalent
      *         attributes
      */
     public TreeMap<Comparable, TreeSet<Comparable>> attributesReduction() {
         // compute the reducible elements
-        TreeMap red = this.getReducibleElements();
+        TreeMap<Comparable, TreeSet<Comparable>> red = ContextReduction.attributes(this);
         // remove the reducible elements from the attributes set
-        for (Object att : red.keySet()) {
-            this.removeFromAttributes((Comparable) att);
+        for (Comparable att : red.keySet()) {
+            this.removeFromAttributes(att);
         }
         return red;
     }
@@ -935,20 +1347,17 @@ public class Context extends ClosureSystem {
      *
      * Reducible observations are attributes equivalent by closure to others
      * observations.
-     * They are computed by `getReducibleElements` od `ClosureSystem`
-     * applied on the reverse context in O(|O|^3|A|)
+     * They are computed by {@link ContextReduction} in O(|O|^2|A|)
      *
      * @return the set of reducibles removed attributes, with their equivalent
      *         attributes
      */
     public TreeMap<Comparable, TreeSet<Comparable>> observationsReduction() {
-        // compute the reducible elements of the reverse context
-        this.reverse();
-        TreeMap red = this.getReducibleElements();
-        this.reverse();
+        // compute the reducible elements
+        TreeMap<Comparable, TreeSet<Comparable>> red = ContextReduction.observations(this);
         // remove the reducible elements from the observations set
-        for (Object att : red.keySet()) {
-            this.removeFromObservations((Comparable) att);
+        for (Comparable obs : red.keySet()) {
+            this.removeFromObservations(obs);
         }
         return red;
     }
@@ -957,7 +1366,7 @@ public class Context extends ClosureSystem {
      * Removes from this component reducible attributes and observations.
      *
      * They are computed by `attributesReduction` then
-     * `observationsReduction` in O(|A|^3|O|+|O|^3|A|)
+     * `observationsReduction` in O(|A|^2|O|+|O|^2|A|)
      *
      * @return the set of reducibles removed attributes and observations with
      *         their equivalent elements
@@ -980,6 +1389,16 @@ public class Context extends ClosureSystem {
         TreeMap<Comparable, TreeSet<Comparable>> sauv = this.intent;
         this.intent = this.extent;
         this.extent = sauv;
+        ArrayList<IndexSet> sets = this.indexSetIntent;
+        this.indexSetIntent = this.indexSetExtent;
+        this.indexSetExtent = sets;
+        SymbolTable symbols = this.attributeSymbols;
+        this.attributeSymbols = this.observationSymbols;
+        this.observationSymbols = symbols;
+        BitSet shared = this.sharedIntent;
+        this.sharedIntent = this.sharedExtent;
+        this.sharedExtent = shared;
+        this.snapshot = null;
     }
 
     /**
@@ -990,7 +1409,6 @@ public class Context extends ClosureSystem {
     public Context getReverseContext() {
         Context context = new Context(this);
         context.reverse();
-        context.setBitSets();
         return context;
     }
 
@@ -1151,7 +1569,11 @@ public class Context extends ClosureSystem {
      * The closure corresponds to the maximal set of attributes having the
      * same intent as the specified one.
      *
-     * This treatment is performed in O(|A||O|)
+     * The extent is computed as the intersection of the attribute bitsets, and
+     * the closure as the intersection of the observation bitsets of this
+     * extent. Sets of comparables are only built for the result.
+     *
+     * This treatment is performed in O(|A||O|/w) where w is the word size.
      *
      * @param set a TreeSet of indexed elements
      *
@@ -1159,7 +1581,23 @@ public class Context extends ClosureSystem {
      */
     @Override
     public TreeSet<Comparable> closure(TreeSet<Comparable> set) {
-        return this.getIntent(this.getExtent(set));
+        this.closureComputed();
+        return this.toAttributes(this.getIntentBitSet(this.extentBitSet(set)));
+    }
+
+    /**
+     * Builds the closure of a bitset of attributes.
+     *
+     * Bit `i` stands for the attribute of index `i` (see
+     * {@link #getAttributeIndex}). This treatment works entirely on bitsets and
+     * never boxes.
+     *
+     * @param set a bitset of attributes
+     *
+     * @return the closure of the bitset for this component
+     */
+    public BitSet closure(BitSet set) {
+        return this.getIntentBitSet(this.getExtentBitSet(set));
     }
 
     /**
@@ -1216,7 +1654,25 @@ public class Context extends ClosureSystem {
      * @return The concept lattice induced by this component
      */
     public ConceptLattice conceptLattice(boolean diagram) {
-        ConceptLattice csl = this.closedSetLattice(diagram);
+        return this.conceptLattice(diagram, new Budget());
+    }
+
+    /**
+     * Returns the concept lattice of this component, as
+     * {@link #conceptLattice(boolean)} does, the budget being charged for each
+     * concept.
+     *
+     * When the budget runs out, the lattice of the concepts found so far is
+     * returned, as {@link Budget#isExhausted} tells.
+     *
+     * @param diagram a boolean indicating if the Hasse diagramm of the lattice
+     *                is computed or not.
+     * @param budget  the budget of the computation
+     *
+     * @return The concept lattice, partial when the budget is exhausted
+     */
+    public ConceptLattice conceptLattice(boolean diagram, Budget budget) {
+        ConceptLattice csl = this.closedSetLattice(diagram, budget);
         // TreeMap<Concept, Concept> nodes = new TreeMap<Concept, Concept>();
         for (Object node : csl.getNodes()) {
             Concept cl = (Concept) node;
@@ -1225,6 +1681,105 @@ public class Context extends ClosureSystem {
         return csl;
     }
 
+    /**
+     * Returns the closed set lattice of this component, whose closed sets are
+     * enumerated by the specified enumerator.
+     *
+     * @param diagram    a boolean indicating if the Hasse diagramm of the
+     *                   lattice is computed or not.
+     * @param enumerator an enumerator of concepts, such as
+     *                   {@link org.thegalactic.context.enumeration.FastCloseByOne}
+     *
+     * @return The closed set lattice
+     */
+    public ConceptLattice closedSetLattice(boolean diagram, ConceptEnumerator enumerator) {
+        ConceptCollector collector = new ConceptCollector(this, false);
+        enumerator.enumerate(this, collector);
+        return collector.getLattice(diagram);
+    }
+
+    /**
+     * Returns the concept lattice of this component, whose concepts are
+     * enumerated by the specified enumerator.
+     *
+     * @param diagram    a boolean indicating if the Hasse diagramm of the
+     *                   lattice is computed or not.
+     * @param enumerator an enumerator of concepts, such as
+     *                   {@link org.thegalactic.context.enumeration.FastCloseByOne}
+     *
+     * @return The concept lattice induced by this component
+     */
+    public ConceptLattice conceptLattice(boolean diagram, ConceptEnumerator enumerator) {
+        ConceptCollector collector = new ConceptCollector(this, true);
+        enumerator.enumerate(this, collector);
+        return collector.getLattice(diagram);
+    }
+
+    /**
+     * Returns the closed set lattice of this component, whose closed sets are
+     * enumerated by the specified enumerator within the specified budget.
+     *
+     * The budget is charged for each closed set, and checked while the edges
+     * are computed. When it runs out, the lattice of the closed sets found so
+     * far is returned, as {@link Budget#isExhausted} tells (see
+     * {@link ConceptCollector#getLattice}).
+     *
+     * @param diagram    a boolean indicating if the Hasse diagramm of the
+     *                   lattice is computed or not.
+     * @param enumerator an enumerator of concepts, such as
+     *                   {@link org.thegalactic.context.enumeration.FastCloseByOne}
+     * @param budget     the budget of the computation
+     *
+     * @return The closed set lattice, partial when the budget is exhausted
+     */
+    public ConceptLattice closedSetLattice(boolean diagram, ConceptEnumerator enumerator, Budget budget) {
+        ConceptCollector collector = new ConceptCollector(this, false, budget);
+        this.enumerate(enumerator, collector, budget);
+        return collector.getLattice(diagram);
+    }
+
+    /**
+     * Returns the concept lattice of this component, whose concepts are
+     * enumerated by the specified enumerator within the specified budget.
+     *
+     * The budget is charged for each concept, and checked while the edges
+     * are computed. When it runs out, the lattice of the concepts found so far
+     * is returned, as {@link Budget#isExhausted} tells (see
+     * {@link ConceptCollector#getLattice}).
+     *
+     * @param diagram    a boolean indicating if the Hasse diagramm of the
+     *                   lattice is computed or not.
+     * @param enumerator an enumerator of concepts, such as
+     *                   {@link org.thegalactic.context.enumeration.FastCloseByOne}
+     * @param budget     the budget of the computation
+     *
+     * @return The concept lattice induced by this component, partial when the
+     *         budget is exhausted
+     */
+    public ConceptLattice conceptLattice(boolean diagram, ConceptEnumerator enumerator, Budget budget) {
+        ConceptCollector collector = new ConceptCollector(this, true, budget);
+        this.enumerate(enumerator, collector, budget);
+        return collector.getLattice(diagram);
+    }
+
+    /**
+     * Enumerates the concepts of this component into the specified collector
+     * until the specified budget runs out.
+     *
+     * @param enumerator an enumerator of concepts
+     * @param collector  a collector charging the budget
+     * @param budget     the budget of the enumeration
+     */
+    private void enumerate(ConceptEnumerator enumerator, ConceptCollector collector, Budget budget) {
+        try {
+            enumerator.enumerate(this, collector);
+        } catch (CancellationException e) {
+            if (!budget.isExhausted()) {
+                throw e;
+            }
+        }
+    }
+
     /**
      * Reccursively generates nodes of the product lattice.
      *
@@ -1378,8 +1933,14 @@ public class Context extends ClosureSystem {
      * Returns the closed set iceberg of this component.
      *
      * The Hasse diagramm of the iceberg is computed (i.e. it is transitively
-     * reduced)
-     * until the support of the closed set is less than the support value.
+     * reduced), its closed sets being the ones whose extent has at least the
+     * support value times the number of observations.
+     *
+     * The frequent closed sets are enumerated by
+     * {@link org.thegalactic.context.enumeration.FrequentCloseByOne}, which
+     * prunes the infrequent candidates before computing their closure. The
+     * dependence graph of the iceberg is not computed: it is by
+     * {@link ConceptLattice#diagramIceberg}.
      *
      * @param support a threshold, between 0 and 1, for a closed set to be part
      *                of the iceberg.
@@ -1387,7 +1948,27 @@ public class Context extends ClosureSystem {
      * @return The concept iceberg
      */
     public ConceptLattice closedSetIceberg(double support) {
-        return ConceptLattice.diagramIceberg(this, support);
+        int threshold = (int) (support * this.getObservations().size());
+        return this.closedSetLattice(true, new FrequentCloseByOne(threshold));
+    }
+
+    /**
+     * Returns the closed set iceberg of this component, as
+     * {@link #closedSetIceberg(double)} does, the budget being charged for
+     * each frequent closed set.
+     *
+     * When the budget runs out, the iceberg of the frequent closed sets found
+     * so far is returned, as {@link Budget#isExhausted} tells.
+     *
+     * @param support a threshold, between 0 and 1, for a closed set to be part
+     *                of the iceberg.
+     * @param budget  the budget of the computation
+     *
+     * @return The concept iceberg, partial when the budget is exhausted
+     */
+    public ConceptLattice closedSetIceberg(double support, Budget budget) {
+        int threshold = (int) (support * this.getObservations().size());
+        return this.closedSetLattice(true, new FrequentCloseByOne(threshold), budget);
     }
 
     /**
@@ -1399,4 +1980,18 @@ public class Context extends ClosureSystem {
     public ConceptLattice lattice() {
         return this.conceptLattice(true);
     }
+
+    /**
+     * Returns the lattice of this component, the budget being charged for
+     * each concept.
+     *
+     * @param budget the budget of the computation
+     *
+     * @return The lattice induced by this component, partial when the budget
+     *         is exhausted
+     */
+    @Override
+    public ConceptLattice lattice(Budget budget) {
+        return this.conceptLattice(true, budget);
+    }
 }
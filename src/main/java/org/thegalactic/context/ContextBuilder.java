@@ -0,0 +1,271 @@
+package org.thegalactic.context;
+
+/*
+ * ContextBuilder.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.TreeMap;
+
+import org.thegalactic.util.IndexSet;
+
+/**
+ * This class builds a context in bulk.
+ *
+ * Attributes and observations receive consecutive indexes as they are added,
+ * and rows are given by observation index with a list of attribute indexes or
+ * a bitset of attribute indexes. Once all rows are given, method
+ * {@link #build} freezes them into a context: sets, maps and bitsets of the
+ * context are then built once, instead of being updated cell by cell.
+ *
+ * ~~~
+ * ContextBuilder builder = new ContextBuilder();
+ * int a = builder.addAttribute("a");
+ * int b = builder.addAttribute("b");
+ * builder.addRow("1", a, b);
+ * builder.addRow("2", b);
+ * Context context = builder.build();
+ * ~~~
+ */
+public final class ContextBuilder {
+
+    /**
+     * Attributes by index.
+     */
+    private ArrayList<Comparable> attributes;
+
+    /**
+     * Observations by index.
+     */
+    private ArrayList<Comparable> observations;
+
+    /**
+     * A map to associate its index to each attribute.
+     */
+    private TreeMap<Comparable, Integer> indexAttributes;
+
+    /**
+     * A map to associate its index to each observation.
+     */
+    private TreeMap<Comparable, Integer> indexObservations;
+
+    /**
+     * Set of attribute indexes for each observation index.
+     */
+    private ArrayList<IndexSet> rows;
+
+    /**
+     * Constructs a new empty builder.
+     */
+    public ContextBuilder() {
+        this.clear();
+    }
+
+    /**
+     * Removes all attributes, observations and rows of this builder.
+     *
+     * @return this for chaining
+     */
+    public ContextBuilder clear() {
+        this.attributes = new ArrayList<Comparable>();
+        this.observations = new ArrayList<Comparable>();
+        this.indexAttributes = new TreeMap<Comparable, Integer>();
+        this.indexObservations = new TreeMap<Comparable, Integer>();
+        this.rows = new ArrayList<IndexSet>();
+        return this;
+    }
+
+    /**
+     * Checks if the specified attribute has been added to this builder.
+     *
+     * @param att an attribute
+     *
+     * @return true if the attribute belongs to this builder
+     */
+    public boolean containsAttribute(Comparable att) {
+        return this.indexAttributes.containsKey(att);
+    }
+
+    /**
+     * Checks if the specified observation has been added to this builder.
+     *
+     * @param obs an observation
+     *
+     * @return true if the observation belongs to this builder
+     */
+    public boolean containsObservation(Comparable obs) {
+        return this.indexObservations.containsKey(obs);
+    }
+
+    /**
+     * Adds the specified attribute, if not already added, and returns its
+     * index.
+     *
+     * @param att an attribute
+     *
+     * @return the index of the attribute
+     */
+    public int addAttribute(Comparable att) {
+        Integer index = this.indexAttributes.get(att);
+        if (index == null) {
+            index = this.attributes.size();
+            this.attributes.add(att);
+            this.indexAttributes.put(att, index);
+        }
+        return index;
+    }
+
+    /**
+     * Adds the specified observation, if not already added, and returns its
+     * index.
+     *
+     * @param obs an observation
+     *
+     * @return the index of the observation
+     */
+    public int addObservation(Comparable obs) {
+        Integer index = this.indexObservations.get(obs);
+        if (index == null) {
+            index = this.observations.size();
+            this.observations.add(obs);
+            this.indexObservations.put(obs, index);
+            this.rows.add(IndexSet.create());
+        }
+        return index;
+    }
+
+    /**
+     * Returns the number of attributes of this builder.
+     *
+     * @return the number of attributes
+     */
+    public int getAttributesSize() {
+        return this.attributes.size();
+    }
+
+    /**
+     * Returns the number of observations of this builder.
+     *
+     * @return the number of observations
+     */
+    public int getObservationsSize() {
+        return this.observations.size();
+    }
+
+    /**
+     * Adds a cross between the specified observation and attribute indexes.
+     *
+     * @param obs index of an observation
+     * @param att index of an attribute
+     *
+     * @return this for chaining
+     *
+     * @throws IndexOutOfBoundsException if an index has not been allocated
+     */
+    public ContextBuilder addCross(int obs, int att) {
+        if (att < 0 || att >= this.attributes.size()) {
+            throw new IndexOutOfBoundsException("Unexisting attribute index " + att);
+        }
+        this.rows.set(obs, this.rows.get(obs).add(att, this.attributes.size()));
+        return this;
+    }
+
+    /**
+     * Adds a cross between the specified observation and attribute.
+     *
+     * The first one has to belong to the observations and the second one to
+     * the attributes of this builder.
+     *
+     * @param obs an observation
+     * @param att an attribute
+     *
+     * @return true if both belong to this builder
+     */
+    public boolean addCross(Comparable obs, Comparable att) {
+        Integer i = this.indexObservations.get(obs);
+        Integer j = this.indexAttributes.get(att);
+        if (i == null || j == null) {
+            return false;
+        }
+        this.addCross((int) i, (int) j);
+        return true;
+    }
+
+    /**
+     * Adds the specified observation with crosses on the specified attribute
+     * indexes.
+     *
+     * @param obs        an observation
+     * @param attributes indexes of attributes
+     *
+     * @return the index of the observation
+     *
+     * @throws IndexOutOfBoundsException if an attribute index has not been
+     *                                   allocated
+     */
+    public int addRow(Comparable obs, int... attributes) {
+        int index = this.addObservation(obs);
+        for (int att : attributes) {
+            this.addCross(index, att);
+        }
+        return index;
+    }
+
+    /**
+     * Adds the specified observation with crosses on the specified bitset of
+     * attribute indexes.
+     *
+     * @param obs        an observation
+     * @param attributes bitset of attribute indexes
+     *
+     * @return the index of the observation
+     *
+     * @throws IndexOutOfBoundsException if an attribute index has not been
+     *                                   allocated
+     */
+    public int addRow(Comparable obs, BitSet attributes) {
+        if (attributes.length() > this.attributes.size()) {
+            throw new IndexOutOfBoundsException("Unexisting attribute index " + (attributes.length() - 1));
+        }
+        int index = this.addObservation(obs);
+        for (int att = attributes.nextSetBit(0); att >= 0; att = attributes.nextSetBit(att + 1)) {
+            this.addCross(index, att);
+        }
+        return index;
+    }
+
+    /**
+     * Freezes this builder into a new context.
+     *
+     * This builder is emptied.
+     *
+     * @return the context
+     */
+    public Context build() {
+        return this.build(new Context());
+    }
+
+    /**
+     * Freezes this builder into the specified context, whose previous content
+     * is discarded.
+     *
+     * Indexes of attributes and observations in the context are those of this
+     * builder. This builder is emptied.
+     *
+     * @param context the context to load
+     *
+     * @return the context
+     */
+    public Context build(Context context) {
+        context.load(this.attributes, this.observations, this.rows);
+        this.clear();
+        return context;
+    }
+}
@@ -0,0 +1,327 @@
+package org.thegalactic.context;
+
+/*
+ * ContextReduction.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class computes the reducible attributes and observations of a context.
+ *
+ * An attribute is reducible when its extent is the extent of another
+ * attribute, or the intersection of the extents strictly containing it (the
+ * intersection of no extent being the set of all observations). Observations
+ * are reduced in the same way using their intents.
+ *
+ * Columns are hashed as bitsets to group equal ones, the smallest element of
+ * each group being kept. The other columns are then sorted by decreasing
+ * cardinality, so that the columns strictly containing a column are among the
+ * ones preceding it, and they are tested in parallel for large contexts.
+ * Reducing `n` columns of `m` bits runs in O(n^2 m / 64) time.
+ *
+ * ~~~
+ * TreeMap<Comparable, TreeSet<Comparable>> red = ContextReduction.attributes(context);
+ * ~~~
+ */
+public final class ContextReduction {
+
+    /**
+     * Number of columns from which tests are run in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    /**
+     * Elements by position.
+     */
+    private final Comparable[] elements;
+
+    /**
+     * Position of the kept equal column of each position.
+     */
+    private final int[] representatives;
+
+    /**
+     * Positions of kept columns by decreasing cardinality.
+     */
+    private final int[] order;
+
+    /**
+     * Words of kept columns, in `order`.
+     */
+    private final long[][] words;
+
+    /**
+     * Cardinalities of kept columns, in `order`.
+     */
+    private final int[] cardinalities;
+
+    /**
+     * Words of the set of all rows.
+     */
+    private final long[] full;
+
+    /**
+     * Reducibility of kept columns, in `order`.
+     */
+    private final boolean[] reducible;
+
+    /**
+     * Constructs a reduction of the specified columns.
+     *
+     * @param elements elements in ascending order
+     * @param columns  column of each element
+     * @param universe the set of all rows
+     */
+    private ContextReduction(Comparable[] elements, BitSet[] columns, BitSet universe) {
+        this.elements = elements;
+        this.representatives = new int[elements.length];
+        HashMap<BitSet, Integer> classes = new HashMap<BitSet, Integer>();
+        ArrayList<Integer> kept = new ArrayList<Integer>();
+        for (int k = 0; k < elements.length; k++) {
+            Integer representative = classes.get(columns[k]);
+            if (representative == null) {
+                classes.put(columns[k], k);
+                kept.add(k);
+                this.representatives[k] = k;
+            } else {
+                this.representatives[k] = representative;
+            }
+        }
+        int size = kept.size();
+        long[] keys = new long[size];
+        for (int p = 0; p < size; p++) {
+            int k = kept.get(p);
+            keys[p] = (long) (Integer.MAX_VALUE - columns[k].cardinality()) << 32 | k;
+        }
+        Arrays.sort(keys);
+        this.full = universe.toLongArray();
+        this.order = new int[size];
+        this.words = new long[size][];
+        this.cardinalities = new int[size];
+        for (int p = 0; p < size; p++) {
+            int k = (int) keys[p];
+            this.order[p] = k;
+            this.words[p] = Arrays.copyOf(columns[k].toLongArray(), this.full.length);
+            this.cardinalities[p] = Integer.MAX_VALUE - (int) (keys[p] >>> 32);
+        }
+        this.reducible = new boolean[size];
+    }
+
+    /**
+     * Returns the reducible attributes of the specified context.
+     *
+     * Each reducible attribute is associated with a set of attributes, not
+     * reducible, whose extents intersection is its extent.
+     *
+     * @param context a context
+     *
+     * @return the reducible attributes with their equivalent attributes
+     */
+    public static TreeMap<Comparable, TreeSet<Comparable>> attributes(Context context) {
+        Comparable[] elements = context.getAttributes().toArray(new Comparable[0]);
+        BitSet[] columns = new BitSet[elements.length];
+        for (int k = 0; k < elements.length; k++) {
+            columns[k] = context.extentBits(context.getAttributeIndex(elements[k])).toBitSet();
+        }
+        return new ContextReduction(elements, columns, context.getObservationSymbols().getIds()).reduce();
+    }
+
+    /**
+     * Returns the reducible observations of the specified context.
+     *
+     * Each reducible observation is associated with a set of observations,
+     * not reducible, whose intents intersection is its intent.
+     *
+     * @param context a context
+     *
+     * @return the reducible observations with their equivalent observations
+     */
+    public static TreeMap<Comparable, TreeSet<Comparable>> observations(Context context) {
+        Comparable[] elements = context.getObservations().toArray(new Comparable[0]);
+        BitSet[] columns = new BitSet[elements.length];
+        for (int k = 0; k < elements.length; k++) {
+            columns[k] = context.intentBits(context.getObservationIndex(elements[k])).toBitSet();
+        }
+        return new ContextReduction(elements, columns, context.getAttributeSymbols().getIds()).reduce();
+    }
+
+    /**
+     * Computes the reducible elements.
+     *
+     * @return the reducible elements with their equivalent elements
+     */
+    private TreeMap<Comparable, TreeSet<Comparable>> reduce() {
+        if (this.order.length < PARALLEL_THRESHOLD) {
+            this.test(0, 1);
+        } else {
+            this.testParallel(Runtime.getRuntime().availableProcessors());
+        }
+        TreeMap<Comparable, TreeSet<Comparable>> red = new TreeMap<Comparable, TreeSet<Comparable>>();
+        HashMap<Integer, TreeSet<Comparable>> equivalents = new HashMap<Integer, TreeSet<Comparable>>();
+        for (int p = 0; p < this.order.length; p++) {
+            if (this.reducible[p]) {
+                TreeSet<Comparable> set = this.equivalents(p);
+                red.put(this.elements[this.order[p]], set);
+                equivalents.put(this.order[p], set);
+            }
+        }
+        for (int k = 0; k < this.elements.length; k++) {
+            int representative = this.representatives[k];
+            if (representative != k) {
+                TreeSet<Comparable> set = equivalents.get(representative);
+                if (set == null) {
+                    set = new TreeSet<Comparable>();
+                    set.add(this.elements[representative]);
+                } else {
+                    set = new TreeSet<Comparable>(set);
+                }
+                red.put(this.elements[k], set);
+            }
+        }
+        return red;
+    }
+
+    /**
+     * Tests the kept columns of positions `start`, `start + step`, ...
+     *
+     * @param start first position
+     * @param step  distance between positions
+     */
+    private void test(int start, int step) {
+        long[] intersection = new long[this.full.length];
+        for (int p = start; p < this.order.length; p += step) {
+            this.reducible[p] = this.isReducible(p, intersection);
+        }
+    }
+
+    /**
+     * Tests the kept columns with the specified number of threads.
+     *
+     * @param threads number of threads
+     */
+    private void testParallel(final int threads) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(threads);
+            for (int t = 0; t < threads; t++) {
+                final int start = t;
+                tasks.add(new Callable<Object>() {
+                    /**
+                     * Tests the columns of this task.
+                     *
+                     * @return null
+                     */
+                    @Override
+                    public Object call() {
+                        ContextReduction.this.test(start, threads);
+                        return null;
+                    }
+                });
+            }
+            for (Future<Object> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reduction interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Reduction failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Checks if the kept column of the specified position is the intersection
+     * of the columns strictly containing it.
+     *
+     * @param p            a position
+     * @param intersection a buffer for the intersection
+     *
+     * @return true if the column is reducible
+     */
+    private boolean isReducible(int p, long[] intersection) {
+        long[] column = this.words[p];
+        System.arraycopy(this.full, 0, intersection, 0, intersection.length);
+        if (Arrays.equals(intersection, column)) {
+            return true;
+        }
+        for (int q = 0; q < p && this.cardinalities[q] > this.cardinalities[p]; q++) {
+            if (isSubset(column, this.words[q]) && and(intersection, this.words[q], column)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the set of kept and not reducible elements whose column strictly
+     * contains the column of the specified position.
+     *
+     * @param p a position
+     *
+     * @return the set of elements
+     */
+    private TreeSet<Comparable> equivalents(int p) {
+        TreeSet<Comparable> set = new TreeSet<Comparable>();
+        for (int q = 0; q < p && this.cardinalities[q] > this.cardinalities[p]; q++) {
+            if (!this.reducible[q] && isSubset(this.words[p], this.words[q])) {
+                set.add(this.elements[this.order[q]]);
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Checks if the first specified words are included in the second ones.
+     *
+     * @param words1 words
+     * @param words2 words of the same length
+     *
+     * @return true if the first words are included in the second ones
+     */
+    private static boolean isSubset(long[] words1, long[] words2) {
+        for (int i = 0; i < words1.length; i++) {
+            if ((words1[i] & ~words2[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Intersects the specified words with the specified other ones.
+     *
+     * @param result words to be intersected
+     * @param other  words of the same length
+     * @param target words of the same length
+     *
+     * @return true if the result is equal to the target
+     */
+    private static boolean and(long[] result, long[] other, long[] target) {
+        boolean equal = true;
+        for (int i = 0; i < result.length; i++) {
+            result[i] &= other[i];
+            equal = equal && result[i] == target[i];
+        }
+        return equal;
+    }
+}
@@ -0,0 +1,340 @@
+package org.thegalactic.context;
+
+/*
+ * ContextSnapshot.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.TreeSet;
+
+import org.thegalactic.lattice.ClosureSystem;
+import org.thegalactic.util.IndexSet;
+
+/**
+ * This class gives an immutable view of a context at a given time.
+ *
+ * A snapshot is returned by {@link Context#snapshot}. It shares the index
+ * sets and the symbol tables of its context, which copies them before
+ * changing them. A snapshot is thus never changed and can be read by any
+ * number of threads, while the context keeps being changed by a single
+ * thread:
+ *
+ * ~~~
+ * ContextSnapshot snapshot = context.snapshot();
+ * // in any thread
+ * BitSet closure = snapshot.closure(attributes);
+ * ~~~
+ *
+ * Indexes of attributes and observations are the ones of the context when
+ * the snapshot was taken.
+ */
+public final class ContextSnapshot extends ClosureSystem {
+
+    /**
+     * Symbol table of the attributes.
+     */
+    private final SymbolTable attributeSymbols;
+
+    /**
+     * Symbol table of the observations.
+     */
+    private final SymbolTable observationSymbols;
+
+    /**
+     * Index sets of attributes by observation index.
+     */
+    private final ArrayList<IndexSet> intents;
+
+    /**
+     * Index sets of observations by attribute index.
+     */
+    private final ArrayList<IndexSet> extents;
+
+    /**
+     * Constructs a snapshot from frozen structures of a context.
+     *
+     * @param attributeSymbols   symbol table of the attributes
+     * @param observationSymbols symbol table of the observations
+     * @param intents            index sets of attributes by observation index
+     * @param extents            index sets of observations by attribute index
+     */
+    ContextSnapshot(SymbolTable attributeSymbols, SymbolTable observationSymbols, ArrayList<IndexSet> intents,
+            ArrayList<IndexSet> extents) {
+        super();
+        this.attributeSymbols = attributeSymbols;
+        this.observationSymbols = observationSymbols;
+        this.intents = intents;
+        this.extents = extents;
+    }
+
+    /**
+     * Returns the symbol table of the attributes.
+     *
+     * @return the symbol table of the attributes
+     */
+    public SymbolTable getAttributeSymbols() {
+        return this.attributeSymbols;
+    }
+
+    /**
+     * Returns the symbol table of the observations.
+     *
+     * @return the symbol table of the observations
+     */
+    public SymbolTable getObservationSymbols() {
+        return this.observationSymbols;
+    }
+
+    /**
+     * Returns a new set of the attributes.
+     *
+     * @return the set of attributes
+     */
+    public TreeSet<Comparable> getAttributes() {
+        return toSet(this.attributeSymbols, this.attributeSymbols.ids());
+    }
+
+    /**
+     * Returns a new set of the observations.
+     *
+     * @return the set of observations
+     */
+    public TreeSet<Comparable> getObservations() {
+        return toSet(this.observationSymbols, this.observationSymbols.ids());
+    }
+
+    /**
+     * Returns the index of the specified attribute.
+     *
+     * @param att an attribute
+     *
+     * @return the index of the attribute, or -1 if it does not belong to this
+     *         component
+     */
+    public int getAttributeIndex(Comparable att) {
+        return this.attributeSymbols.getId(att);
+    }
+
+    /**
+     * Returns the index of the specified observation.
+     *
+     * @param obs an observation
+     *
+     * @return the index of the observation, or -1 if it does not belong to
+     *         this component
+     */
+    public int getObservationIndex(Comparable obs) {
+        return this.observationSymbols.getId(obs);
+    }
+
+    /**
+     * Returns the attribute of the specified index.
+     *
+     * @param index an index lesser than `getAttributeSymbols().capacity()`
+     *
+     * @return the attribute, or null if the index is not used
+     */
+    public Comparable getAttribute(int index) {
+        return this.attributeSymbols.getSymbol(index);
+    }
+
+    /**
+     * Returns the observation of the specified index.
+     *
+     * @param index an index lesser than `getObservationSymbols().capacity()`
+     *
+     * @return the observation, or null if the index is not used
+     */
+    public Comparable getObservation(int index) {
+        return this.observationSymbols.getSymbol(index);
+    }
+
+    /**
+     * Returns the index set of the attributes that are intent of the
+     * observation of the specified index.
+     *
+     * @param obs index of an observation
+     *
+     * @return the index set of attributes, which must not be modified
+     */
+    public IndexSet intentBits(int obs) {
+        return this.intents.get(obs);
+    }
+
+    /**
+     * Returns the index set of the observations that are extent of the
+     * attribute of the specified index.
+     *
+     * @param att index of an attribute
+     *
+     * @return the index set of observations, which must not be modified
+     */
+    public IndexSet extentBits(int att) {
+        return this.extents.get(att);
+    }
+
+    /**
+     * Returns a new set of the attributes that are intent of the specified
+     * observation.
+     *
+     * @param obs an observation
+     *
+     * @return the set of attributes, empty for an unknown observation
+     */
+    public TreeSet<Comparable> getIntent(Comparable obs) {
+        int index = this.observationSymbols.getId(obs);
+        if (index < 0) {
+            return new TreeSet<Comparable>();
+        }
+        return toSet(this.attributeSymbols, this.intents.get(index).toBitSet());
+    }
+
+    /**
+     * Returns a new set of the observations that are extent of the specified
+     * attribute.
+     *
+     * @param att an attribute
+     *
+     * @return the set of observations, empty for an unknown attribute
+     */
+    public TreeSet<Comparable> getExtent(Comparable att) {
+        int index = this.attributeSymbols.getId(att);
+        if (index < 0) {
+            return new TreeSet<Comparable>();
+        }
+        return toSet(this.observationSymbols, this.extents.get(index).toBitSet());
+    }
+
+    /**
+     * Returns the bitset of attributes that are all intent of observations of
+     * the specified bitset.
+     *
+     * @param set bitset of observations
+     *
+     * @return the bitset of attributes
+     */
+    public BitSet getIntentBitSet(BitSet set) {
+        ArrayList<IndexSet> sets = new ArrayList<IndexSet>(set.cardinality());
+        for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+            sets.add(this.intents.get(i));
+        }
+        return IndexSet.intersection(sets, this.attributeSymbols.ids());
+    }
+
+    /**
+     * Returns the bitset of observations that are all extent of attributes of
+     * the specified bitset.
+     *
+     * @param set bitset of attributes
+     *
+     * @return the bitset of observations
+     */
+    public BitSet getExtentBitSet(BitSet set) {
+        ArrayList<IndexSet> sets = new ArrayList<IndexSet>(set.cardinality());
+        for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+            sets.add(this.extents.get(i));
+        }
+        return IndexSet.intersection(sets, this.observationSymbols.ids());
+    }
+
+    /**
+     * Returns the closure of the specified bitset of attributes.
+     *
+     * @param set bitset of attributes
+     *
+     * @return the bitset of the closure
+     */
+    public BitSet closure(BitSet set) {
+        return this.getIntentBitSet(this.getExtentBitSet(set));
+    }
+
+    /**
+     * Returns the set of attributes of this component.
+     *
+     * @return the set of attributes
+     */
+    public TreeSet<Comparable> getSet() {
+        return this.getAttributes();
+    }
+
+    /**
+     * Returns the closure of the specified set of attributes.
+     *
+     * An unknown attribute gives the set of all attributes.
+     *
+     * @param set set of attributes
+     *
+     * @return the closure
+     */
+    public TreeSet<Comparable> closure(TreeSet<Comparable> set) {
+        this.closureComputed();
+        BitSet bits = new BitSet();
+        for (Comparable att : set) {
+            int index = this.attributeSymbols.getId(att);
+            if (index < 0) {
+                return this.getSet();
+            }
+            bits.set(index);
+        }
+        return toSet(this.attributeSymbols, this.closure(bits));
+    }
+
+    /**
+     * Copies this component into a new context.
+     *
+     * @return the context
+     */
+    public Context toContext() {
+        ContextBuilder builder = new ContextBuilder();
+        int[] positions = new int[this.attributeSymbols.capacity()];
+        BitSet ids = this.attributeSymbols.ids();
+        for (int j = ids.nextSetBit(0); j >= 0; j = ids.nextSetBit(j + 1)) {
+            positions[j] = builder.addAttribute(this.attributeSymbols.getSymbol(j));
+        }
+        ids = this.observationSymbols.ids();
+        for (int i = ids.nextSetBit(0); i >= 0; i = ids.nextSetBit(i + 1)) {
+            int row = builder.addObservation(this.observationSymbols.getSymbol(i));
+            IndexSet intent = this.intents.get(i);
+            for (int j = intent.nextIndex(0); j >= 0; j = intent.nextIndex(j + 1)) {
+                builder.addCross(row, positions[j]);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Save the description of this component in a file whose name is
+     * specified.
+     *
+     * @param filename the name of the file
+     *
+     * @throws IOException When an IOException occurs
+     */
+    public void save(String filename) throws IOException {
+        this.toContext().save(filename);
+    }
+
+    /**
+     * Returns the set of elements of the specified bitset of indexes.
+     *
+     * @param symbols a symbol table
+     * @param set     a bitset of indexes
+     *
+     * @return the set of elements
+     */
+    private static TreeSet<Comparable> toSet(SymbolTable symbols, BitSet set) {
+        TreeSet<Comparable> result = new TreeSet<Comparable>();
+        for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+            result.add(symbols.getSymbol(i));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,366 @@
+package org.thegalactic.context;
+
+/*
+ * MappedContext.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.thegalactic.context.io.ContextSerializerBinary;
+import org.thegalactic.lattice.ClosureSystem;
+import org.thegalactic.util.BitMatrix;
+import org.thegalactic.util.IndexSet;
+
+/**
+ * This class gives a read-only context whose incidence matrix is not stored
+ * in the heap.
+ *
+ * The matrix is given twice, by observations and by attributes, as bit
+ * matrices. They usually are memory-mapped views of a binary context file
+ * (see {@link ContextSerializerBinary}), so that opening a context only
+ * decodes its attributes and observations:
+ *
+ * ~~~
+ * MappedContext context = MappedContext.open("context.bin");
+ * ConceptLattice lattice = context.closedSetLattice(true);
+ * ~~~
+ *
+ * A context can also be copied into direct buffers with {@link #copyOf}: its
+ * matrix then lies outside the heap and is no longer scanned by the garbage
+ * collector.
+ *
+ * Indexes of attributes and observations are their positions in ascending
+ * order. A mapped context is never modified, so that it can be shared by
+ * several threads without copy.
+ */
+public final class MappedContext extends ClosureSystem {
+
+    /**
+     * Attributes by index.
+     */
+    private final Comparable[] attributes;
+
+    /**
+     * Observations by index.
+     */
+    private final Comparable[] observations;
+
+    /**
+     * A map to associate its index to each attribute.
+     */
+    private final TreeMap<Comparable, Integer> indexAttributes;
+
+    /**
+     * A map to associate its index to each observation.
+     */
+    private final TreeMap<Comparable, Integer> indexObservations;
+
+    /**
+     * Intents: a row by observation, a column by attribute.
+     */
+    private final BitMatrix intents;
+
+    /**
+     * Extents: a row by attribute, a column by observation.
+     */
+    private final BitMatrix extents;
+
+    /**
+     * Constructs a context from its elements and matrices.
+     *
+     * @param attributes   attributes by index
+     * @param observations observations by index
+     * @param intents      a row by observation, a column by attribute
+     * @param extents      a row by attribute, a column by observation
+     */
+    public MappedContext(final Comparable[] attributes, final Comparable[] observations, final BitMatrix intents,
+            final BitMatrix extents) {
+        super();
+        this.attributes = attributes;
+        this.observations = observations;
+        this.intents = intents;
+        this.extents = extents;
+        this.indexAttributes = new TreeMap<Comparable, Integer>();
+        for (int j = 0; j < attributes.length; j++) {
+            this.indexAttributes.put(attributes[j], j);
+        }
+        this.indexObservations = new TreeMap<Comparable, Integer>();
+        for (int i = 0; i < observations.length; i++) {
+            this.indexObservations.put(observations[i], i);
+        }
+    }
+
+    /**
+     * Maps the specified binary context file.
+     *
+     * The file may be closed or modified by another process only once this
+     * context is no longer used.
+     *
+     * @param filename the name of the file
+     *
+     * @return the context
+     *
+     * @throws IOException When an IOException occurs
+     */
+    public static MappedContext open(final String filename) throws IOException {
+        final RandomAccessFile file = new RandomAccessFile(filename, "r");
+        try {
+            return ContextSerializerBinary.getInstance().map(file.getChannel());
+        } finally {
+            file.close();
+        }
+    }
+
+    /**
+     * Copies the specified context into a new mapped context whose matrices
+     * are allocated outside the heap.
+     *
+     * @param context the context to copy
+     *
+     * @return the mapped context
+     */
+    public static MappedContext copyOf(final Context context) {
+        final Comparable[] attributes = context.getAttributes().toArray(new Comparable[0]);
+        final Comparable[] observations = context.getObservations().toArray(new Comparable[0]);
+        final int[] attributePositions = positions(context.getAttributeSymbols(), attributes);
+        final int[] observationPositions = positions(context.getObservationSymbols(), observations);
+        final BitMatrix intents = BitMatrix.allocateDirect(observations.length, attributes.length);
+        long[] words = new long[BitMatrix.words(attributes.length)];
+        for (int i = 0; i < observations.length; i++) {
+            fill(context.intentBits(context.getObservationIndex(observations[i])), attributePositions, words);
+            intents.setRow(i, words);
+        }
+        final BitMatrix extents = BitMatrix.allocateDirect(attributes.length, observations.length);
+        words = new long[BitMatrix.words(observations.length)];
+        for (int j = 0; j < attributes.length; j++) {
+            fill(context.extentBits(context.getAttributeIndex(attributes[j])), observationPositions, words);
+            extents.setRow(j, words);
+        }
+        return new MappedContext(attributes, observations, intents, extents);
+    }
+
+    /**
+     * Returns the position of each index of the specified symbol table.
+     *
+     * @param symbols  a symbol table
+     * @param elements the elements of the table in ascending order
+     *
+     * @return the positions by index
+     */
+    private static int[] positions(final SymbolTable symbols, final Comparable[] elements) {
+        final int[] positions = new int[symbols.capacity()];
+        for (int k = 0; k < elements.length; k++) {
+            positions[symbols.getId(elements[k])] = k;
+        }
+        return positions;
+    }
+
+    /**
+     * Replaces the specified words by the positions of an index set.
+     *
+     * @param set       an index set
+     * @param positions the position of each index
+     * @param words     the words to fill
+     */
+    private static void fill(final IndexSet set, final int[] positions, final long[] words) {
+        Arrays.fill(words, 0L);
+        for (int j = set.nextIndex(0); j >= 0; j = set.nextIndex(j + 1)) {
+            final int position = positions[j];
+            words[position / Long.SIZE] |= 1L << position;
+        }
+    }
+
+    /**
+     * Returns the number of attributes.
+     *
+     * @return the number of attributes
+     */
+    public int getAttributesSize() {
+        return this.attributes.length;
+    }
+
+    /**
+     * Returns the number of observations.
+     *
+     * @return the number of observations
+     */
+    public int getObservationsSize() {
+        return this.observations.length;
+    }
+
+    /**
+     * Returns the attribute of the specified index.
+     *
+     * @param index an index
+     *
+     * @return the attribute
+     */
+    public Comparable getAttribute(final int index) {
+        return this.attributes[index];
+    }
+
+    /**
+     * Returns the observation of the specified index.
+     *
+     * @param index an index
+     *
+     * @return the observation
+     */
+    public Comparable getObservation(final int index) {
+        return this.observations[index];
+    }
+
+    /**
+     * Returns the index of the specified attribute.
+     *
+     * @param att an attribute
+     *
+     * @return the index of the attribute, or -1 if it does not belong to this
+     *         component
+     */
+    public int getAttributeIndex(final Comparable att) {
+        final Integer index = this.indexAttributes.get(att);
+        if (index == null) {
+            return -1;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the index of the specified observation.
+     *
+     * @param obs an observation
+     *
+     * @return the index of the observation, or -1 if it does not belong to
+     *         this component
+     */
+    public int getObservationIndex(final Comparable obs) {
+        final Integer index = this.indexObservations.get(obs);
+        if (index == null) {
+            return -1;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the bitset of attributes that are all intent of observations of
+     * the specified bitset.
+     *
+     * @param set bitset of observations
+     *
+     * @return the bitset of attributes
+     */
+    public BitSet getIntentBitSet(final BitSet set) {
+        return this.intents.intersection(set);
+    }
+
+    /**
+     * Returns the bitset of observations that are all intent of attributes of
+     * the specified bitset.
+     *
+     * @param set bitset of attributes
+     *
+     * @return the bitset of observations
+     */
+    public BitSet getExtentBitSet(final BitSet set) {
+        return this.extents.intersection(set);
+    }
+
+    /**
+     * Returns the closure of the specified bitset of attributes.
+     *
+     * @param set bitset of attributes
+     *
+     * @return the bitset of the closure
+     */
+    public BitSet closure(final BitSet set) {
+        return this.getIntentBitSet(this.getExtentBitSet(set));
+    }
+
+    /**
+     * Returns the set of attributes of this component.
+     *
+     * @return the set of attributes
+     */
+    public TreeSet<Comparable> getSet() {
+        return new TreeSet<Comparable>(this.indexAttributes.keySet());
+    }
+
+    /**
+     * Returns the closure of the specified set of attributes.
+     *
+     * An unknown attribute gives the set of all attributes.
+     *
+     * @param set set of attributes
+     *
+     * @return the closure
+     */
+    public TreeSet<Comparable> closure(final TreeSet<Comparable> set) {
+        this.closureComputed();
+        final BitSet bits = new BitSet();
+        for (final Comparable att : set) {
+            final Integer index = this.indexAttributes.get(att);
+            if (index == null) {
+                return this.getSet();
+            }
+            bits.set(index);
+        }
+        final BitSet result = this.closure(bits);
+        final TreeSet<Comparable> closure = new TreeSet<Comparable>();
+        for (int j = result.nextSetBit(0); j >= 0; j = result.nextSetBit(j + 1)) {
+            closure.add(this.attributes[j]);
+        }
+        return closure;
+    }
+
+    /**
+     * Copies this component into a new context.
+     *
+     * @return the context
+     */
+    public Context toContext() {
+        return this.toContext(new Context());
+    }
+
+    /**
+     * Copies this component into the specified context, whose previous
+     * content is discarded.
+     *
+     * @param context the context to load
+     *
+     * @return the context
+     */
+    public Context toContext(final Context context) {
+        final ContextBuilder builder = new ContextBuilder();
+        for (final Comparable att : this.attributes) {
+            builder.addAttribute(att);
+        }
+        for (int i = 0; i < this.observations.length; i++) {
+            builder.addRow(this.observations[i], this.intents.getRow(i));
+        }
+        return builder.build(context);
+    }
+
+    /**
+     * Save the description of this component in a file whose name is
+     * specified.
+     *
+     * @param filename the name of the file
+     *
+     * @throws IOException When an IOException occurs
+     */
+    public void save(final String filename) throws IOException {
+        this.toContext().save(filename);
+    }
+}
@@ -0,0 +1,207 @@
+package org.thegalactic.context;
+
+/*
+ * SymbolTable.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * This class associates a dense and stable int id to each element of a set of
+ * attributes or observations.
+ *
+ * Both lookups, from an element to its id and from an id to its element, run
+ * in constant time. The id of an element does not change until the element is
+ * removed; the ids of removed elements are reused by the next added elements,
+ * so that ids stay lesser than the capacity, i.e. the largest number of
+ * elements ever held at once.
+ *
+ * Elements are hashed: their `equals` and `hashCode` methods have to be
+ * consistent with their `compareTo` method, as for elements of a context.
+ *
+ * Symbol tables of a context are read-only for other classes.
+ */
+public final class SymbolTable {
+
+    /**
+     * Elements by id, null for a free id.
+     */
+    private final ArrayList<Comparable> symbols;
+
+    /**
+     * Ids by element.
+     */
+    private final HashMap<Comparable, Integer> ids;
+
+    /**
+     * Bit set of used ids.
+     */
+    private final BitSet used;
+
+    /**
+     * Whether this table is shared with a snapshot and must no longer be
+     * changed.
+     */
+    private boolean frozen;
+
+    /**
+     * Constructs a new empty symbol table.
+     */
+    SymbolTable() {
+        this.symbols = new ArrayList<Comparable>();
+        this.ids = new HashMap<Comparable, Integer>();
+        this.used = new BitSet();
+    }
+
+    /**
+     * Constructs a new symbol table as a copy of the specified one.
+     *
+     * @param table the symbol table to be copied
+     */
+    SymbolTable(final SymbolTable table) {
+        this.symbols = new ArrayList<Comparable>(table.symbols);
+        this.ids = new HashMap<Comparable, Integer>(table.ids);
+        this.used = (BitSet) table.used.clone();
+    }
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return this.ids.size();
+    }
+
+    /**
+     * Returns the capacity, an upper bound of the ids.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return this.symbols.size();
+    }
+
+    /**
+     * Checks if the specified element belongs to this table.
+     *
+     * @param element an element
+     *
+     * @return true if the element belongs to this table
+     */
+    public boolean contains(final Comparable element) {
+        return this.ids.containsKey(element);
+    }
+
+    /**
+     * Returns the id of the specified element.
+     *
+     * @param element an element
+     *
+     * @return the id of the element, or -1 if it does not belong to this table
+     */
+    public int getId(final Comparable element) {
+        final Integer id = this.ids.get(element);
+        if (id == null) {
+            return -1;
+        }
+        return id;
+    }
+
+    /**
+     * Returns the element of the specified id.
+     *
+     * @param id an id lesser than the capacity
+     *
+     * @return the element, or null if the id is free
+     */
+    public Comparable getSymbol(final int id) {
+        return this.symbols.get(id);
+    }
+
+    /**
+     * Returns a new bit set of the used ids.
+     *
+     * @return the bit set of ids
+     */
+    public BitSet getIds() {
+        return (BitSet) this.used.clone();
+    }
+
+    /**
+     * Returns the bit set of the used ids, which must not be modified.
+     *
+     * @return the bit set of ids
+     */
+    BitSet ids() {
+        return this.used;
+    }
+
+    /**
+     * Checks if this table is shared with a snapshot.
+     *
+     * A frozen table is copied by its context before being changed.
+     *
+     * @return true if this table is frozen
+     */
+    boolean isFrozen() {
+        return this.frozen;
+    }
+
+    /**
+     * Marks this table as shared with a snapshot.
+     */
+    void freeze() {
+        this.frozen = true;
+    }
+
+    /**
+     * Adds the specified element, if not already added, with the lowest free
+     * id.
+     *
+     * @param element an element
+     *
+     * @return the id of the element
+     */
+    int add(final Comparable element) {
+        final Integer old = this.ids.get(element);
+        if (old != null) {
+            return old;
+        }
+        final int id = this.used.nextClearBit(0);
+        this.used.set(id);
+        if (id == this.symbols.size()) {
+            this.symbols.add(element);
+        } else {
+            this.symbols.set(id, element);
+        }
+        this.ids.put(element, id);
+        return id;
+    }
+
+    /**
+     * Removes the specified element and frees its id.
+     *
+     * @param element an element
+     *
+     * @return the freed id, or -1 if the element does not belong to this
+     *         table
+     */
+    int remove(final Comparable element) {
+        final Integer id = this.ids.remove(element);
+        if (id == null) {
+            return -1;
+        }
+        this.used.clear(id);
+        this.symbols.set(id, null);
+        return id;
+    }
+}
@@ -0,0 +1,247 @@
+package org.thegalactic.context.enumeration;
+
+/*
+ * ConceptCollector.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.thegalactic.context.Context;
+import org.thegalactic.lattice.Concept;
+import org.thegalactic.lattice.ConceptLattice;
+import org.thegalactic.lattice.CoverRelation;
+import org.thegalactic.util.Budget;
+
+/**
+ * This class collects the concepts found by an enumerator, and builds their
+ * lattice.
+ *
+ * Each concept is given as a {@link Concept} whose set A is the intent, and
+ * whose set B is the extent when extents are collected.
+ *
+ * ~~~
+ * ConceptCollector collector = new ConceptCollector(context, true);
+ * FastCloseByOne.getInstance().enumerate(context, collector);
+ * ConceptLattice lattice = collector.getLattice(true);
+ * ~~~
+ *
+ * A collector constructed with a {@link Budget} charges it for each concept,
+ * and stops the enumeration once it is exhausted or cancelled: the concepts
+ * collected so far are then given by {@link #getConcepts}, and their lattice
+ * by {@link #getLattice}.
+ */
+public final class ConceptCollector implements ConceptHandler {
+
+    /**
+     * The enumerated context.
+     */
+    private final Context context;
+
+    /**
+     * Whether extents are collected.
+     */
+    private final boolean extents;
+
+    /**
+     * Intents of the collected concepts, in the order of the enumeration.
+     */
+    private final ArrayList<BitSet> intents;
+
+    /**
+     * Extents of the collected concepts, or null when extents are not
+     * collected.
+     */
+    private final ArrayList<BitSet> extentSets;
+
+    /**
+     * Concepts built from the first collected intents and extents.
+     */
+    private final ArrayList<Concept> concepts;
+
+    /**
+     * The budget of the enumeration.
+     */
+    private final Budget budget;
+
+    /**
+     * Constructs a collector of concepts of the specified context.
+     *
+     * @param context the enumerated context
+     * @param extents whether extents are collected
+     */
+    public ConceptCollector(final Context context, final boolean extents) {
+        this(context, extents, new Budget());
+    }
+
+    /**
+     * Constructs a collector of concepts of the specified context, charging
+     * the specified budget for each concept.
+     *
+     * @param context the enumerated context
+     * @param extents whether extents are collected
+     * @param budget  the budget of the enumeration
+     */
+    public ConceptCollector(final Context context, final boolean extents, final Budget budget) {
+        this.context = context;
+        this.extents = extents;
+        this.budget = budget;
+        this.intents = new ArrayList<BitSet>();
+        this.extentSets = new ArrayList<BitSet>();
+        this.concepts = new ArrayList<Concept>();
+    }
+
+    /**
+     * Stores a concept.
+     *
+     * Only the bitsets are stored, under the lock of this collector, so that
+     * the threads of a parallel enumeration do not wait for each other while
+     * the concepts are built. Concepts are built when they are requested.
+     *
+     * @param extent bitset of observations
+     * @param intent bitset of attributes
+     *
+     * @throws java.util.concurrent.CancellationException if the budget is
+     *                                                    exhausted or
+     *                                                    cancelled
+     */
+    public void handle(final BitSet extent, final BitSet intent) {
+        this.budget.charge();
+        synchronized (this) {
+            this.intents.add(intent);
+            if (this.extents) {
+                this.extentSets.add(extent);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of collected concepts.
+     *
+     * @return the number of concepts
+     */
+    public synchronized int size() {
+        return this.intents.size();
+    }
+
+    /**
+     * Returns the collected concepts, in the order of the enumeration.
+     *
+     * @return a new list of concepts
+     */
+    public synchronized List<Concept> getConcepts() {
+        this.build();
+        return new ArrayList<Concept>(this.concepts);
+    }
+
+    /**
+     * Builds the concepts of the intents and extents collected since the last
+     * call.
+     */
+    private void build() {
+        for (int k = this.concepts.size(); k < this.intents.size(); k++) {
+            final BitSet intent = this.intents.get(k);
+            final TreeSet<Comparable> setA = new TreeSet<Comparable>();
+            for (int j = intent.nextSetBit(0); j >= 0; j = intent.nextSetBit(j + 1)) {
+                setA.add(this.context.getAttribute(j));
+            }
+            if (this.extents) {
+                final BitSet extent = this.extentSets.get(k);
+                final TreeSet<Comparable> setB = new TreeSet<Comparable>();
+                for (int i = extent.nextSetBit(0); i >= 0; i = extent.nextSetBit(i + 1)) {
+                    setB.add(this.context.getObservation(i));
+                }
+                this.concepts.add(new Concept(setA, setB));
+            } else {
+                this.concepts.add(new Concept(setA, false));
+            }
+        }
+    }
+
+    /**
+     * Returns the lattice of the collected concepts.
+     *
+     * A true value of the boolean `diagram` indicates that the Hasse diagram
+     * of the lattice is computed, whereas a false value indicates that the
+     * lattice is transitively closed, as the lattices of
+     * {@link org.thegalactic.lattice.ClosureSystem#closedSetLattice}.
+     *
+     * The budget of this collector is checked while the edges are computed:
+     * when it runs out, the edges of the remaining concepts are missing. When
+     * it has run out during the enumeration, the collected concepts are not
+     * closed under intersection: their edges are computed in full, by
+     * comparing them all.
+     *
+     * @param diagram a boolean indicating if the Hasse diagram of the lattice
+     *                is computed or not
+     *
+     * @return the lattice, partial when the budget is exhausted
+     */
+    public synchronized ConceptLattice getLattice(final boolean diagram) {
+        this.build();
+        final ConceptLattice lattice = new ConceptLattice();
+        for (final Concept concept : this.concepts) {
+            lattice.addNode(concept);
+        }
+        final boolean partial = this.budget.isExhausted();
+        if (diagram && !partial) {
+            final int[][] covers = CoverRelation.lowerCovers(this.intents, this.budget);
+            for (int k = 0; k < covers.length; k++) {
+                for (final int cover : covers[k]) {
+                    lattice.addEdge(this.concepts.get(cover), this.concepts.get(k));
+                }
+            }
+            return lattice;
+        }
+        final int words = ContextMatrix.words(this.context.getAttributeSymbols().capacity());
+        final long[][] sets = new long[this.intents.size()][];
+        for (int k = 0; k < sets.length; k++) {
+            sets[k] = Arrays.copyOf(this.intents.get(k).toLongArray(), words);
+        }
+        final int[] order = this.order();
+        for (int p = 0; p < order.length; p++) {
+            if (!partial && this.budget.isExhausted()) {
+                break;
+            }
+            final long[] source = sets[order[p]];
+            lattice.addEdge(this.concepts.get(order[p]), this.concepts.get(order[p]));
+            for (int q = p + 1; q < order.length; q++) {
+                if (ContextMatrix.isSubset(source, sets[order[q]])) {
+                    lattice.addEdge(this.concepts.get(order[p]), this.concepts.get(order[q]));
+                }
+            }
+        }
+        if (diagram) {
+            lattice.transitiveReduction();
+        }
+        return lattice;
+    }
+
+    /**
+     * Returns the positions of the concepts by ascending intent cardinality.
+     *
+     * @return the positions
+     */
+    private int[] order() {
+        final int size = this.intents.size();
+        final long[] keys = new long[size];
+        for (int k = 0; k < size; k++) {
+            keys[k] = (long) this.intents.get(k).cardinality() << 32 | k;
+        }
+        Arrays.sort(keys);
+        final int[] order = new int[size];
+        for (int k = 0; k < size; k++) {
+            order[k] = (int) keys[k];
+        }
+        return order;
+    }
+}
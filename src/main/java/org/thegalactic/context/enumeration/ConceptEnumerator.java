@@ -0,0 +1,30 @@
+package org.thegalactic.context.enumeration;
+
+/*
+ * ConceptEnumerator.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import org.thegalactic.context.Context;
+
+/**
+ * This interface gives an algorithm enumerating the concepts of a context.
+ *
+ * An enumerator gives each concept exactly once to a {@link ConceptHandler}.
+ * The context must not be changed during the enumeration.
+ */
+public interface ConceptEnumerator {
+
+    /**
+     * Enumerates the concepts of the specified context.
+     *
+     * @param context a context
+     * @param handler the handler of the concepts
+     */
+    void enumerate(Context context, ConceptHandler handler);
+}
@@ -0,0 +1,32 @@
+package org.thegalactic.context.enumeration;
+
+/*
+ * ConceptHandler.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.BitSet;
+
+/**
+ * This interface receives the concepts found by a {@link ConceptEnumerator}.
+ *
+ * Bits of extents and intents stand for the indexes of observations and
+ * attributes in the enumerated context.
+ */
+public interface ConceptHandler {
+
+    /**
+     * Handles a concept.
+     *
+     * The bitsets are owned by the handler.
+     *
+     * @param extent bitset of observations
+     * @param intent bitset of attributes
+     */
+    void handle(BitSet extent, BitSet intent);
+}
@@ -0,0 +1,260 @@
+package org.thegalactic.context.enumeration;
+
+/*
+ * ContextMatrix.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.thegalactic.context.Context;
+
+/**
+ * This class gives the incidence matrix of a context packed in 64-bit words,
+ * as used by the enumeration algorithms.
+ *
+ * Bits stand for the indexes of attributes and observations in the context
+ * (see {@link Context#getAttributeIndex} and
+ * {@link Context#getObservationIndex}), so that sets of words convert
+ * directly to the bitsets of the context.
+ */
+final class ContextMatrix {
+
+    /**
+     * Number of bits of a word.
+     */
+    private static final int WORD_SIZE = 64;
+
+    /**
+     * Intent words by observation index, null for an unused index.
+     */
+    private final long[][] rows;
+
+    /**
+     * Extent words by attribute index, null for an unused index.
+     */
+    private final long[][] columns;
+
+    /**
+     * Words of all the attributes.
+     */
+    private final long[] attributes;
+
+    /**
+     * Words of all the observations.
+     */
+    private final long[] observations;
+
+    /**
+     * Used attribute indexes in ascending order.
+     */
+    private final int[] attributeIndexes;
+
+    /**
+     * Constructs the matrix of the specified context.
+     *
+     * @param context a context
+     */
+    ContextMatrix(final Context context) {
+        final BitSet attributeIds = context.getAttributeSymbols().getIds();
+        final BitSet observationIds = context.getObservationSymbols().getIds();
+        final int attributeWords = words(context.getAttributeSymbols().capacity());
+        final int observationWords = words(context.getObservationSymbols().capacity());
+        this.attributes = Arrays.copyOf(attributeIds.toLongArray(), attributeWords);
+        this.observations = Arrays.copyOf(observationIds.toLongArray(), observationWords);
+        this.rows = new long[context.getObservationSymbols().capacity()][];
+        for (int i = observationIds.nextSetBit(0); i >= 0; i = observationIds.nextSetBit(i + 1)) {
+            this.rows[i] = Arrays.copyOf(context.intentBits(i).toBitSet().toLongArray(), attributeWords);
+        }
+        this.columns = new long[context.getAttributeSymbols().capacity()][];
+        this.attributeIndexes = new int[attributeIds.cardinality()];
+        int k = 0;
+        for (int j = attributeIds.nextSetBit(0); j >= 0; j = attributeIds.nextSetBit(j + 1)) {
+            this.columns[j] = Arrays.copyOf(context.extentBits(j).toBitSet().toLongArray(), observationWords);
+            this.attributeIndexes[k] = j;
+            k++;
+        }
+    }
+
+    /**
+     * Returns the number of words of the specified number of bits.
+     *
+     * @param bits a number of bits
+     *
+     * @return the number of words
+     */
+    static int words(final int bits) {
+        return (bits + WORD_SIZE - 1) / WORD_SIZE;
+    }
+
+    /**
+     * Returns the used attribute indexes in ascending order.
+     *
+     * @return the attribute indexes, which must not be modified
+     */
+    int[] getAttributeIndexes() {
+        return this.attributeIndexes;
+    }
+
+    /**
+     * Returns the number of attribute indexes.
+     *
+     * @return the capacity of the attribute indexes
+     */
+    int getAttributeCapacity() {
+        return this.columns.length;
+    }
+
+    /**
+     * Returns a new set of words of all the observations.
+     *
+     * @return the words
+     */
+    long[] allObservations() {
+        return this.observations.clone();
+    }
+
+    /**
+     * Returns the words of the extent of the specified attribute.
+     *
+     * @param attribute an attribute index
+     *
+     * @return the words, which must not be modified
+     */
+    long[] column(final int attribute) {
+        return this.columns[attribute];
+    }
+
+    /**
+     * Returns the intersection of the specified extent with the extent of the
+     * specified attribute.
+     *
+     * @param extent    words of observations
+     * @param attribute an attribute index
+     *
+     * @return new words of observations
+     */
+    long[] extent(final long[] extent, final int attribute) {
+        final long[] column = this.columns[attribute];
+        final long[] result = new long[extent.length];
+        for (int w = 0; w < extent.length; w++) {
+            result[w] = extent[w] & column[w];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the attributes shared by all observations of the specified
+     * extent.
+     *
+     * @param extent words of observations
+     *
+     * @return new words of attributes
+     */
+    long[] intent(final long[] extent) {
+        final long[] result = this.attributes.clone();
+        for (int w = 0; w < extent.length; w++) {
+            long word = extent[w];
+            while (word != 0) {
+                final long[] row = this.rows[w * WORD_SIZE + Long.numberOfTrailingZeros(word)];
+                for (int v = 0; v < result.length; v++) {
+                    result[v] &= row[v];
+                }
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the specified bit is set.
+     *
+     * @param words words
+     * @param index a bit index
+     *
+     * @return true if the bit is set
+     */
+    static boolean get(final long[] words, final int index) {
+        return (words[index / WORD_SIZE] & 1L << index) != 0;
+    }
+
+    /**
+     * Returns the number of set bits.
+     *
+     * @param words words
+     *
+     * @return the number of set bits
+     */
+    static int cardinality(final long[] words) {
+        int count = 0;
+        for (final long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Checks if the bits of the first words lesser than `index` are equal to
+     * the ones of the second words.
+     *
+     * @param words1 words
+     * @param words2 words of the same length
+     * @param index  a bit index
+     *
+     * @return true if the bits are equal
+     */
+    static boolean equalsBelow(final long[] words1, final long[] words2, final int index) {
+        final int last = index / WORD_SIZE;
+        for (int w = 0; w < last; w++) {
+            if (words1[w] != words2[w]) {
+                return false;
+            }
+        }
+        final long mask = (1L << index) - 1;
+        return index % WORD_SIZE == 0 || ((words1[last] ^ words2[last]) & mask) == 0;
+    }
+
+    /**
+     * Checks if the bits of the first words lesser than `index` are included
+     * in the second words.
+     *
+     * @param words1 words
+     * @param words2 words of the same length
+     * @param index  a bit index
+     *
+     * @return true if the bits are included
+     */
+    static boolean isSubsetBelow(final long[] words1, final long[] words2, final int index) {
+        final int last = index / WORD_SIZE;
+        for (int w = 0; w < last; w++) {
+            if ((words1[w] & ~words2[w]) != 0) {
+                return false;
+            }
+        }
+        final long mask = (1L << index) - 1;
+        return index % WORD_SIZE == 0 || (words1[last] & ~words2[last] & mask) == 0;
+    }
+
+    /**
+     * Checks if the first words are included in the second words.
+     *
+     * @param words1 words
+     * @param words2 words of the same length
+     *
+     * @return true if the first words are included in the second ones
+     */
+    static boolean isSubset(final long[] words1, final long[] words2) {
+        for (int w = 0; w < words1.length; w++) {
+            if ((words1[w] & ~words2[w]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,192 @@
+package org.thegalactic.context.enumeration;
+
+/*
+ * FastCloseByOne.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+
+import org.thegalactic.context.Context;
+
+/**
+ * This class enumerates the concepts of a context with the FCbO algorithm of
+ * Outrata and Vychodil.
+ *
+ * Starting from the concept of all observations, each concept `(A, B)`
+ * generates the concepts `(C, D)` where `C` is the intersection of `A` with
+ * the extent of an attribute `j` greater than the one generating `(A, B)`,
+ * and `D` the intent of `C`. A generated concept is kept only when it passes
+ * the canonicity test, i.e. when `D` has no attribute lesser than `j` outside
+ * of `B`, so that each concept is generated once. A failed test is inherited
+ * by the following concepts, which skip attribute `j` without computing any
+ * closure while their intent contains the failed intent below `j`.
+ *
+ * Extents and intents are handled as packed words, and the tree of concepts is
+ * walked with an explicit stack so that deep trees do not exhaust the thread
+ * stack.
+ *
+ * ~~~
+ * ConceptLattice lattice = context.conceptLattice(true, FastCloseByOne.getInstance());
+ * ~~~
+ */
+public final class FastCloseByOne implements ConceptEnumerator {
+
+    /**
+     * The singleton instance.
+     */
+    private static final FastCloseByOne INSTANCE = new FastCloseByOne();
+
+    /**
+     * This class is not designed to be publicly instantiated.
+     */
+    private FastCloseByOne() {
+    }
+
+    /**
+     * Returns the singleton instance of this class.
+     *
+     * @return the singleton instance
+     */
+    public static FastCloseByOne getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Enumerates the concepts of the specified context.
+     *
+     * @param context a context
+     * @param handler the handler of the concepts
+     */
+    public void enumerate(final Context context, final ConceptHandler handler) {
+        final ContextMatrix matrix = new ContextMatrix(context);
+        walk(matrix, Candidate.root(matrix), 0, handler);
+    }
+
+    /**
+     * Enumerates the concepts of the tree rooted at the specified candidate.
+     *
+     * @param matrix    the matrix of the context
+     * @param candidate the root candidate
+     * @param support   minimal number of observations of the extents
+     * @param handler   the handler of the concepts
+     */
+    static void walk(final ContextMatrix matrix, final Candidate candidate, final int support, final ConceptHandler handler) {
+        final ArrayDeque<Candidate> stack = new ArrayDeque<Candidate>();
+        stack.push(candidate);
+        final ArrayList<Candidate> children = new ArrayList<Candidate>();
+        while (!stack.isEmpty()) {
+            final Candidate current = stack.pop();
+            current.report(handler);
+            current.children(matrix, support, children);
+            for (int k = children.size() - 1; k >= 0; k--) {
+                stack.push(children.get(k));
+            }
+            children.clear();
+        }
+    }
+
+    /**
+     * This class gives a concept waiting to be handled.
+     */
+    static final class Candidate {
+
+        /**
+         * Words of the extent.
+         */
+        private final long[] extent;
+
+        /**
+         * Words of the intent.
+         */
+        private final long[] intent;
+
+        /**
+         * Position of the first attribute to be added.
+         */
+        private final int start;
+
+        /**
+         * Intents of failed canonicity tests by attribute index, shared with
+         * the siblings of this candidate.
+         */
+        private final long[][] failures;
+
+        /**
+         * Constructs a candidate.
+         *
+         * @param extent   words of the extent
+         * @param intent   words of the intent
+         * @param start    position of the first attribute to be added
+         * @param failures intents of failed canonicity tests
+         */
+        Candidate(final long[] extent, final long[] intent, final int start, final long[][] failures) {
+            this.extent = extent;
+            this.intent = intent;
+            this.start = start;
+            this.failures = failures;
+        }
+
+        /**
+         * Returns the candidate of all the observations.
+         *
+         * @param matrix the matrix of the context
+         *
+         * @return the root candidate
+         */
+        static Candidate root(final ContextMatrix matrix) {
+            final long[] extent = matrix.allObservations();
+            return new Candidate(extent, matrix.intent(extent), 0, new long[matrix.getAttributeCapacity()][]);
+        }
+
+        /**
+         * Reports the concept of this candidate to the specified handler.
+         *
+         * @param handler the handler of the concepts
+         */
+        void report(final ConceptHandler handler) {
+            handler.handle(BitSet.valueOf(this.extent), BitSet.valueOf(this.intent));
+        }
+
+        /**
+         * Adds to the specified list the canonical children of this candidate
+         * whose extent has at least the specified number of observations, in
+         * ascending order of their generating attribute.
+         *
+         * The support of a child is counted on its extent before its intent
+         * is computed, so that no closure is computed for infrequent
+         * children.
+         *
+         * @param matrix   the matrix of the context
+         * @param support  minimal number of observations of the extents
+         * @param children the list of children
+         */
+        void children(final ContextMatrix matrix, final int support, final ArrayList<Candidate> children) {
+            final int[] attributes = matrix.getAttributeIndexes();
+            final long[][] inherited = this.failures.clone();
+            for (int k = this.start; k < attributes.length; k++) {
+                final int j = attributes[k];
+                if (!ContextMatrix.get(this.intent, j)
+                        && (inherited[j] == null || ContextMatrix.isSubsetBelow(inherited[j], this.intent, j))) {
+                    final long[] childExtent = matrix.extent(this.extent, j);
+                    if (support > 0 && ContextMatrix.cardinality(childExtent) < support) {
+                        continue;
+                    }
+                    final long[] childIntent = matrix.intent(childExtent);
+                    if (ContextMatrix.equalsBelow(childIntent, this.intent, j)) {
+                        children.add(new Candidate(childExtent, childIntent, k + 1, inherited));
+                    } else {
+                        inherited[j] = childIntent;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.thegalactic.context.enumeration;
+
+/*
+ * FrequentCloseByOne.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import org.thegalactic.context.Context;
+
+/**
+ * This class enumerates the frequent concepts of a context, i.e. the concepts
+ * whose extent has at least a minimal number of observations, with the
+ * {@link FastCloseByOne} algorithm.
+ *
+ * The extent of a candidate is the intersection of the extent of its parent
+ * with the extent of an attribute, as a bitset of observations: its support
+ * is counted on this bitset before its intent is computed, and infrequent
+ * candidates are pruned without computing any closure. Since extents only
+ * decrease along the tree, the subtrees of the pruned candidates are pruned
+ * too.
+ *
+ * The intents of the frequent concepts are closed under intersection, so that
+ * their Hasse diagram is computed as the one of a lattice.
+ *
+ * ~~~
+ * ConceptLattice iceberg = context.closedSetLattice(true, new FrequentCloseByOne(10));
+ * ~~~
+ */
+public final class FrequentCloseByOne implements ConceptEnumerator {
+
+    /**
+     * Minimal number of observations of the extents.
+     */
+    private final int support;
+
+    /**
+     * Constructs an enumerator of the concepts whose extent has at least the
+     * specified number of observations.
+     *
+     * @param support minimal number of observations of the extents
+     *
+     * @throws IllegalArgumentException if the support is negative
+     */
+    public FrequentCloseByOne(final int support) {
+        if (support < 0) {
+            throw new IllegalArgumentException("The support must not be negative");
+        }
+        this.support = support;
+    }
+
+    /**
+     * Returns the minimal number of observations of the extents.
+     *
+     * @return the support
+     */
+    public int getSupport() {
+        return this.support;
+    }
+
+    /**
+     * Enumerates the frequent concepts of the specified context.
+     *
+     * @param context a context
+     * @param handler the handler of the concepts
+     */
+    public void enumerate(final Context context, final ConceptHandler handler) {
+        if (context.getObservations().size() < this.support) {
+            return;
+        }
+        final ContextMatrix matrix = new ContextMatrix(context);
+        FastCloseByOne.walk(matrix, FastCloseByOne.Candidate.root(matrix), this.support, handler);
+    }
+}
@@ -0,0 +1,607 @@
+package org.thegalactic.context.enumeration;
+
+/*
+ * LinearClosedMiner.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+
+import org.thegalactic.context.Context;
+import org.thegalactic.util.IndexSet;
+
+/**
+ * This class enumerates the frequent concepts of a context, i.e. the concepts
+ * whose extent has at least a minimal number of observations, with the LCM
+ * algorithm of Uno, Kiyomi and Arimura, designed for large sparse transaction
+ * databases such as the ones of the FIMI repository (see
+ * {@link org.thegalactic.context.io.ContextSerializerFIMI}).
+ *
+ * Attributes are ranked by ascending frequency, and the rows of the context
+ * are stored as sorted arrays of ranks. Each closed intent `P` generated by
+ * the rank `e` is extended by the ranks greater than `e`: their occurrences
+ * are delivered at once by a single scan of the transactions of `P`, and the
+ * closure of an extension is kept only when it is prefix-preserving, i.e.
+ * when it adds no rank lesser than the generating one, so that each concept
+ * is generated once without any search among the generated ones.
+ *
+ * The transactions of each concept form a conditional database, reduced
+ * before being explored: the ranks of the intent and the infrequent ranks are
+ * removed, and the transactions sharing the same ranks greater than the
+ * generating one are merged into a weighted transaction, whose lesser ranks
+ * are intersected. Extents are kept as the observations of the merged
+ * transactions, so that the concepts are reported with their extent, and
+ * their support is its cardinality.
+ *
+ * ~~~
+ * ConceptLattice iceberg = context.closedSetLattice(true, new LinearClosedMiner(10));
+ * ~~~
+ */
+public final class LinearClosedMiner implements ConceptEnumerator {
+
+    /**
+     * Minimal number of observations of the extents.
+     */
+    private final int support;
+
+    /**
+     * Constructs a miner of the concepts whose extent has at least the
+     * specified number of observations.
+     *
+     * @param support minimal number of observations of the extents
+     *
+     * @throws IllegalArgumentException if the support is negative
+     */
+    public LinearClosedMiner(final int support) {
+        if (support < 0) {
+            throw new IllegalArgumentException("The support must not be negative");
+        }
+        this.support = support;
+    }
+
+    /**
+     * Returns the minimal number of observations of the extents.
+     *
+     * @return the support
+     */
+    public int getSupport() {
+        return this.support;
+    }
+
+    /**
+     * Enumerates the frequent concepts of the specified context.
+     *
+     * When the support is 0, the concept of all the attributes is reported
+     * even if its extent is empty.
+     *
+     * @param context a context
+     * @param handler the handler of the concepts
+     */
+    public void enumerate(final Context context, final ConceptHandler handler) {
+        new Search(context, this.support, handler).run();
+    }
+
+    /**
+     * This class gives a weighted transaction of a conditional database.
+     */
+    static final class Transaction {
+
+        /**
+         * Ranks in ascending order.
+         */
+        private int[] items;
+
+        /**
+         * Number of ranks lesser than the generating rank of the database.
+         */
+        private int prefix;
+
+        /**
+         * Number of merged rows.
+         */
+        private int weight;
+
+        /**
+         * Observation indexes of the merged rows.
+         */
+        private int[] tids;
+
+        /**
+         * Constructs a transaction.
+         *
+         * @param items  ranks in ascending order
+         * @param prefix number of ranks lesser than the generating rank
+         * @param weight number of merged rows
+         * @param tids   observation indexes of the merged rows
+         */
+        Transaction(final int[] items, final int prefix, final int weight, final int[] tids) {
+            this.items = items;
+            this.prefix = prefix;
+            this.weight = weight;
+            this.tids = tids;
+        }
+
+        /**
+         * Returns the ranks in ascending order.
+         *
+         * @return the ranks
+         */
+        int[] getItems() {
+            return this.items;
+        }
+
+        /**
+         * Returns the number of ranks lesser than the generating rank.
+         *
+         * @return the number of ranks
+         */
+        int getPrefix() {
+            return this.prefix;
+        }
+
+        /**
+         * Returns the number of merged rows.
+         *
+         * @return the number of rows
+         */
+        int getWeight() {
+            return this.weight;
+        }
+
+        /**
+         * Returns the observation indexes of the merged rows.
+         *
+         * @return the observation indexes
+         */
+        int[] getTids() {
+            return this.tids;
+        }
+
+        /**
+         * Merges the specified transaction, sharing the ranks greater than the
+         * generating rank, into this transaction.
+         *
+         * @param items  ranks in ascending order
+         * @param prefix number of ranks lesser than the generating rank
+         * @param weight number of merged rows
+         * @param tids   observation indexes of the merged rows
+         */
+        void merge(final int[] items, final int prefix, final int weight, final int[] tids) {
+            final int suffix = this.items.length - this.prefix;
+            final int[] merged = new int[Math.min(this.prefix, prefix) + suffix];
+            int size = 0;
+            int p = 0;
+            int q = 0;
+            while (p < this.prefix && q < prefix) {
+                if (this.items[p] < items[q]) {
+                    p++;
+                } else if (this.items[p] > items[q]) {
+                    q++;
+                } else {
+                    merged[size] = this.items[p];
+                    size++;
+                    p++;
+                    q++;
+                }
+            }
+            System.arraycopy(this.items, this.prefix, merged, size, suffix);
+            this.items = Arrays.copyOf(merged, size + suffix);
+            this.prefix = size;
+            this.weight += weight;
+            final int[] all = Arrays.copyOf(this.tids, this.tids.length + tids.length);
+            System.arraycopy(tids, 0, all, this.tids.length, tids.length);
+            this.tids = all;
+        }
+    }
+
+    /**
+     * This class gives the ranks of a transaction greater than the generating
+     * rank of a database, as a key of the merged transactions.
+     */
+    static final class Suffix {
+
+        /**
+         * The ranks.
+         */
+        private final int[] items;
+
+        /**
+         * The hash code of the ranks.
+         */
+        private final int hash;
+
+        /**
+         * Constructs the suffix of the specified ranks.
+         *
+         * @param items the ranks
+         * @param from  position of the first rank of the suffix
+         */
+        Suffix(final int[] items, final int from) {
+            this.items = Arrays.copyOfRange(items, from, items.length);
+            this.hash = Arrays.hashCode(this.items);
+        }
+
+        /**
+         * Returns the hash code of the ranks.
+         *
+         * @return the hash code
+         */
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        /**
+         * Compares the ranks with the ones of the specified object.
+         *
+         * @param object an object
+         *
+         * @return true if the object is a suffix with the same ranks
+         */
+        @Override
+        public boolean equals(final Object object) {
+            return object instanceof Suffix && Arrays.equals(this.items, ((Suffix) object).items);
+        }
+    }
+
+    /**
+     * This class gives the state of an enumeration.
+     */
+    private static final class Search {
+
+        /**
+         * The enumerated context.
+         */
+        private final Context context;
+
+        /**
+         * Minimal number of observations of the extents.
+         */
+        private final int support;
+
+        /**
+         * The handler of the concepts.
+         */
+        private final ConceptHandler handler;
+
+        /**
+         * Attribute indexes by rank.
+         */
+        private final int[] attributes;
+
+        /**
+         * Ranks by attribute index.
+         */
+        private final int[] ranks;
+
+        /**
+         * Weighted counts by rank, reset after each scan.
+         */
+        private final int[] counts;
+
+        /**
+         * Numbers of transactions by rank, reset after each scan.
+         */
+        private final int[] occurrences;
+
+        /**
+         * Ranks counted by the current scan.
+         */
+        private final int[] touched;
+
+        /**
+         * Number of ranks counted by the current scan.
+         */
+        private int touchedSize;
+
+        /**
+         * Whether the concept of all the attributes has been reported.
+         */
+        private boolean full;
+
+        /**
+         * Constructs the enumeration of the specified context.
+         *
+         * @param context the enumerated context
+         * @param support minimal number of observations of the extents
+         * @param handler the handler of the concepts
+         */
+        Search(final Context context, final int support, final ConceptHandler handler) {
+            this.context = context;
+            this.support = support;
+            this.handler = handler;
+            final BitSet attributeIds = context.getAttributeSymbols().getIds();
+            final long[] keys = new long[attributeIds.cardinality()];
+            int k = 0;
+            for (int j = attributeIds.nextSetBit(0); j >= 0; j = attributeIds.nextSetBit(j + 1)) {
+                keys[k] = (long) context.extentBits(j).cardinality() << 32 | j;
+                k++;
+            }
+            Arrays.sort(keys);
+            this.attributes = new int[keys.length];
+            this.ranks = new int[context.getAttributeSymbols().capacity()];
+            for (int r = 0; r < keys.length; r++) {
+                this.attributes[r] = (int) keys[r];
+                this.ranks[this.attributes[r]] = r;
+            }
+            this.counts = new int[keys.length];
+            this.occurrences = new int[keys.length];
+            this.touched = new int[keys.length];
+        }
+
+        /**
+         * Enumerates the concepts, starting from the concept of all the
+         * observations.
+         */
+        void run() {
+            final BitSet observationIds = this.context.getObservationSymbols().getIds();
+            final int total = observationIds.cardinality();
+            if (total < this.support) {
+                return;
+            }
+            final List<Transaction> rows = new ArrayList<Transaction>(total);
+            for (int i = observationIds.nextSetBit(0); i >= 0; i = observationIds.nextSetBit(i + 1)) {
+                final IndexSet intent = this.context.intentBits(i);
+                final int[] items = new int[intent.cardinality()];
+                int size = 0;
+                for (int j = intent.nextIndex(0); j >= 0; j = intent.nextIndex(j + 1)) {
+                    items[size] = this.ranks[j];
+                    size++;
+                }
+                Arrays.sort(items);
+                rows.add(new Transaction(items, 0, 1, new int[]{i}));
+            }
+            final int[] all = new int[total];
+            for (int x = 0; x < total; x++) {
+                all[x] = x;
+            }
+            this.count(rows, all);
+            // ranks of no row belong to the intent of the concept of all the observations when there is no row
+            for (int r = 0; r < this.attributes.length; r++) {
+                if (this.occurrences[r] == 0) {
+                    this.touch(r);
+                }
+            }
+            final int[] closed = this.closure(new int[0], total);
+            this.report(rows, all, closed);
+            final List<Transaction> database = this.reduce(rows, all, total, -1);
+            this.reset();
+            this.expand(database, closed, -1);
+            if (this.support == 0 && !this.full) {
+                final BitSet intent = new BitSet();
+                for (final int j : this.attributes) {
+                    intent.set(j);
+                }
+                this.handler.handle(new BitSet(), intent);
+            }
+        }
+
+        /**
+         * Extends the specified closed intent by the ranks greater than its
+         * generating rank.
+         *
+         * @param database the conditional database of the intent
+         * @param closed   the ranks of the intent in ascending order
+         * @param tail     the generating rank of the intent
+         */
+        private void expand(final List<Transaction> database, final int[] closed, final int tail) {
+            // occurrence deliver: one scan gives the frequency of all the extensions
+            for (final Transaction transaction : database) {
+                for (int p = transaction.items.length - 1; p >= 0 && transaction.items[p] > tail; p--) {
+                    final int item = transaction.items[p];
+                    if (this.occurrences[item] == 0) {
+                        this.touch(item);
+                    }
+                    this.occurrences[item]++;
+                    this.counts[item] += transaction.weight;
+                }
+            }
+            final int[] candidates = new int[this.touchedSize];
+            int size = 0;
+            for (int k = 0; k < this.touchedSize; k++) {
+                if (this.counts[this.touched[k]] >= this.support) {
+                    candidates[size] = this.touched[k];
+                    size++;
+                }
+            }
+            Arrays.sort(candidates, 0, size);
+            final int[] supports = new int[size];
+            final int[][] positions = new int[size][];
+            for (int c = 0; c < size; c++) {
+                supports[c] = this.counts[candidates[c]];
+                positions[c] = new int[this.occurrences[candidates[c]]];
+            }
+            this.reset();
+            // the counts temporarily give the positions of the candidates, plus one
+            for (int c = 0; c < size; c++) {
+                this.counts[candidates[c]] = c + 1;
+            }
+            final int[] filled = new int[size];
+            for (int x = 0; x < database.size(); x++) {
+                final Transaction transaction = database.get(x);
+                for (int p = transaction.items.length - 1; p >= 0 && transaction.items[p] > tail; p--) {
+                    final int c = this.counts[transaction.items[p]] - 1;
+                    if (c >= 0) {
+                        positions[c][filled[c]] = x;
+                        filled[c]++;
+                    }
+                }
+            }
+            for (int c = 0; c < size; c++) {
+                this.counts[candidates[c]] = 0;
+            }
+            for (int c = 0; c < size; c++) {
+                this.extend(database, positions[c], supports[c], closed, candidates[c]);
+            }
+        }
+
+        /**
+         * Computes the closure of the specified intent extended by the
+         * specified rank, and explores it when it is prefix-preserving.
+         *
+         * @param database  the conditional database of the intent
+         * @param positions positions of the transactions of the extension
+         * @param total     weight of the transactions of the extension
+         * @param closed    the ranks of the intent in ascending order
+         * @param item      the rank of the extension
+         */
+        private void extend(final List<Transaction> database, final int[] positions, final int total, final int[] closed,
+                final int item) {
+            this.count(database, positions);
+            for (int k = 0; k < this.touchedSize; k++) {
+                final int other = this.touched[k];
+                if (other < item && this.counts[other] == total) {
+                    this.reset();
+                    return;
+                }
+            }
+            final int[] extension = this.closure(closed, total);
+            this.report(database, positions, extension);
+            final List<Transaction> conditional = this.reduce(database, positions, total, item);
+            this.reset();
+            this.expand(conditional, extension, item);
+        }
+
+        /**
+         * Counts the ranks of the specified transactions.
+         *
+         * @param database  a conditional database
+         * @param positions positions of the counted transactions
+         */
+        private void count(final List<Transaction> database, final int[] positions) {
+            for (final int x : positions) {
+                final Transaction transaction = database.get(x);
+                for (final int item : transaction.items) {
+                    if (this.occurrences[item] == 0) {
+                        this.touch(item);
+                    }
+                    this.occurrences[item]++;
+                    this.counts[item] += transaction.weight;
+                }
+            }
+        }
+
+        /**
+         * Returns the specified intent extended by the counted ranks of the
+         * specified weight.
+         *
+         * @param closed the ranks of an intent in ascending order
+         * @param total  the weight of the counted transactions
+         *
+         * @return the ranks of the closure in ascending order
+         */
+        private int[] closure(final int[] closed, final int total) {
+            final int[] extension = Arrays.copyOf(closed, closed.length + this.touchedSize);
+            int size = closed.length;
+            for (int k = 0; k < this.touchedSize; k++) {
+                if (this.counts[this.touched[k]] == total) {
+                    extension[size] = this.touched[k];
+                    size++;
+                }
+            }
+            Arrays.sort(extension, 0, size);
+            return Arrays.copyOf(extension, size);
+        }
+
+        /**
+         * Returns the conditional database of the specified transactions,
+         * whose ranks have been counted.
+         *
+         * The ranks of the closure and the infrequent ranks are removed, and
+         * the transactions sharing the same ranks greater than the generating
+         * rank are merged.
+         *
+         * @param database  a conditional database
+         * @param positions positions of the transactions
+         * @param total     weight of the transactions
+         * @param item      the generating rank
+         *
+         * @return the conditional database
+         */
+        private List<Transaction> reduce(final List<Transaction> database, final int[] positions, final int total,
+                final int item) {
+            final List<Transaction> result = new ArrayList<Transaction>();
+            final HashMap<Suffix, Transaction> merged = new HashMap<Suffix, Transaction>();
+            for (final int x : positions) {
+                final Transaction transaction = database.get(x);
+                final int[] items = new int[transaction.items.length];
+                int size = 0;
+                int prefix = 0;
+                for (final int other : transaction.items) {
+                    if (this.counts[other] >= this.support && this.counts[other] != total) {
+                        items[size] = other;
+                        size++;
+                        if (other < item) {
+                            prefix++;
+                        }
+                    }
+                }
+                final int[] reduced = Arrays.copyOf(items, size);
+                final Suffix suffix = new Suffix(reduced, prefix);
+                final Transaction same = merged.get(suffix);
+                if (same == null) {
+                    final Transaction created = new Transaction(reduced, prefix, transaction.weight, transaction.tids);
+                    merged.put(suffix, created);
+                    result.add(created);
+                } else {
+                    same.merge(reduced, prefix, transaction.weight, transaction.tids);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Reports the concept of the specified transactions and intent.
+         *
+         * @param database  a conditional database
+         * @param positions positions of the transactions of the extent
+         * @param closed    the ranks of the intent
+         */
+        private void report(final List<Transaction> database, final int[] positions, final int[] closed) {
+            final BitSet extent = new BitSet();
+            for (final int x : positions) {
+                for (final int tid : database.get(x).tids) {
+                    extent.set(tid);
+                }
+            }
+            final BitSet intent = new BitSet();
+            for (final int item : closed) {
+                intent.set(this.attributes[item]);
+            }
+            if (closed.length == this.attributes.length) {
+                this.full = true;
+            }
+            this.handler.handle(extent, intent);
+        }
+
+        /**
+         * Records a rank counted by the current scan.
+         *
+         * @param item a rank
+         */
+        private void touch(final int item) {
+            this.touched[this.touchedSize] = item;
+            this.touchedSize++;
+        }
+
+        /**
+         * Resets the counts of the current scan.
+         */
+        private void reset() {
+            for (int k = 0; k < this.touchedSize; k++) {
+                this.counts[this.touched[k]] = 0;
+                this.occurrences[this.touched[k]] = 0;
+            }
+            this.touchedSize = 0;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.thegalactic.context.enumeration;
+
+/*
+ * ParallelCloseByOne.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.thegalactic.context.Context;
+
+/**
+ * This class enumerates the concepts of a context with the PCbO algorithm of
+ * Krajca, Outrata and Vychodil, i.e. a parallel version of
+ * {@link FastCloseByOne}.
+ *
+ * The subtrees of the concept tree are independent: the children of a
+ * concept only depend on its extent, its intent and the failed canonicity
+ * tests it inherits, which are never changed once shared. Subtrees are thus
+ * enumerated by the tasks of a fork-join pool, idle threads stealing the
+ * pending subtrees of busy ones. A task enumerates its subtree sequentially
+ * once enough tasks are pending, so that small subtrees do not pay for the
+ * scheduling.
+ *
+ * Each concept is generated once, as in the sequential algorithm, but in no
+ * particular order and from several threads: the handler must be thread-safe,
+ * as {@link ConceptCollector} is.
+ *
+ * ~~~
+ * ConceptLattice lattice = context.conceptLattice(true, new ParallelCloseByOne());
+ * ~~~
+ */
+public final class ParallelCloseByOne implements ConceptEnumerator {
+
+    /**
+     * Number of pending tasks from which a task enumerates its subtree
+     * sequentially.
+     */
+    private static final int SURPLUS_THRESHOLD = 3;
+
+    /**
+     * Number of threads.
+     */
+    private final int parallelism;
+
+    /**
+     * Constructs an enumerator using all the available processors.
+     */
+    public ParallelCloseByOne() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs an enumerator using the specified number of threads.
+     *
+     * @param parallelism number of threads
+     *
+     * @throws IllegalArgumentException if the number of threads is not
+     *                                  positive
+     */
+    public ParallelCloseByOne(final int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("The parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the number of threads.
+     *
+     * @return the number of threads
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Enumerates the concepts of the specified context.
+     *
+     * @param context a context
+     * @param handler the thread-safe handler of the concepts
+     */
+    public void enumerate(final Context context, final ConceptHandler handler) {
+        final ContextMatrix matrix = new ContextMatrix(context);
+        final ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            pool.invoke(new SubtreeTask(matrix, FastCloseByOne.Candidate.root(matrix), handler));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * This class gives the task enumerating a subtree.
+     */
+    private static final class SubtreeTask extends RecursiveAction {
+
+        /**
+         * Serial version.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The matrix of the context.
+         */
+        private final transient ContextMatrix matrix;
+
+        /**
+         * The root of the subtree.
+         */
+        private final transient FastCloseByOne.Candidate candidate;
+
+        /**
+         * The handler of the concepts.
+         */
+        private final transient ConceptHandler handler;
+
+        /**
+         * Constructs the task of a subtree.
+         *
+         * @param matrix    the matrix of the context
+         * @param candidate the root of the subtree
+         * @param handler   the handler of the concepts
+         */
+        SubtreeTask(final ContextMatrix matrix, final FastCloseByOne.Candidate candidate, final ConceptHandler handler) {
+            super();
+            this.matrix = matrix;
+            this.candidate = candidate;
+            this.handler = handler;
+        }
+
+        /**
+         * Enumerates the subtree, forking the subtrees of the children while
+         * few tasks are pending.
+         */
+        @Override
+        protected void compute() {
+            if (getSurplusQueuedTaskCount() > SURPLUS_THRESHOLD) {
+                FastCloseByOne.walk(this.matrix, this.candidate, 0, this.handler);
+                return;
+            }
+            this.candidate.report(this.handler);
+            final ArrayList<FastCloseByOne.Candidate> children = new ArrayList<FastCloseByOne.Candidate>();
+            this.candidate.children(this.matrix, 0, children);
+            final ArrayList<SubtreeTask> tasks = new ArrayList<SubtreeTask>(children.size());
+            for (final FastCloseByOne.Candidate child : children) {
+                tasks.add(new SubtreeTask(this.matrix, child, this.handler));
+            }
+            invokeAll(tasks);
+        }
+    }
+}
@@ -0,0 +1,512 @@
+package org.thegalactic.context.enumeration;
+
+/*
+ * PatternTreeMiner.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import org.thegalactic.context.Context;
+import org.thegalactic.util.IndexSet;
+
+/**
+ * This class enumerates the frequent concepts of a context, i.e. the concepts
+ * whose extent has at least a minimal number of observations, with the
+ * FP-Close algorithm of Grahne and Zhu, designed for very large sparse
+ * contexts.
+ *
+ * Attributes are ranked by descending frequency, and the rows of the context
+ * are inserted in a prefix tree of ranks, the FP-tree, whose nodes count the
+ * rows sharing the same frequent attributes: on transaction databases, the
+ * tree is far smaller than the incidence matrix of the context. The closed
+ * intents are then mined by pattern growth: the least frequent rank `i` of a
+ * tree extends the current intent, the ranks occurring in all the paths of
+ * `i` are added to the extension, and the other frequent ranks of these paths
+ * form the conditional FP-tree of the extension, recursively mined.
+ *
+ * An extension whose closure contains a rank already mined is not closed. It
+ * is detected by the subsumption check of the CFI-tree, a prefix tree of the
+ * closed intents found so far whose nodes keep the maximal support of their
+ * subtree: the extension is pruned with its conditional tree when a closed
+ * superset of the same support is found in the CFI-tree.
+ *
+ * Extents are not stored in the trees: the extent of a concept is computed
+ * from the columns of its intent when the concept is reported.
+ *
+ * ~~~
+ * ConceptLattice iceberg = context.closedSetLattice(true, new PatternTreeMiner(10));
+ * ~~~
+ */
+public final class PatternTreeMiner implements ConceptEnumerator {
+
+    /**
+     * Minimal number of observations of the extents.
+     */
+    private final int support;
+
+    /**
+     * Constructs a miner of the concepts whose extent has at least the
+     * specified number of observations.
+     *
+     * @param support minimal number of observations of the extents
+     *
+     * @throws IllegalArgumentException if the support is negative
+     */
+    public PatternTreeMiner(final int support) {
+        if (support < 0) {
+            throw new IllegalArgumentException("The support must not be negative");
+        }
+        this.support = support;
+    }
+
+    /**
+     * Returns the minimal number of observations of the extents.
+     *
+     * @return the support
+     */
+    public int getSupport() {
+        return this.support;
+    }
+
+    /**
+     * Enumerates the frequent concepts of the specified context.
+     *
+     * When the support is 0, the concept of all the attributes is reported
+     * even if its extent is empty.
+     *
+     * @param context a context
+     * @param handler the handler of the concepts
+     */
+    public void enumerate(final Context context, final ConceptHandler handler) {
+        new Search(context, this.support, handler).run();
+    }
+
+    /**
+     * This class gives a node of a prefix tree of ranks.
+     */
+    private static final class Node {
+
+        /**
+         * The rank of the node.
+         */
+        private final int item;
+
+        /**
+         * The parent of the node.
+         */
+        private final Node parent;
+
+        /**
+         * The first child of the node.
+         */
+        private Node child;
+
+        /**
+         * The next sibling of the node.
+         */
+        private Node sibling;
+
+        /**
+         * The next node of the same rank.
+         */
+        private Node link;
+
+        /**
+         * The count of the node: the number of rows of the paths through the
+         * node in an FP-tree, the maximal support of the intents through the
+         * node in a CFI-tree.
+         */
+        private int count;
+
+        /**
+         * Constructs a node.
+         *
+         * @param item   the rank of the node
+         * @param parent the parent of the node
+         */
+        Node(final int item, final Node parent) {
+            this.item = item;
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * This class gives a prefix tree of ranks, whose nodes of the same rank
+     * are linked.
+     */
+    static final class Tree {
+
+        /**
+         * The root of the tree.
+         */
+        private final Node root;
+
+        /**
+         * The first node of each rank.
+         */
+        private final Node[] heads;
+
+        /**
+         * The total count of each rank.
+         */
+        private final int[] supports;
+
+        /**
+         * Constructs an empty tree.
+         *
+         * @param size the number of ranks
+         */
+        Tree(final int size) {
+            this.root = new Node(-1, null);
+            this.heads = new Node[size];
+            this.supports = new int[size];
+        }
+
+        /**
+         * Inserts a path of ranks with the specified count, the count of a node
+         * being the sum of the counts of its paths.
+         *
+         * @param items  the ranks in ascending order
+         * @param length the number of ranks
+         * @param count  the count of the path
+         */
+        void add(final int[] items, final int length, final int count) {
+            Node node = this.root;
+            for (int k = 0; k < length; k++) {
+                node = this.child(node, items[k]);
+                node.count += count;
+                this.supports[items[k]] += count;
+            }
+        }
+
+        /**
+         * Inserts a path of ranks with the specified count, the count of a node
+         * being the maximal count of its paths.
+         *
+         * @param items the ranks in ascending order
+         * @param count the count of the path
+         */
+        void max(final int[] items, final int count) {
+            Node node = this.root;
+            for (final int item : items) {
+                node = this.child(node, item);
+                node.count = Math.max(node.count, count);
+            }
+        }
+
+        /**
+         * Returns the child of the specified node of the specified rank,
+         * created if needed.
+         *
+         * @param node a node
+         * @param item a rank
+         *
+         * @return the child
+         */
+        private Node child(final Node node, final int item) {
+            Node child = node.child;
+            while (child != null && child.item != item) {
+                child = child.sibling;
+            }
+            if (child == null) {
+                child = new Node(item, node);
+                child.sibling = node.child;
+                node.child = child;
+                child.link = this.heads[item];
+                this.heads[item] = child;
+            }
+            return child;
+        }
+
+        /**
+         * Checks if a path of this tree contains the specified ranks and
+         * reaches a node of at least the specified count.
+         *
+         * @param items the ranks in ascending order
+         * @param count a count
+         *
+         * @return true if a path contains the ranks with the count
+         */
+        boolean subsumes(final int[] items, final int count) {
+            for (Node node = this.heads[items[items.length - 1]]; node != null; node = node.link) {
+                if (node.count >= count) {
+                    int k = items.length - 2;
+                    for (Node ancestor = node.parent; k >= 0 && ancestor.item >= items[k]; ancestor = ancestor.parent) {
+                        if (ancestor.item == items[k]) {
+                            k--;
+                        }
+                    }
+                    if (k < 0) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * This class gives the state of an enumeration.
+     */
+    private static final class Search {
+
+        /**
+         * The enumerated context.
+         */
+        private final Context context;
+
+        /**
+         * Minimal number of observations of the extents.
+         */
+        private final int support;
+
+        /**
+         * Minimal count of the ranks of the FP-trees.
+         */
+        private final int minimum;
+
+        /**
+         * The handler of the concepts.
+         */
+        private final ConceptHandler handler;
+
+        /**
+         * Attribute indexes by rank.
+         */
+        private final int[] attributes;
+
+        /**
+         * Ranks by attribute index.
+         */
+        private final int[] ranks;
+
+        /**
+         * The CFI-tree of the closed intents found so far.
+         */
+        private final Tree closed;
+
+        /**
+         * Counts by rank, reset after each scan.
+         */
+        private final int[] counts;
+
+        /**
+         * Ranks counted by the current scan.
+         */
+        private final int[] touched;
+
+        /**
+         * Number of ranks counted by the current scan.
+         */
+        private int touchedSize;
+
+        /**
+         * Whether the concept of all the attributes has been reported.
+         */
+        private boolean full;
+
+        /**
+         * Constructs the enumeration of the specified context.
+         *
+         * @param context the enumerated context
+         * @param support minimal number of observations of the extents
+         * @param handler the handler of the concepts
+         */
+        Search(final Context context, final int support, final ConceptHandler handler) {
+            this.context = context;
+            this.support = support;
+            this.minimum = Math.max(support, 1);
+            this.handler = handler;
+            final BitSet attributeIds = context.getAttributeSymbols().getIds();
+            final long[] keys = new long[attributeIds.cardinality()];
+            int k = 0;
+            for (int j = attributeIds.nextSetBit(0); j >= 0; j = attributeIds.nextSetBit(j + 1)) {
+                keys[k] = (long) -context.extentBits(j).cardinality() << 32 | j;
+                k++;
+            }
+            Arrays.sort(keys);
+            this.attributes = new int[keys.length];
+            this.ranks = new int[context.getAttributeSymbols().capacity()];
+            for (int r = 0; r < keys.length; r++) {
+                this.attributes[r] = (int) keys[r];
+                this.ranks[this.attributes[r]] = r;
+            }
+            this.closed = new Tree(keys.length);
+            this.counts = new int[keys.length];
+            this.touched = new int[keys.length];
+        }
+
+        /**
+         * Enumerates the concepts, starting from the concept of all the
+         * observations.
+         */
+        void run() {
+            final BitSet observationIds = this.context.getObservationSymbols().getIds();
+            final int total = observationIds.cardinality();
+            if (total < this.support) {
+                return;
+            }
+            final int[] frequencies = new int[this.attributes.length];
+            int size = 0;
+            for (int r = 0; r < this.attributes.length; r++) {
+                frequencies[r] = this.context.extentBits(this.attributes[r]).cardinality();
+                if (frequencies[r] == total) {
+                    size++;
+                }
+            }
+            final int[] intent = new int[size];
+            size = 0;
+            for (int r = 0; r < this.attributes.length; r++) {
+                if (frequencies[r] == total) {
+                    intent[size] = r;
+                    size++;
+                }
+            }
+            this.report(intent);
+            if (intent.length > 0) {
+                this.closed.max(intent, total);
+            }
+            final Tree tree = new Tree(this.attributes.length);
+            final int[] items = new int[this.attributes.length];
+            for (int i = observationIds.nextSetBit(0); i >= 0; i = observationIds.nextSetBit(i + 1)) {
+                final IndexSet row = this.context.intentBits(i);
+                size = 0;
+                for (int j = row.nextIndex(0); j >= 0; j = row.nextIndex(j + 1)) {
+                    final int r = this.ranks[j];
+                    if (frequencies[r] >= this.minimum && frequencies[r] != total) {
+                        items[size] = r;
+                        size++;
+                    }
+                }
+                Arrays.sort(items, 0, size);
+                tree.add(items, size, 1);
+            }
+            this.mine(tree, intent);
+            if (this.support == 0 && !this.full) {
+                final BitSet all = new BitSet();
+                for (final int j : this.attributes) {
+                    all.set(j);
+                }
+                this.handler.handle(new BitSet(), all);
+            }
+        }
+
+        /**
+         * Mines the closed intents extending the specified intent by the
+         * ranks of the specified FP-tree, from the least frequent rank.
+         *
+         * @param tree   the conditional FP-tree of the intent
+         * @param prefix the ranks of the intent in ascending order
+         */
+        private void mine(final Tree tree, final int[] prefix) {
+            for (int item = tree.heads.length - 1; item >= 0; item--) {
+                if (tree.heads[item] == null) {
+                    continue;
+                }
+                final int count = tree.supports[item];
+                // the conditional pattern base of the rank
+                for (Node node = tree.heads[item]; node != null; node = node.link) {
+                    for (Node ancestor = node.parent; ancestor != tree.root; ancestor = ancestor.parent) {
+                        if (this.counts[ancestor.item] == 0) {
+                            this.touched[this.touchedSize] = ancestor.item;
+                            this.touchedSize++;
+                        }
+                        this.counts[ancestor.item] += node.count;
+                    }
+                }
+                final int[] intent = this.closure(prefix, item, count);
+                if (this.closed.subsumes(intent, count)) {
+                    this.reset();
+                    continue;
+                }
+                this.closed.max(intent, count);
+                this.report(intent);
+                final Tree conditional = new Tree(item);
+                final int[] path = new int[item];
+                for (Node node = tree.heads[item]; node != null; node = node.link) {
+                    int length = 0;
+                    for (Node ancestor = node.parent; ancestor != tree.root; ancestor = ancestor.parent) {
+                        final int other = this.counts[ancestor.item];
+                        if (other >= this.minimum && other != count) {
+                            path[length] = ancestor.item;
+                            length++;
+                        }
+                    }
+                    for (int k = 0; k < length / 2; k++) {
+                        final int swap = path[k];
+                        path[k] = path[length - 1 - k];
+                        path[length - 1 - k] = swap;
+                    }
+                    conditional.add(path, length, node.count);
+                }
+                this.reset();
+                if (conditional.root.child != null) {
+                    this.mine(conditional, intent);
+                }
+            }
+        }
+
+        /**
+         * Returns the specified intent extended by the specified rank and the
+         * counted ranks of the specified count.
+         *
+         * @param prefix the ranks of an intent in ascending order
+         * @param item   the extending rank
+         * @param count  the count of the extending rank
+         *
+         * @return the ranks of the extension in ascending order
+         */
+        private int[] closure(final int[] prefix, final int item, final int count) {
+            final int[] intent = Arrays.copyOf(prefix, prefix.length + 1 + this.touchedSize);
+            int size = prefix.length;
+            intent[size] = item;
+            size++;
+            for (int k = 0; k < this.touchedSize; k++) {
+                if (this.counts[this.touched[k]] == count) {
+                    intent[size] = this.touched[k];
+                    size++;
+                }
+            }
+            Arrays.sort(intent, 0, size);
+            return Arrays.copyOf(intent, size);
+        }
+
+        /**
+         * Reports the concept of the specified intent, whose extent is
+         * computed from the columns of the context.
+         *
+         * @param intent the ranks of the intent
+         */
+        private void report(final int[] intent) {
+            final List<IndexSet> columns = new ArrayList<IndexSet>(intent.length);
+            final BitSet bits = new BitSet();
+            for (final int item : intent) {
+                columns.add(this.context.extentBits(this.attributes[item]));
+                bits.set(this.attributes[item]);
+            }
+            if (intent.length == this.attributes.length) {
+                this.full = true;
+            }
+            this.handler.handle(IndexSet.intersection(columns, this.context.getObservationSymbols().getIds()), bits);
+        }
+
+        /**
+         * Resets the counts of the current scan.
+         */
+        private void reset() {
+            for (int k = 0; k < this.touchedSize; k++) {
+                this.counts[this.touched[k]] = 0;
+            }
+            this.touchedSize = 0;
+        }
+    }
+}
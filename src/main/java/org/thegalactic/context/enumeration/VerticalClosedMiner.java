@@ -0,0 +1,615 @@
+package org.thegalactic.context.enumeration;
+
+/*
+ * VerticalClosedMiner.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import org.thegalactic.context.Context;
+
+/**
+ * This class enumerates the frequent concepts of a context, i.e. the concepts
+ * whose extent has at least a minimal number of observations, with the
+ * CHARM algorithm of Zaki and Hsiao, in its diffset version.
+ *
+ * The context is mined vertically: each frequent attribute is stored with its
+ * extent, and the nodes of an equivalence class, sharing the same prefix, are
+ * combined pairwise. The four properties of CHARM compare the extents of two
+ * nodes `Xi` and `Xj` of a class:
+ *
+ * - when they are equal, `Xj` is removed and added to `Xi`;
+ * - when the extent of `Xi` is included in the one of `Xj`, `Xj` is added to
+ *   `Xi`;
+ * - when the extent of `Xj` is included in the one of `Xi`, `Xj` is removed
+ *   and `XiXj` is added to the class of `Xi`;
+ * - otherwise, `XiXj` is added to the class of `Xi` when it is frequent,
+ *
+ * so that most of the non-closed candidates are never generated. The
+ * attributes are stored with their extent, and the nodes of the lower classes
+ * with their diffset, i.e. the observations of the prefix of the class that
+ * they lose: on dense contexts, diffsets are much smaller than extents.
+ *
+ * The remaining candidates are checked when they are generated. As in CHARM,
+ * the intents of the closed sets already found are hashed by the sum of the
+ * indexes of their extent: a candidate is subsumed when a closed set of the
+ * same support and of the same sum contains it. Since the classes of the
+ * attributes are explored in parallel by the tasks of a fork-join pool, the
+ * closed set subsuming a candidate may not be found yet when it belongs to the
+ * class of a preceding attribute: a candidate which is not subsumed is thus
+ * confirmed to be closed by the extents of the attributes ordered before its
+ * top-level class, whose classes may still be running. Only the intents of the closed sets are kept, and each concept
+ * is reported as soon as it is found, from several threads: the handler must
+ * be thread-safe, as {@link ConceptCollector} is. When the handler throws an
+ * exception, such as the {@link java.util.concurrent.CancellationException}
+ * of an exhausted {@link org.thegalactic.util.Budget}, the tasks stop and the
+ * exception is thrown by {@link #enumerate}.
+ *
+ * ~~~
+ * ConceptLattice iceberg = context.closedSetLattice(true, new VerticalClosedMiner(10));
+ * ~~~
+ */
+public final class VerticalClosedMiner implements ConceptEnumerator {
+
+    /**
+     * Minimal number of observations of the extents.
+     */
+    private final int support;
+
+    /**
+     * Number of threads.
+     */
+    private final int parallelism;
+
+    /**
+     * Constructs a miner of the concepts whose extent has at least the
+     * specified number of observations, using all the available processors.
+     *
+     * @param support minimal number of observations of the extents
+     *
+     * @throws IllegalArgumentException if the support is negative
+     */
+    public VerticalClosedMiner(final int support) {
+        this(support, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a miner of the concepts whose extent has at least the
+     * specified number of observations, using the specified number of
+     * threads.
+     *
+     * @param support     minimal number of observations of the extents
+     * @param parallelism number of threads
+     *
+     * @throws IllegalArgumentException if the support is negative or the
+     *                                  number of threads is not positive
+     */
+    public VerticalClosedMiner(final int support, final int parallelism) {
+        if (support < 0) {
+            throw new IllegalArgumentException("The support must not be negative");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("The parallelism must be positive");
+        }
+        this.support = support;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the minimal number of observations of the extents.
+     *
+     * @return the support
+     */
+    public int getSupport() {
+        return this.support;
+    }
+
+    /**
+     * Returns the number of threads.
+     *
+     * @return the number of threads
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Enumerates the frequent concepts of the specified context.
+     *
+     * When the support is 0, the concept of all the attributes is reported
+     * even if its extent is empty.
+     *
+     * @param context a context
+     * @param handler the thread-safe handler of the concepts
+     */
+    public void enumerate(final Context context, final ConceptHandler handler) {
+        final BitSet observations = (BitSet) context.getObservationSymbols().getIds().clone();
+        if (observations.cardinality() < this.support) {
+            return;
+        }
+        final BitSet attributes = (BitSet) context.getAttributeSymbols().getIds().clone();
+        final int minimum = Math.max(this.support, 1);
+        // frequent attributes by ascending support
+        final List<Node> frequent = new ArrayList<Node>();
+        for (int j = attributes.nextSetBit(0); j >= 0; j = attributes.nextSetBit(j + 1)) {
+            final BitSet extent = context.extentBits(j).toBitSet();
+            if (extent.cardinality() >= minimum) {
+                final BitSet items = new BitSet();
+                items.set(j);
+                frequent.add(new Node(items, extent, extent.cardinality()));
+            }
+        }
+        final long[] keys = new long[frequent.size()];
+        for (int k = 0; k < keys.length; k++) {
+            keys[k] = (long) frequent.get(k).support << 32 | k;
+        }
+        Arrays.sort(keys);
+        final List<Node> nodes = new ArrayList<Node>(keys.length);
+        for (final long key : keys) {
+            nodes.add(frequent.get((int) key));
+        }
+        final Search search = new Search(nodes, attributes, minimum, handler);
+        // the concept of all the observations
+        final BitSet top = new BitSet();
+        for (int j = attributes.nextSetBit(0); j >= 0; j = attributes.nextSetBit(j + 1)) {
+            if (context.extentBits(j).cardinality() == observations.cardinality()) {
+                top.set(j);
+            }
+        }
+        search.report(top, observations, 0);
+        final ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            final List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>();
+            search.extend(new EquivalenceClass(new BitSet(), observations, nodes, false, -1), pool, tasks);
+            for (final ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        } finally {
+            search.stopped = true;
+            pool.shutdown();
+        }
+        if (this.support == 0 && !search.full) {
+            search.report(attributes, new BitSet(), 0);
+        }
+    }
+
+    /**
+     * Returns the sum of the indexes of the specified extent.
+     *
+     * @param extent an extent
+     *
+     * @return the sum
+     */
+    static long sum(final BitSet extent) {
+        long sum = 0;
+        for (int i = extent.nextSetBit(0); i >= 0; i = extent.nextSetBit(i + 1)) {
+            sum += i;
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the number of the property of CHARM satisfied by two nodes
+     * `Xi` and `Xj` of a class.
+     *
+     * @param common   number of observations of the extent of `XiXj`
+     * @param supportI number of observations of the extent of `Xi`
+     * @param supportJ number of observations of the extent of `Xj`
+     *
+     * @return 1 when the extents are equal, 2 when the extent of `Xi` is
+     *         strictly included in the one of `Xj`, 3 when the extent of
+     *         `Xj` is strictly included in the one of `Xi`, and 4 otherwise
+     */
+    static int property(final int common, final int supportI, final int supportJ) {
+        if (common == supportI && common == supportJ) {
+            return 1;
+        }
+        if (common == supportI) {
+            return 2;
+        }
+        if (common == supportJ) {
+            return 3;
+        }
+        return 4;
+    }
+
+    /**
+     * Returns the diffset of `XiXj` with respect to `Xi`, i.e. the
+     * observations of the extent of `Xi` lost by `XiXj`.
+     *
+     * When the class stores extents, the diffset is the extent of `Xi` minus
+     * the one of `Xj`. When it stores diffsets, with respect to the prefix
+     * `P` of the class, it is the diffset of `Xj` minus the one of `Xi`.
+     *
+     * @param xi       the extent or diffset of `Xi`
+     * @param xj       the extent or diffset of `Xj`
+     * @param diffsets whether the class stores diffsets
+     *
+     * @return the diffset of `XiXj`
+     */
+    static BitSet diffset(final BitSet xi, final BitSet xj, final boolean diffsets) {
+        final BitSet diffset;
+        if (diffsets) {
+            diffset = (BitSet) xj.clone();
+            diffset.andNot(xi);
+        } else {
+            diffset = (BitSet) xi.clone();
+            diffset.andNot(xj);
+        }
+        return diffset;
+    }
+
+    /**
+     * This class gives the state of a mining.
+     */
+    private static final class Search {
+
+        /**
+         * Frequent attributes, with their extent.
+         */
+        private final List<Node> attributes;
+
+        /**
+         * All the attributes.
+         */
+        private final BitSet all;
+
+        /**
+         * Minimal number of observations of the extents.
+         */
+        private final int minimum;
+
+        /**
+         * The handler of the concepts.
+         */
+        private final ConceptHandler handler;
+
+        /**
+         * Intents of the closed sets found so far, hashed by the sum of the
+         * indexes of their extent.
+         */
+        private final ConcurrentHashMap<Long, List<Closed>> closed;
+
+        /**
+         * Whether the tasks have to stop.
+         */
+        private volatile boolean stopped;
+
+        /**
+         * Whether the concept of all the attributes has been reported.
+         */
+        private volatile boolean full;
+
+        /**
+         * Constructs the state of a mining.
+         *
+         * @param attributes frequent attributes, with their extent
+         * @param all        all the attributes
+         * @param minimum    minimal number of observations of the extents
+         * @param handler    the handler of the concepts
+         */
+        Search(final List<Node> attributes, final BitSet all, final int minimum, final ConceptHandler handler) {
+            this.attributes = attributes;
+            this.all = all;
+            this.minimum = minimum;
+            this.handler = handler;
+            this.closed = new ConcurrentHashMap<Long, List<Closed>>();
+        }
+
+        /**
+         * Explores the specified equivalence class with the properties of
+         * CHARM.
+         *
+         * When a pool is given, the lower classes are submitted to the pool
+         * and their tasks are added to the specified list. Otherwise they are
+         * explored by the current thread.
+         *
+         * @param eqClass an equivalence class
+         * @param pool    a pool, or null
+         * @param tasks   the list of the submitted tasks, or null
+         */
+        void extend(final EquivalenceClass eqClass, final ForkJoinPool pool, final List<ForkJoinTask<?>> tasks) {
+            final List<Node> nodes = eqClass.nodes;
+            final boolean[] removed = new boolean[nodes.size()];
+            for (int i = 0; i < nodes.size() && !this.stopped; i++) {
+                if (removed[i]) {
+                    continue;
+                }
+                final Node xi = nodes.get(i);
+                int rank = eqClass.rank;
+                if (rank < 0) {
+                    rank = i;
+                }
+                final BitSet prefix = (BitSet) eqClass.prefix.clone();
+                prefix.or(xi.items);
+                final List<Node> children = new ArrayList<Node>();
+                for (int j = i + 1; j < nodes.size(); j++) {
+                    if (removed[j]) {
+                        continue;
+                    }
+                    final Node xj = nodes.get(j);
+                    final BitSet diffset = diffset(xi.set, xj.set, eqClass.diffsets);
+                    final int count = xi.support - diffset.cardinality();
+                    final int property = property(count, xi.support, xj.support);
+                    if (property <= 2) {
+                        prefix.or(xj.items);
+                    } else if (count >= this.minimum) {
+                        children.add(new Node(xj.items, diffset, count));
+                    }
+                    removed[j] = property == 1 || property == 3;
+                }
+                final BitSet extent;
+                if (eqClass.diffsets) {
+                    extent = (BitSet) eqClass.extent.clone();
+                    extent.andNot(xi.set);
+                } else {
+                    extent = xi.set;
+                }
+                if (!children.isEmpty()) {
+                    final EquivalenceClass child = new EquivalenceClass(prefix, extent, children, true, rank);
+                    if (pool == null) {
+                        this.extend(child, null, null);
+                    } else {
+                        tasks.add(pool.submit(new ClassTask(this, child)));
+                    }
+                }
+                this.report((BitSet) prefix.clone(), extent, rank);
+            }
+        }
+
+        /**
+         * Reports the specified candidate when it is a closed set not found
+         * yet.
+         *
+         * A candidate which is not subsumed by a closed set already found is
+         * checked against the frequent attributes ordered before its
+         * top-level class: the closed sets of their classes, which may still
+         * be running, are the only ones that CHARM could not have found yet.
+         *
+         * @param intent the intent of the candidate
+         * @param extent the extent of the candidate
+         * @param rank   the rank of the top-level class of the candidate in
+         *               the frequent attributes
+         */
+        void report(final BitSet intent, final BitSet extent, final int rank) {
+            final int count = extent.cardinality();
+            final Long key = sum(extent);
+            List<Closed> bucket = this.closed.get(key);
+            if (bucket != null && subsumed(bucket, intent, count)) {
+                return;
+            }
+            for (int k = 0; k < rank; k++) {
+                final Node attribute = this.attributes.get(k);
+                if (attribute.support >= count && !intent.intersects(attribute.items) && contains(attribute.set, extent)) {
+                    return;
+                }
+            }
+            if (bucket == null) {
+                final List<Closed> created = new ArrayList<Closed>();
+                bucket = this.closed.putIfAbsent(key, created);
+                if (bucket == null) {
+                    bucket = created;
+                }
+            }
+            synchronized (bucket) {
+                if (subsumed(bucket, intent, count)) {
+                    return;
+                }
+                bucket.add(new Closed(intent, count));
+            }
+            if (intent.equals(this.all)) {
+                this.full = true;
+            }
+            try {
+                this.handler.handle(extent, intent);
+            } catch (RuntimeException e) {
+                this.stopped = true;
+                throw e;
+            }
+        }
+
+        /**
+         * Checks if a closed set of the specified bucket subsumes the
+         * specified candidate.
+         *
+         * @param bucket a bucket of closed sets sharing the sum of the indexes
+         *               of their extent with the candidate
+         * @param intent the intent of the candidate
+         * @param count  the number of observations of the candidate
+         *
+         * @return true if the candidate is subsumed
+         */
+        private static boolean subsumed(final List<Closed> bucket, final BitSet intent, final int count) {
+            synchronized (bucket) {
+                for (final Closed other : bucket) {
+                    if (other.support == count && contains(other.intent, intent)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+
+        /**
+         * Checks if the first specified bitset contains the second one.
+         *
+         * @param set    a bitset
+         * @param subset a bitset
+         *
+         * @return true if the subset is included in the set
+         */
+        private static boolean contains(final BitSet set, final BitSet subset) {
+            for (int i = subset.nextSetBit(0); i >= 0; i = subset.nextSetBit(i + 1)) {
+                if (!set.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * This class gives the intent of a closed set, with its support.
+     */
+    private static final class Closed {
+
+        /**
+         * The intent.
+         */
+        private final BitSet intent;
+
+        /**
+         * Number of observations of the extent.
+         */
+        private final int support;
+
+        /**
+         * Constructs a closed set.
+         *
+         * @param intent  the intent
+         * @param support number of observations of the extent
+         */
+        Closed(final BitSet intent, final int support) {
+            this.intent = intent;
+            this.support = support;
+        }
+    }
+
+    /**
+     * This class gives a node of an equivalence class.
+     */
+    private static final class Node {
+
+        /**
+         * Attributes added by the node to the prefix of its class.
+         */
+        private final BitSet items;
+
+        /**
+         * Extent of the node, or its diffset with respect to the extent of
+         * the prefix of its class.
+         */
+        private final BitSet set;
+
+        /**
+         * Number of observations of the extent of the node.
+         */
+        private final int support;
+
+        /**
+         * Constructs a node.
+         *
+         * @param items   attributes added to the prefix
+         * @param set     extent or diffset
+         * @param support number of observations of the extent
+         */
+        Node(final BitSet items, final BitSet set, final int support) {
+            this.items = items;
+            this.set = set;
+            this.support = support;
+        }
+    }
+
+    /**
+     * This class gives an equivalence class, i.e. the nodes sharing a prefix.
+     */
+    private static final class EquivalenceClass {
+
+        /**
+         * Attributes of the prefix.
+         */
+        private final BitSet prefix;
+
+        /**
+         * Extent of the prefix.
+         */
+        private final BitSet extent;
+
+        /**
+         * Nodes of the class.
+         */
+        private final List<Node> nodes;
+
+        /**
+         * Whether the nodes are stored with their diffset.
+         */
+        private final boolean diffsets;
+
+        /**
+         * Rank of the top-level class of the nodes in the frequent
+         * attributes, or -1 for the class of the empty prefix.
+         */
+        private final int rank;
+
+        /**
+         * Constructs an equivalence class.
+         *
+         * @param prefix   attributes of the prefix
+         * @param extent   extent of the prefix
+         * @param nodes    nodes of the class
+         * @param diffsets whether the nodes are stored with their diffset
+         * @param rank     rank of the top-level class of the nodes, or -1
+         */
+        EquivalenceClass(final BitSet prefix, final BitSet extent, final List<Node> nodes, final boolean diffsets, final int rank) {
+            this.prefix = prefix;
+            this.extent = extent;
+            this.nodes = nodes;
+            this.diffsets = diffsets;
+            this.rank = rank;
+        }
+    }
+
+    /**
+     * This class gives the task exploring an equivalence class.
+     */
+    private static final class ClassTask extends RecursiveAction {
+
+        /**
+         * Serial version.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The state of the mining.
+         */
+        private final transient Search search;
+
+        /**
+         * The explored class.
+         */
+        private final transient EquivalenceClass eqClass;
+
+        /**
+         * Constructs the task of a class.
+         *
+         * @param search  the state of the mining
+         * @param eqClass the explored class
+         */
+        ClassTask(final Search search, final EquivalenceClass eqClass) {
+            super();
+            this.search = search;
+            this.eqClass = eqClass;
+        }
+
+        /**
+         * Explores the class.
+         */
+        @Override
+        protected void compute() {
+            this.search.extend(this.eqClass, null, null);
+        }
+    }
+}
@@ -0,0 +1,449 @@
+package org.thegalactic.context.io;
+
+/*
+ * ContextSerializerBinary.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.SortedSet;
+import java.util.TreeMap;
+
+import org.thegalactic.context.Context;
+import org.thegalactic.context.MappedContext;
+import org.thegalactic.io.ChannelReader;
+import org.thegalactic.io.ChannelWriter;
+import org.thegalactic.util.BitMatrix;
+
+/**
+ * This class defines the way for reading and writing a context as a binary
+ * file.
+ *
+ * The file is made of, in big-endian order:
+ *
+ * - a header: the magic number `GLCX`, the version, the numbers of
+ * observations and attributes (four ints), and the offsets of the intents and
+ * extents matrices (two longs);
+ * - the observations then the attributes, each one being either the tag `I`
+ * followed by an int, or the tag `S` followed by the length and the UTF-8
+ * bytes of a string. Elements that are not integers are written as strings;
+ * - the intents matrix, a row of packed 64-bit words by observation;
+ * - the extents matrix, a row of packed 64-bit words by attribute.
+ *
+ * Matrices are aligned on 8 bytes, so that they can be memory-mapped and used
+ * without copy by a {@link MappedContext} (see {@link #map}).
+ *
+ * ![ContextSerializerBinary](ContextSerializerBinary.png)
+ *
+ * @uml ContextSerializerBinary.png
+ * !include resources/org/thegalactic/context/io/ContextSerializerBinary.iuml
+ * !include resources/org/thegalactic/io/ChannelReader.iuml
+ * !include resources/org/thegalactic/io/ChannelWriter.iuml
+ *
+ * hide members
+ * show ContextSerializerBinary members
+ * class ContextSerializerBinary #LightCyan
+ * title ContextSerializerBinary UML graph
+ */
+public final class ContextSerializerBinary implements ChannelReader<Context>, ChannelWriter<Context> {
+
+    /**
+     * String extension.
+     */
+    private static final String EXTENSION = "bin";
+
+    /**
+     * Magic number.
+     */
+    private static final int MAGIC = 0x474c4358;
+
+    /**
+     * Format version.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Size of the header.
+     */
+    private static final int HEADER = 32;
+
+    /**
+     * Tag of integer elements.
+     */
+    private static final byte INTEGER = 'I';
+
+    /**
+     * Tag of string elements.
+     */
+    private static final byte STRING = 'S';
+
+    /**
+     * Size of a word.
+     */
+    private static final int WORD = 8;
+
+    /**
+     * Size of the write buffer.
+     */
+    private static final int BUFFER = 1 << 16;
+
+    /**
+     * Charset of strings.
+     */
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * The singleton instance.
+     */
+    private static final ContextSerializerBinary INSTANCE = new ContextSerializerBinary();
+
+    /**
+     * Return the singleton instance of this class.
+     *
+     * @return the singleton instance
+     */
+    public static ContextSerializerBinary getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Register this class for reading and writing .bin files.
+     */
+    public static void register() {
+        ContextIOFactory.getInstance().registerReader(ContextSerializerBinary.getInstance(), EXTENSION);
+        ContextIOFactory.getInstance().registerWriter(ContextSerializerBinary.getInstance(), EXTENSION);
+    }
+
+    /**
+     * This class is not designed to be publicly instantiated.
+     */
+    private ContextSerializerBinary() {
+    }
+
+    /**
+     * Read a context from a buffered reader.
+     *
+     * A binary file cannot be decoded as characters: this method always fails.
+     *
+     * @param context a context to read
+     * @param file    a file
+     *
+     * @throws IOException always
+     */
+    public void read(final Context context, final BufferedReader file) throws IOException {
+        throw new IOException("Binary context must be read from a file channel");
+    }
+
+    /**
+     * Write a context to a buffered writer.
+     *
+     * A binary file cannot be encoded as characters: this method always fails.
+     *
+     * @param context a context to write
+     * @param file    a file
+     *
+     * @throws IOException always
+     */
+    public void write(final Context context, final BufferedWriter file) throws IOException {
+        throw new IOException("Binary context must be written to a file channel");
+    }
+
+    /**
+     * Read a context from a file channel.
+     *
+     * The file is mapped, then copied into the context.
+     *
+     * @param context a context to read
+     * @param channel a file channel
+     *
+     * @throws IOException When an IOException occurs
+     */
+    public void read(final Context context, final FileChannel channel) throws IOException {
+        this.map(channel).toContext(context);
+    }
+
+    /**
+     * Maps a binary file as a read-only context.
+     *
+     * Only attributes and observations are decoded, matrices are left in the
+     * file and read on demand.
+     *
+     * @param channel a file channel
+     *
+     * @return the mapped context
+     *
+     * @throws IOException When an IOException occurs
+     */
+    public MappedContext map(final FileChannel channel) throws IOException {
+        if (channel.size() < HEADER) {
+            throw new IOException("Truncated binary context");
+        }
+        final ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Binary context magic number not found");
+        }
+        if (header.getInt() != VERSION) {
+            throw new IOException("Unsupported binary context version");
+        }
+        final int nbObs = header.getInt();
+        final int nbAtt = header.getInt();
+        final long intents = header.getLong();
+        final long extents = header.getLong();
+        if (nbObs < 0 || nbAtt < 0 || intents < HEADER || intents > Integer.MAX_VALUE || extents < intents) {
+            throw new IOException("Misformed binary context");
+        }
+        final ByteBuffer symbols = channel.map(FileChannel.MapMode.READ_ONLY, HEADER, intents - HEADER);
+        try {
+            final Comparable[] observations = this.readSymbols(symbols, nbObs);
+            final Comparable[] attributes = this.readSymbols(symbols, nbAtt);
+            return new MappedContext(attributes, observations, this.mapMatrix(channel, intents, nbObs, nbAtt),
+                    this.mapMatrix(channel, extents, nbAtt, nbObs));
+        } catch (BufferUnderflowException ex) {
+            throw new IOException("Truncated binary context");
+        }
+    }
+
+    /**
+     * Decodes elements.
+     *
+     * @param buffer a buffer
+     * @param size   number of elements
+     *
+     * @return the elements
+     *
+     * @throws IOException When an unknown tag or a misformed length is found
+     */
+    private Comparable[] readSymbols(final ByteBuffer buffer, final int size) throws IOException {
+        final Comparable[] result = new Comparable[size];
+        for (int i = 0; i < size; i++) {
+            final byte tag = buffer.get();
+            if (tag == INTEGER) {
+                result[i] = buffer.getInt();
+            } else if (tag == STRING) {
+                final int length = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    throw new IOException("Misformed binary context");
+                }
+                final byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                result[i] = new String(bytes, UTF8);
+            } else {
+                throw new IOException("Unknown binary context tag");
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Maps a matrix.
+     *
+     * @param channel a file channel
+     * @param offset  offset of the matrix
+     * @param rows    number of rows
+     * @param columns number of columns
+     *
+     * @return the matrix
+     *
+     * @throws IOException When the file is too short
+     */
+    private BitMatrix mapMatrix(final FileChannel channel, final long offset, final int rows, final int columns) throws IOException {
+        final long rowSize = (long) BitMatrix.words(columns) * WORD;
+        if (offset + rows * rowSize > channel.size()) {
+            throw new IOException("Truncated binary context");
+        }
+        final int size = BitMatrix.rowsPerSegment(columns);
+        final LongBuffer[] segments = new LongBuffer[BitMatrix.segments(rows, columns)];
+        for (int s = 0; s < segments.length; s++) {
+            final long count = Math.min(size, rows - (long) s * size);
+            segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, offset + (long) s * size * rowSize, count * rowSize).asLongBuffer();
+        }
+        return new BitMatrix(segments, rows, columns);
+    }
+
+    /**
+     * Write a context to a file channel.
+     *
+     * @param context a context to write
+     * @param channel a file channel
+     *
+     * @throws IOException When an IOException occurs
+     */
+    public void write(final Context context, final FileChannel channel) throws IOException {
+        final SortedSet<Comparable> observations = context.getObservations();
+        final SortedSet<Comparable> attributes = context.getAttributes();
+        final ArrayList<byte[]> strings = new ArrayList<byte[]>();
+        long symbols = HEADER + this.symbolsSize(observations, strings) + this.symbolsSize(attributes, strings);
+        final long intents = (symbols + WORD - 1) / WORD * WORD;
+        final long extents = intents + (long) observations.size() * BitMatrix.words(attributes.size()) * WORD;
+
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(observations.size());
+        buffer.putInt(attributes.size());
+        buffer.putLong(intents);
+        buffer.putLong(extents);
+        int k = this.writeSymbols(observations, strings, 0, buffer, channel);
+        this.writeSymbols(attributes, strings, k, buffer, channel);
+        while (symbols < intents) {
+            this.ensure(1, buffer, channel);
+            buffer.put((byte) 0);
+            symbols++;
+        }
+
+        final TreeMap<Comparable, Integer> indexAttributes = this.index(attributes);
+        for (final Comparable obs : observations) {
+            this.writeRow(context.getIntent(obs), indexAttributes, attributes.size(), buffer, channel);
+        }
+        final TreeMap<Comparable, Integer> indexObservations = this.index(observations);
+        for (final Comparable att : attributes) {
+            this.writeRow(context.getExtent(att), indexObservations, observations.size(), buffer, channel);
+        }
+        this.flush(buffer, channel);
+    }
+
+    /**
+     * Returns the size of the specified elements, and stores the encoding of
+     * the strings.
+     *
+     * @param set     a set of elements
+     * @param strings list of string encodings
+     *
+     * @return the size in bytes
+     */
+    private long symbolsSize(final SortedSet<Comparable> set, final ArrayList<byte[]> strings) {
+        long size = 0;
+        for (final Comparable element : set) {
+            if (element instanceof Integer) {
+                size += 1 + Integer.SIZE / Byte.SIZE;
+            } else {
+                final byte[] bytes = element.toString().getBytes(UTF8);
+                strings.add(bytes);
+                size += 1 + Integer.SIZE / Byte.SIZE + bytes.length;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Writes the specified elements.
+     *
+     * @param set     a set of elements
+     * @param strings list of string encodings
+     * @param first   index of the first string encoding of the set
+     * @param buffer  a write buffer
+     * @param channel a file channel
+     *
+     * @return the index of the first string encoding of the next set
+     *
+     * @throws IOException When an IOException occurs
+     */
+    private int writeSymbols(final SortedSet<Comparable> set, final ArrayList<byte[]> strings, final int first, final ByteBuffer buffer,
+            final FileChannel channel) throws IOException {
+        int k = first;
+        for (final Comparable element : set) {
+            if (element instanceof Integer) {
+                this.ensure(1 + Integer.SIZE / Byte.SIZE, buffer, channel);
+                buffer.put(INTEGER);
+                buffer.putInt((Integer) element);
+            } else {
+                final byte[] bytes = strings.get(k);
+                k++;
+                this.ensure(1 + Integer.SIZE / Byte.SIZE, buffer, channel);
+                buffer.put(STRING);
+                buffer.putInt(bytes.length);
+                int offset = 0;
+                while (offset < bytes.length) {
+                    this.ensure(1, buffer, channel);
+                    final int length = Math.min(buffer.remaining(), bytes.length - offset);
+                    buffer.put(bytes, offset, length);
+                    offset += length;
+                }
+            }
+        }
+        return k;
+    }
+
+    /**
+     * Returns the index of each element of the specified set.
+     *
+     * @param set a set of elements
+     *
+     * @return the map of indexes
+     */
+    private TreeMap<Comparable, Integer> index(final SortedSet<Comparable> set) {
+        final TreeMap<Comparable, Integer> index = new TreeMap<Comparable, Integer>();
+        for (final Comparable element : set) {
+            index.put(element, index.size());
+        }
+        return index;
+    }
+
+    /**
+     * Writes a row of packed words.
+     *
+     * @param set     elements of the row
+     * @param index   the index of each element
+     * @param columns number of columns
+     * @param buffer  a write buffer
+     * @param channel a file channel
+     *
+     * @throws IOException When an IOException occurs
+     */
+    private void writeRow(final SortedSet<Comparable> set, final TreeMap<Comparable, Integer> index, final int columns,
+            final ByteBuffer buffer, final FileChannel channel) throws IOException {
+        final long[] words = new long[BitMatrix.words(columns)];
+        for (final Comparable element : set) {
+            final int j = index.get(element);
+            words[j / Long.SIZE] |= 1L << j;
+        }
+        for (final long word : words) {
+            this.ensure(WORD, buffer, channel);
+            buffer.putLong(word);
+        }
+    }
+
+    /**
+     * Flushes the buffer if it has not the specified remaining size.
+     *
+     * @param size    the needed size
+     * @param buffer  a write buffer
+     * @param channel a file channel
+     *
+     * @throws IOException When an IOException occurs
+     */
+    private void ensure(final int size, final ByteBuffer buffer, final FileChannel channel) throws IOException {
+        if (buffer.remaining() < size) {
+            this.flush(buffer, channel);
+        }
+    }
+
+    /**
+     * Writes the content of the buffer and clears it.
+     *
+     * @param buffer  a write buffer
+     * @param channel a file channel
+     *
+     * @throws IOException When an IOException occurs
+     */
+    private void flush(final ByteBuffer buffer, final FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -17,6 +17,7 @@ import java.io.IOException;
 import java.util.TreeSet;
 
 import org.thegalactic.context.Context;
+import org.thegalactic.context.ContextBuilder;
 import org.thegalactic.io.Reader;
 import org.thegalactic.io.Writer;
 
@@ -123,6 +124,8 @@ public final class ContextSerializerBurmeister implements Reader<Context>, Write
         // Second line (Unused in the code).
         file.readLine();
 
+        final ContextBuilder builder = new ContextBuilder();
+
         try {
             // number of observations. Third line.
             final int nbObs = Integer.parseInt(file.readLine());
@@ -132,18 +135,16 @@ public final class ContextSerializerBurmeister implements Reader<Context>, Write
 
             // Now reading observations
             // Observations names must be recorded for the reading context phase
-            String[] obsNames = new String[nbObs];
+            int[] obsIndexes = new int[nbObs];
             for (int i = 0; i < nbObs; i++) {
-                obsNames[i] = this.readNextLine(file);
-                context.addToObservations(obsNames[i]);
+                obsIndexes[i] = builder.addObservation(this.readNextLine(file));
             }
 
             // Now reading attributes
             // Attributes names must be recorded for the reading context phase
-            String[] attNames = new String[nbAtt];
+            int[] attIndexes = new int[nbAtt];
             for (int i = 0; i < nbAtt; i++) {
-                attNames[i] = this.readNextLine(file);
-                context.addToAttributes(attNames[i]);
+                attIndexes[i] = builder.addAttribute(this.readNextLine(file));
             }
 
             // Now reading context
@@ -151,16 +152,16 @@ public final class ContextSerializerBurmeister implements Reader<Context>, Write
                 str = this.readNextLine(file);
                 for (int j = 0; j < nbAtt; j++) {
                     if (str.charAt(j) == 'X') {
-                        context.addExtentIntent(obsNames[i], attNames[j]);
+                        builder.addCross(obsIndexes[i], attIndexes[j]);
                     }
                 }
             }
-            context.setBitSets();
         } catch (NumberFormatException ex) {
             throw new IOException(ex.getMessage());
         } catch (IndexOutOfBoundsException ex) {
             throw new IOException(ex.getMessage());
         }
+        builder.build(context);
     }
 
     /**
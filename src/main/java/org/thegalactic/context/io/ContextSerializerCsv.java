@@ -23,6 +23,7 @@ import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.csv.CSVRecord;
 
 import org.thegalactic.context.Context;
+import org.thegalactic.context.ContextBuilder;
 import org.thegalactic.io.Reader;
 import org.thegalactic.io.Writer;
 
@@ -117,6 +118,8 @@ public final class ContextSerializerCsv implements Reader<Context>, Writer<Conte
             throw new IOException("CSV cannot be empty");
         }
 
+        ContextBuilder builder = new ContextBuilder();
+
         // Get the attributes and the attribute size
         CSVRecord attributes = records.get(0);
         int size = attributes.size();
@@ -137,7 +140,7 @@ public final class ContextSerializerCsv implements Reader<Context>, Writer<Conte
             String attribute = attributes.get(i);
 
             // Detect duplicated attribute
-            if (!context.addToAttributes(attribute)) {
+            if (builder.containsAttribute(attribute)) {
                 throw new IOException("Duplicated attribute");
             }
 
@@ -145,6 +148,7 @@ public final class ContextSerializerCsv implements Reader<Context>, Writer<Conte
             if ("".equals(attribute)) {
                 throw new IOException("Empty attribute");
             }
+            builder.addAttribute(attribute);
         }
 
         // Get the data
@@ -166,21 +170,22 @@ public final class ContextSerializerCsv implements Reader<Context>, Writer<Conte
             }
 
             // Detect duplicated identifier
-            if (!context.addToObservations(identifier)) {
+            if (builder.containsObservation(identifier)) {
                 throw new IOException("Duplicated identifier");
             }
+            int observation = builder.addObservation(identifier);
 
             // Add the extent/intent for the current identifier and current attribute
             for (int i = first; i < size; i++) {
                 if (record.get(i).equals("1")) {
-                    context.addExtentIntent(identifier, attributes.get(i));
+                    builder.addCross(observation, i - first);
                 }
             }
         }
+        builder.build(context);
 
         // Close the parser
         parser.close();
-        context.setBitSets();
     }
 
     /**
@@ -14,10 +14,15 @@ package org.thegalactic.context.io;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
 import java.util.HashMap;
 
 import org.thegalactic.context.Context;
-import org.thegalactic.io.Reader;
+import org.thegalactic.context.ContextBuilder;
+import org.thegalactic.io.ChannelReader;
 import org.thegalactic.io.Writer;
 
 /**
@@ -28,6 +33,7 @@ import org.thegalactic.io.Writer;
  * @uml ContextSerializerFIMI.png
  * !include resources/org/thegalactic/context/io/ContextSerializerFIMI.iuml
  * !include resources/org/thegalactic/io/Reader.iuml
+ * !include resources/org/thegalactic/io/ChannelReader.iuml
  * !include resources/org/thegalactic/io/Writer.iuml
  *
  * hide members
@@ -35,13 +41,18 @@ import org.thegalactic.io.Writer;
  * class ContextSerializerFIMI #LightCyan
  * title ContextSerializerFIMI UML graph
  */
-public final class ContextSerializerFIMI implements Reader<Context>, Writer<Context> {
+public final class ContextSerializerFIMI implements ChannelReader<Context>, Writer<Context> {
 
     /**
      * String extension.
      */
     private static final String EXTENSION = "dat";
 
+    /**
+     * Size of the read buffers.
+     */
+    private static final int BUFFER = 1 << 16;
+
     /**
      * The singleton instance.
      */
@@ -98,33 +109,57 @@ public final class ContextSerializerFIMI implements Reader<Context>, Writer<Cont
      * @throws IOException When an IOException occurs
      */
     public void read(final Context context, final BufferedReader file) throws IOException {
-        // Initialize the line number
-        int lineNumber = 0;
-
-        // Loop on the file
-        while (file.ready()) {
-            // Increment the line number
-            lineNumber++;
-
-            // Get the next identifier
-            final String identifier = "O" + lineNumber;
-            context.addToObservations(identifier);
-
-            // Get the current line
-            final String str = file.readLine();
-
-            // Tokenize the line
-            for (final String token : str.split(" +")) {
-                final Integer attribute = Integer.parseInt(token);
-                if (!context.containsAttribute(attribute)) {
-                    context.addToAttributes(attribute);
-                }
+        final Tokenizer tokenizer = new Tokenizer();
+        final char[] buffer = new char[BUFFER];
+        int length = file.read(buffer);
+        while (length >= 0) {
+            for (int i = 0; i < length; i++) {
+                tokenizer.accept(buffer[i]);
+            }
+            length = file.read(buffer);
+        }
+        tokenizer.finish().build(context);
+    }
+
+    /**
+     * Read a context from a file channel.
+     *
+     * @param context a context to read
+     * @param channel a file channel
+     *
+     * @throws IOException When an IOException occurs
+     *
+     * @see #read(Context, ReadableByteChannel)
+     */
+    public void read(final Context context, final FileChannel channel) throws IOException {
+        this.read(context, (ReadableByteChannel) channel);
+    }
 
-                // Add the extent/intent for the current identifier and current attribute
-                context.addExtentIntent(identifier, attribute);
+    /**
+     * Read a context from a byte channel.
+     *
+     * Bytes are tokenized directly, without decoding lines or strings, and
+     * attributes are interned in a table indexed by their value, or in a hash
+     * map for large values. The context is loaded at once when the channel is
+     * exhausted. Attributes must be non negative integers.
+     *
+     * @param context a context to read
+     * @param channel a byte channel
+     *
+     * @throws IOException When an IOException occurs
+     */
+    public void read(final Context context, final ReadableByteChannel channel) throws IOException {
+        final Tokenizer tokenizer = new Tokenizer();
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER);
+        final byte[] bytes = buffer.array();
+        while (channel.read(buffer) >= 0) {
+            final int length = buffer.position();
+            for (int i = 0; i < length; i++) {
+                tokenizer.accept(bytes[i]);
             }
+            buffer.clear();
         }
-        context.setBitSets();
+        tokenizer.finish().build(context);
     }
 
     /**
@@ -164,4 +199,174 @@ public final class ContextSerializerFIMI implements Reader<Context>, Writer<Cont
             file.newLine();
         }
     }
+
+    /**
+     * This class tokenizes a FIMI file character by character.
+     *
+     * Each line gives an observation labelled with 'O' + LineNumber, even an
+     * empty one, except the empty line after the last newline.
+     */
+    private static final class Tokenizer {
+
+        /**
+         * Initial size of the tables.
+         */
+        private static final int SIZE = 16;
+
+        /**
+         * Maximal size of the table, larger attributes being interned in the
+         * map.
+         */
+        private static final int MAX_SIZE = 1 << 16;
+
+        /**
+         * Radix of attributes.
+         */
+        private static final int RADIX = 10;
+
+        /**
+         * The builder.
+         */
+        private final ContextBuilder builder = new ContextBuilder();
+
+        /**
+         * Builder index of each attribute below {@link #MAX_SIZE}, -1 if
+         * unknown.
+         */
+        private int[] table = new int[SIZE];
+
+        /**
+         * Builder index of each attribute from {@link #MAX_SIZE}.
+         */
+        private final HashMap<Integer, Integer> map = new HashMap<Integer, Integer>();
+
+        /**
+         * Builder indexes of the attributes of the current line.
+         */
+        private int[] row = new int[SIZE];
+
+        /**
+         * Number of attributes of the current line.
+         */
+        private int size;
+
+        /**
+         * Value of the current token.
+         */
+        private int value;
+
+        /**
+         * Is a token being read?
+         */
+        private boolean token;
+
+        /**
+         * Is a line being read?
+         */
+        private boolean line;
+
+        /**
+         * Number of read lines.
+         */
+        private int lineNumber;
+
+        /**
+         * Constructs a new tokenizer.
+         */
+        Tokenizer() {
+            Arrays.fill(this.table, -1);
+        }
+
+        /**
+         * Accepts the next character.
+         *
+         * @param c a character
+         *
+         * @throws IOException When the character is invalid
+         */
+        void accept(final int c) throws IOException {
+            if (c >= '0' && c <= '9') {
+                if (this.value > (Integer.MAX_VALUE - c + '0') / RADIX) {
+                    throw new IOException("Invalid FIMI attribute on line " + (this.lineNumber + 1));
+                }
+                this.value = this.value * RADIX + c - '0';
+                this.token = true;
+                this.line = true;
+            } else if (c == ' ' || c == '\t' || c == '\r') {
+                this.endToken();
+                this.line = true;
+            } else if (c == '\n') {
+                this.endToken();
+                this.endLine();
+            } else {
+                throw new IOException("Invalid FIMI character on line " + (this.lineNumber + 1));
+            }
+        }
+
+        /**
+         * Ends the input.
+         *
+         * @return the builder
+         */
+        ContextBuilder finish() {
+            this.endToken();
+            if (this.line) {
+                this.endLine();
+            }
+            return this.builder;
+        }
+
+        /**
+         * Ends the current token.
+         */
+        private void endToken() {
+            if (this.token) {
+                if (this.size == this.row.length) {
+                    this.row = Arrays.copyOf(this.row, 2 * this.size);
+                }
+                this.row[this.size] = this.intern();
+                this.size++;
+            }
+            this.value = 0;
+            this.token = false;
+        }
+
+        /**
+         * Returns the builder index of the current token.
+         *
+         * @return the index
+         */
+        private int intern() {
+            if (this.value >= MAX_SIZE) {
+                Integer index = this.map.get(this.value);
+                if (index == null) {
+                    index = this.builder.addAttribute(this.value);
+                    this.map.put(this.value, index);
+                }
+                return index;
+            }
+            if (this.value >= this.table.length) {
+                final int length = this.table.length;
+                this.table = Arrays.copyOf(this.table, Math.min(Math.max(this.value + 1, 2 * length), MAX_SIZE));
+                Arrays.fill(this.table, length, this.table.length, -1);
+            }
+            if (this.table[this.value] < 0) {
+                this.table[this.value] = this.builder.addAttribute(this.value);
+            }
+            return this.table[this.value];
+        }
+
+        /**
+         * Ends the current line.
+         */
+        private void endLine() {
+            this.lineNumber++;
+            final int observation = this.builder.addObservation("O" + this.lineNumber);
+            for (int i = 0; i < this.size; i++) {
+                this.builder.addCross(observation, this.row[i]);
+            }
+            this.size = 0;
+            this.line = false;
+        }
+    }
 }
@@ -18,10 +18,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.SortedSet;
 import java.util.StringTokenizer;
-import java.util.TreeMap;
-import java.util.TreeSet;
 
 import org.thegalactic.context.Context;
+import org.thegalactic.context.ContextBuilder;
 import org.thegalactic.io.Reader;
 import org.thegalactic.io.Writer;
 
@@ -133,35 +132,30 @@ public final class ContextSerializerSLF implements Reader<Context>, Writer<Conte
             throw new IOException(MISFORMED);
         }
 
-        final List<Comparable> observations = new ArrayList(countObservations);
-        final List<Comparable> attributes = new ArrayList(countAttributes);
-        final TreeMap<Comparable, TreeSet<Comparable>> intent = new TreeMap();
-        final TreeMap<Comparable, TreeSet<Comparable>> extent = new TreeMap();
+        final ContextBuilder builder = new ContextBuilder();
+        final List<Integer> observations = new ArrayList(countObservations);
+        final List<Integer> attributes = new ArrayList(countAttributes);
 
         String line = file.readLine();
         while (!ATTRIBUTES.equals(line)) {
-            observations.add(line);
-            intent.put(line, new TreeSet());
+            observations.add(builder.addObservation(line));
             line = file.readLine();
         }
         line = file.readLine();
         while (!RELATION.equals(line)) {
-            attributes.add(line);
-            extent.put(line, new TreeSet());
+            attributes.add(builder.addAttribute(line));
             line = file.readLine();
         }
 
-        context.addAllToAttributes(new TreeSet(attributes));
-        context.addAllToObservations(new TreeSet(observations));
-
         for (int i = 0; i < countObservations; i++) {
             line = file.readLine();
+            final int observation = observations.get(i);
             final StringTokenizer tokenizer = new StringTokenizer(line);
             int count = 0;
             while (tokenizer.hasMoreTokens()) {
                 final String next = tokenizer.nextToken();
                 if ("1".equals(next)) {
-                    context.addExtentIntent(observations.get(i), attributes.get(count));
+                    builder.addCross(observation, (int) attributes.get(count));
                 }
                 count++;
             }
@@ -169,7 +163,7 @@ public final class ContextSerializerSLF implements Reader<Context>, Writer<Conte
                 throw new IOException(MISFORMED);
             }
         }
-        context.setBitSets();
+        builder.build(context);
     }
 
     /**
@@ -20,6 +20,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.thegalactic.context.Context;
+import org.thegalactic.context.ContextBuilder;
 import org.thegalactic.io.Reader;
 import org.thegalactic.io.Writer;
 
@@ -98,10 +99,11 @@ public final class ContextSerializerText implements Reader<Context>, Writer<Cont
      * @throws IOException When an IOException occurs
      */
     public void read(final Context context, final BufferedReader file) throws IOException {
-        this.readObservations(context, file);
-        this.readAttributes(context, file);
-        this.readExtentIntent(context, file);
-        context.setBitSets();
+        final ContextBuilder builder = new ContextBuilder();
+        this.readObservations(builder, file);
+        this.readAttributes(builder, file);
+        this.readExtentIntent(builder, file);
+        builder.build(context);
     }
 
     /**
@@ -113,18 +115,19 @@ public final class ContextSerializerText implements Reader<Context>, Writer<Cont
      * Observations: 1 2 3
      * ~~~
      *
-     * @param context a context to read
+     * @param builder a context builder
      * @param file    a file
      *
      * @throws IOException When an IOException occurs
      */
-    private void readObservations(final Context context, final BufferedReader file) throws IOException {
+    private void readObservations(final ContextBuilder builder, final BufferedReader file) throws IOException {
         final List<String> list = this.analyzeString(file.readLine());
         if ("Observations".equals(list.get(0))) {
             for (int i = 1; i < list.size(); i++) {
-                if (!context.addToObservations(list.get(i))) {
+                if (builder.containsObservation(list.get(i))) {
                     throw new IOException("Duplicated observation");
                 }
+                builder.addObservation(list.get(i));
             }
         } else {
             throw new IOException("Invalid declaration of observations");
@@ -140,18 +143,19 @@ public final class ContextSerializerText implements Reader<Context>, Writer<Cont
      * Attributes: a b c d e
      * ~~~
      *
-     * @param context a context to read
+     * @param builder a context builder
      * @param file    a file
      *
      * @throws IOException When an IOException occurs
      */
-    private void readAttributes(final Context context, final BufferedReader file) throws IOException {
+    private void readAttributes(final ContextBuilder builder, final BufferedReader file) throws IOException {
         final List<String> list = this.analyzeString(file.readLine());
         if ("Attributes".equals(list.get(0))) {
             for (int i = 1; i < list.size(); i++) {
-                if (!context.addToAttributes(list.get(i))) {
+                if (builder.containsAttribute(list.get(i))) {
                     throw new IOException("Duplicated attribute");
                 }
+                builder.addAttribute(list.get(i));
             }
         } else {
             throw new IOException("Invalid declaration of attributes");
@@ -170,26 +174,25 @@ public final class ContextSerializerText implements Reader<Context>, Writer<Cont
      * 4: c e
      * ~~~
      *
-     * @param context a context to read
+     * @param builder a context builder
      * @param file    a file
      *
      * @throws IOException When an IOException occurs
      */
-    private void readExtentIntent(final Context context, final BufferedReader file) throws IOException {
+    private void readExtentIntent(final ContextBuilder builder, final BufferedReader file) throws IOException {
         String line;
         List<String> list;
         line = file.readLine();
         while (line != null && !line.isEmpty()) {
             list = this.analyzeString(line);
-            if (!context.containsObservation(list.get(0))) {
+            if (!builder.containsObservation(list.get(0))) {
                 throw new IOException("Unexisting observation");
             }
             for (int i = 1; i < list.size(); i++) {
-                if (!context.containsAttribute(list.get(i))) {
+                // Add the extent/intent for the current observation and current attribute
+                if (!builder.addCross(list.get(0), list.get(i))) {
                     throw new IOException("Unexisting attribute");
                 }
-                // Add the extent/intent for the current observation and current attribute
-                context.addExtentIntent(list.get(0), list.get(i));
             }
             line = file.readLine();
         }
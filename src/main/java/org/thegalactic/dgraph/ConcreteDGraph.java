@@ -370,25 +370,27 @@ public class ConcreteDGraph<N, E> extends AbstractDGraph<N, E> implements Clonea
             // Remove the edges (node,target) with key node in successors, and key target in predecessors
             for (final Edge<N, E> successor : this.successors.get(node)) {
                 if (successor.getTarget().compareTo(node) != 0) {
-                    for (final Edge<N, E> predecessor : this.predecessors.get(successor.getTarget())) {
-                        if (predecessor.getSource().compareTo(node) == 0) {
-                            this.predecessors.get(successor.getTarget()).remove(predecessor);
+                    final Iterator<Edge<N, E>> predecessors = this.predecessors.get(successor.getTarget()).iterator();
+                    while (predecessors.hasNext()) {
+                        if (predecessors.next().getSource().compareTo(node) == 0) {
+                            predecessors.remove();
                         }
                     }
                 }
-                this.successors.remove(node);
             }
+            this.successors.remove(node);
             // Remove the edges (source,node) with key node in predecessors, and key source in successors
             for (final Edge<N, E> predecessor : this.predecessors.get(node)) {
                 if (predecessor.getSource().compareTo(node) != 0) {
-                    for (final Edge<N, E> successor : this.successors.get(predecessor.getSource())) {
-                        if (successor.getTarget().compareTo(node) == 0) {
-                            this.successors.get(predecessor.getSource()).remove(successor);
+                    final Iterator<Edge<N, E>> successors = this.successors.get(predecessor.getSource()).iterator();
+                    while (successors.hasNext()) {
+                        if (successors.next().getTarget().compareTo(node) == 0) {
+                            successors.remove();
                         }
                     }
                 }
-                this.predecessors.remove(node);
             }
+            this.predecessors.remove(node);
             // Remove node
             this.nodes.remove(node);
             return true;
@@ -0,0 +1,47 @@
+package org.thegalactic.io;
+
+/*
+ * ChannelReader.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * This interface defines a way for reading an element from the bytes of a
+ * file.
+ *
+ * {@link Filer} gives a file channel instead of a buffered reader to the
+ * readers implementing this interface.
+ *
+ * @param <E> The class of elements to read.
+ *
+ * ![ChannelReader](ChannelReader.png)
+ *
+ * @uml ChannelReader.png
+ * !include resources/org/thegalactic/io/Reader.iuml
+ * !include resources/org/thegalactic/io/ChannelReader.iuml
+ *
+ * hide members
+ * show ChannelReader members
+ * class ChannelReader #LightCyan
+ * title ChannelReader UML graph
+ */
+public interface ChannelReader<E> extends Reader<E> {
+
+    /**
+     * Read an element from a file channel.
+     *
+     * @param e       an element to read
+     * @param channel a file channel opened for reading
+     *
+     * @throws IOException When an IOException occurs
+     */
+    void read(E e, FileChannel channel) throws IOException;
+}
@@ -0,0 +1,46 @@
+package org.thegalactic.io;
+
+/*
+ * ChannelWriter.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * This interface defines a way for writing an element as the bytes of a file.
+ *
+ * {@link Filer} gives a file channel instead of a buffered writer to the
+ * writers implementing this interface.
+ *
+ * @param <E> The class of elements to write
+ *
+ * ![ChannelWriter](ChannelWriter.png)
+ *
+ * @uml ChannelWriter.png
+ * !include resources/org/thegalactic/io/Writer.iuml
+ * !include resources/org/thegalactic/io/ChannelWriter.iuml
+ *
+ * hide members
+ * show ChannelWriter members
+ * class ChannelWriter #LightCyan
+ * title ChannelWriter UML graph
+ */
+public interface ChannelWriter<E> extends Writer<E> {
+
+    /**
+     * Write an element to a file channel.
+     *
+     * @param e       an element to write
+     * @param channel an empty file channel opened for writing
+     *
+     * @throws IOException When an IOException occurs
+     */
+    void write(E e, FileChannel channel) throws IOException;
+}
@@ -16,6 +16,7 @@ import java.io.BufferedWriter;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 
 /**
  * This class is used to provide a generic way for saving and parsing objects
@@ -71,9 +72,20 @@ public final class Filer<E> {
      * @throws IOException When an IOException occurs
      */
     public void save(final E e, final IOFactory factory, final String filename) throws IOException {
-        final BufferedWriter file = new BufferedWriter(new FileWriter(filename));
-        factory.getWriter(Filer.getExtension(filename)).write(e, file);
-        file.close();
+        final Writer<E> writer = factory.getWriter(Filer.getExtension(filename));
+        if (writer instanceof ChannelWriter) {
+            final RandomAccessFile file = new RandomAccessFile(filename, "rw");
+            try {
+                file.setLength(0);
+                ((ChannelWriter<E>) writer).write(e, file.getChannel());
+            } finally {
+                file.close();
+            }
+        } else {
+            final BufferedWriter file = new BufferedWriter(new FileWriter(filename));
+            writer.write(e, file);
+            file.close();
+        }
     }
 
     /**
@@ -87,8 +99,18 @@ public final class Filer<E> {
      * @throws IOException When an IOException occurs
      */
     public void parse(final E e, final IOFactory factory, final String filename) throws IOException {
-        final BufferedReader file = new BufferedReader(new FileReader(filename));
-        factory.getReader(Filer.getExtension(filename)).read(e, file);
-        file.close();
+        final Reader<E> reader = factory.getReader(Filer.getExtension(filename));
+        if (reader instanceof ChannelReader) {
+            final RandomAccessFile file = new RandomAccessFile(filename, "r");
+            try {
+                ((ChannelReader<E>) reader).read(e, file.getChannel());
+            } finally {
+                file.close();
+            }
+        } else {
+            final BufferedReader file = new BufferedReader(new FileReader(filename));
+            reader.read(e, file);
+            file.close();
+        }
     }
 }
@@ -21,6 +21,7 @@ import java.util.TreeSet;
 
 import org.thegalactic.context.Context;
 import org.thegalactic.dgraph.ConcreteDGraph;
+import org.thegalactic.util.Budget;
 import org.thegalactic.util.ComparableSet;
 
 /**
@@ -185,18 +186,96 @@ public class BijectiveComponents {
      * ImplicationalSystem(this.canonicalDirectBasis)).makeCanonicalBasis();
      * ~~~
      *
+     * Each generation is reported as a phase to the listener of the closure
+     * system, if any (see {@link ClosureSystem#setListener}).
+     *
      * @return time of computation
      */
     public long compute() {
         this.initialise(closureSystem);
         long debut = new Date().getTime();
+        long start = this.closureSystem.startPhase("lattice");
         this.getLattice();
+        this.closureSystem.endPhase("lattice", start);
+        start = this.closureSystem.startPhase("reducedLattice");
         this.getReducedLattice();
+        this.closureSystem.endPhase("reducedLattice", start);
+        start = this.closureSystem.startPhase("table");
         this.getTable();
+        this.closureSystem.endPhase("table", start);
+        start = this.closureSystem.startPhase("dependencyGraph");
         this.getDependencyGraph();
+        this.closureSystem.endPhase("dependencyGraph", start);
+        start = this.closureSystem.startPhase("minimalGenerators");
         this.getMinimalGenerators();
+        this.closureSystem.endPhase("minimalGenerators", start);
+        start = this.closureSystem.startPhase("canonicalDirectBasis");
         this.getCanonicalDirectBasis();
+        this.closureSystem.endPhase("canonicalDirectBasis", start);
+        start = this.closureSystem.startPhase("canonicalBasis");
         this.getCanonicalBasis();
+        this.closureSystem.endPhase("canonicalBasis", start);
+        long fin = new Date().getTime();
+        return fin - debut;
+    }
+
+    /**
+     * Generates the bijective components included in this component, as
+     * {@link #compute()} does, the budget being charged for each closed set of
+     * the lattice, checked while the dependency graph is computed, and
+     * checked between the generations.
+     *
+     * When the budget runs out, the generation stops: the components generated
+     * so far are kept, whereas the component whose generation ran out is not,
+     * so that the other ones are never deduced from a partial component. The
+     * partial lattice is given by
+     * {@link ClosureSystem#closedSetLattice(boolean, Budget)}, and the partial
+     * basis by {@link Lattice#getCanonicalDirectBasis(Budget)}.
+     *
+     * @param budget the budget of the computation
+     *
+     * @return time of computation
+     */
+    public long compute(Budget budget) {
+        this.initialise(closureSystem);
+        long debut = new Date().getTime();
+        long start = this.closureSystem.startPhase("lattice");
+        ConceptLattice generated = this.closureSystem.lattice(budget);
+        this.closureSystem.endPhase("lattice", start);
+        if (!budget.isExhausted()) {
+            this.lattice = generated;
+            start = this.closureSystem.startPhase("reducedLattice");
+            this.getReducedLattice();
+            this.closureSystem.endPhase("reducedLattice", start);
+        }
+        if (!budget.isExhausted()) {
+            start = this.closureSystem.startPhase("table");
+            this.getTable();
+            this.closureSystem.endPhase("table", start);
+        }
+        if (!budget.isExhausted()) {
+            start = this.closureSystem.startPhase("dependencyGraph");
+            ConcreteDGraph graph = this.getReducedLattice().getDependencyGraph(budget);
+            this.closureSystem.endPhase("dependencyGraph", start);
+            if (!budget.isExhausted()) {
+                this.dependencyGraph = graph;
+            }
+        }
+        if (!budget.isExhausted()) {
+            start = this.closureSystem.startPhase("minimalGenerators");
+            this.getMinimalGenerators();
+            this.closureSystem.endPhase("minimalGenerators", start);
+        }
+        if (!budget.isExhausted()) {
+            start = this.closureSystem.startPhase("canonicalDirectBasis");
+            this.getCanonicalDirectBasis();
+            this.closureSystem.endPhase("canonicalDirectBasis", start);
+        }
+        if (!budget.isExhausted()) {
+            start = this.closureSystem.startPhase("canonicalBasis");
+            this.getCanonicalBasis();
+            this.closureSystem.endPhase("canonicalBasis", start);
+        }
         long fin = new Date().getTime();
         return fin - debut;
     }
@@ -12,6 +12,8 @@ package org.thegalactic.lattice;
  * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
  */
 import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
@@ -20,6 +22,7 @@ import java.util.Vector;
 import org.thegalactic.dgraph.DAGraph;
 import org.thegalactic.dgraph.ConcreteDGraph;
 import org.thegalactic.dgraph.Node;
+import org.thegalactic.util.Budget;
 import org.thegalactic.util.ComparableSet;
 
 /**
@@ -58,6 +61,17 @@ import org.thegalactic.util.ComparableSet;
  */
 public abstract class ClosureSystem {
 
+    /*
+     * ------------- FIELDS ------------------
+     */
+    /**
+     * The listener of the treatments of this component, or null.
+     *
+     * It is volatile since the parallel generations, and the snapshots shared
+     * between threads, read it from other threads than the one attaching it.
+     */
+    private volatile ProgressListener listener;
+
     /*
      * ------------- ABSTRACT METHODS ------------------
      */
@@ -89,6 +103,96 @@ public abstract class ClosureSystem {
     /*
      * ------------- IMPLEMENTED METHODS ------------------
      */
+    /**
+     * Returns the listener of the treatments of this component.
+     *
+     * @return the listener, or null if no listener is attached
+     */
+    public ProgressListener getListener() {
+        return this.listener;
+    }
+
+    /**
+     * Attaches a listener to the treatments of this component.
+     *
+     * The listener is informed of the phases of the closed set lattice
+     * generations, of the closures, concepts and edges they compute, and of
+     * the treatments of the subclasses.
+     *
+     * A listener may be attached at any time, including to a component shared
+     * between threads: it is then informed by all these threads, and has to
+     * be thread-safe.
+     *
+     * @param listener the listener, or null to detach the current one
+     */
+    public void setListener(ProgressListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Reports the start of a phase to the listener.
+     *
+     * @param phase the name of the phase
+     *
+     * @return the start time of the phase, or 0 if no listener is attached
+     */
+    protected final long startPhase(String phase) {
+        ProgressListener current = this.listener;
+        if (current == null) {
+            return 0;
+        }
+        current.phaseStarted(phase);
+        return System.nanoTime();
+    }
+
+    /**
+     * Reports the end of a phase to the listener.
+     *
+     * A phase started without listener, whose start time is 0, is not
+     * reported to a listener attached since.
+     *
+     * @param phase the name of the phase
+     * @param start the start time returned by {@link #startPhase}
+     */
+    protected final void endPhase(String phase, long start) {
+        ProgressListener current = this.listener;
+        if (current != null && start != 0) {
+            current.phaseEnded(phase, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Reports a computed closure to the listener.
+     */
+    protected final void closureComputed() {
+        ProgressListener current = this.listener;
+        if (current != null) {
+            current.closureComputed();
+        }
+    }
+
+    /**
+     * Reports an emitted concept to the listener.
+     *
+     * @param concept the concept
+     */
+    protected final void conceptEmitted(Concept concept) {
+        ProgressListener current = this.listener;
+        if (current != null) {
+            current.conceptEmitted(concept);
+        }
+    }
+
+    /**
+     * Reports an added edge to the listener.
+     */
+    protected final void edgeAdded() {
+        ProgressListener current = this.listener;
+        if (current != null) {
+            current.edgeAdded();
+        }
+    }
+
     /**
      * Returns the closed set lattice of this component.
      *
@@ -118,6 +222,74 @@ public abstract class ClosureSystem {
         }
     }
 
+    /**
+     * Returns the closed set lattice of this component, as
+     * {@link #closedSetLattice(boolean)} does, the budget being charged for
+     * each closed set.
+     *
+     * When the budget runs out, the lattice of the closed sets found so far is
+     * returned, as {@link Budget#isExhausted} tells.
+     *
+     * @param diagram a boolean indicating if the Hasse diagramm of the lattice
+     *                is computed or not.
+     * @param budget  the budget of the computation
+     *
+     * @return The concept lattice, partial when the budget is exhausted
+     */
+    public ConceptLattice closedSetLattice(boolean diagram, Budget budget) {
+        if (diagram) {
+            return ConceptLattice.diagramLattice(this, budget);
+        } else {
+            return ConceptLattice.completeLattice(this, budget);
+        }
+    }
+
+    /**
+     * Returns the closed set lattice of this component.
+     *
+     * A true value of the boolean `diagram` indicates that the Hasse diagramm
+     * of the lattice is computed by {@link #closedSetLattice(boolean)}. A false
+     * value of the boolean `diagram` indicates that the closed sets are
+     * generated by the Next Closure algorithm. The lattice is then
+     * transitively closed when the boolean `covers` is false, and reduced to
+     * its Hasse diagram by {@link ConceptLattice#coverLattice} when it is
+     * true.
+     *
+     * @param diagram a boolean indicating if the Hasse diagramm of the lattice
+     *                is computed by Bordat's algorithm or not.
+     * @param covers  a boolean indicating if only the cover relation of the
+     *                closed sets generated by Next Closure is computed or not.
+     *
+     * @return The concept lattice
+     */
+    public ConceptLattice closedSetLattice(boolean diagram, boolean covers) {
+        return this.closedSetLattice(diagram, covers, new Budget());
+    }
+
+    /**
+     * Returns the closed set lattice of this component, as
+     * {@link #closedSetLattice(boolean, boolean)} does, the budget being
+     * charged for each closed set.
+     *
+     * When the budget runs out, the lattice of the closed sets found so far is
+     * returned, as {@link Budget#isExhausted} tells (see
+     * {@link ConceptLattice#coverLattice(ClosureSystem, Budget)}).
+     *
+     * @param diagram a boolean indicating if the Hasse diagramm of the lattice
+     *                is computed by Bordat's algorithm or not.
+     * @param covers  a boolean indicating if only the cover relation of the
+     *                closed sets generated by Next Closure is computed or not.
+     * @param budget  the budget of the computation
+     *
+     * @return The concept lattice, partial when the budget is exhausted
+     */
+    public ConceptLattice closedSetLattice(boolean diagram, boolean covers, Budget budget) {
+        if (!diagram && covers) {
+            return ConceptLattice.coverLattice(this, budget);
+        }
+        return this.closedSetLattice(diagram, budget);
+    }
+
     /**
      * Returns the lattice of this component.
      *
@@ -127,6 +299,18 @@ public abstract class ClosureSystem {
         return this.closedSetLattice(true);
     }
 
+    /**
+     * Returns the lattice of this component, the budget being charged for
+     * each closed set.
+     *
+     * @param budget the budget of the computation
+     *
+     * @return The concept lattice, partial when the budget is exhausted
+     */
+    public ConceptLattice lattice(Budget budget) {
+        return this.closedSetLattice(true, budget);
+    }
+
     /**
      * Returns all the closed sets of the specified closure system (that can be
      * an IS or a context).
@@ -135,31 +319,65 @@ public abstract class ClosureSystem {
      * as first closed set, using the Ganter's Next Closure algorithm.
      *
      * Therefore, closed sets have to be comparable using `ComparableSet` class.
-     * This treatment is performed in O(cCl|S|^3) where S is the initial set of
+     * This treatment is performed in O(cCl|S|^2) where S is the initial set of
      * elements, c is the number of closed sets that could be exponential in the
      * worst case, and Cl is the closure computation complexity.
      *
      * @return all the closeds set in the lectically order.
      */
     public Vector<Concept> allClosures() {
+        long start = this.startPhase("allClosures");
         Vector<Concept> allclosure = new Vector<Concept>();
-        // first closure: closure of the empty set
-        allclosure.add(new Concept(this.closure(new ComparableSet()), false));
-        Concept cl = allclosure.firstElement();
-        // next closures in lectically order
-        boolean continu = true;
-        do {
-            cl = this.nextClosure(cl);
-            if (allclosure.contains(cl)) {
-                continu = false;
-            } else {
-                allclosure.add(cl);
-            }
-        } while (continu);
-
+        Iterator<Concept> closures = this.closures();
+        while (closures.hasNext()) {
+            allclosure.add(closures.next());
+        }
+        this.endPhase("allClosures", start);
         return allclosure;
     }
 
+    /**
+     * Returns an iterator over the closed sets of this component.
+     *
+     * Closed sets are generated lazily in lecticaly order, as by
+     * {@link #allClosures}, each one being computed from the previous one when
+     * it is requested, so that they are never all held in memory:
+     *
+     * ~~~
+     * Iterator<Concept> closures = context.closures();
+     * while (closures.hasNext()) {
+     *     writer.write(closures.next().getSetA().toString());
+     * }
+     * ~~~
+     *
+     * The iteration stops when the last closed set has no lectic successor.
+     * The iterator does not support removal.
+     *
+     * @return an iterator over the closed sets in the lectically order
+     */
+    public Iterator<Concept> closures() {
+        return new ClosuresIterator(new Budget());
+    }
+
+    /**
+     * Returns an iterator over the closed sets of this component, as
+     * {@link #closures()} does, the budget being charged for each closed set.
+     *
+     * When the budget is exhausted or cancelled, the next closed set is not
+     * computed: the closed sets returned so far are the partial result of the
+     * computation.
+     *
+     * @param budget the budget of the computation
+     *
+     * @return an iterator over the closed sets in the lectically order, whose
+     *         method next throws a
+     *         {@link java.util.concurrent.CancellationException} once the
+     *         budget is exhausted or cancelled
+     */
+    public Iterator<Concept> closures(Budget budget) {
+        return new ClosuresIterator(budget);
+    }
+
     /**
      * Returns the lecticaly next closed set of the specified one.
      *
@@ -169,31 +387,43 @@ public abstract class ClosureSystem {
      *
      * @param cl a concept
      *
-     * @return the lecticaly next closed set
+     * @return the lecticaly next closed set, or the empty set if the specified
+     *         closed set is the last one
      */
     public Concept nextClosure(Concept cl) {
-        TreeSet<Comparable> set = new TreeSet(this.getSet());
-        boolean success = false;
-        TreeSet setA = new TreeSet(cl.getSetA());
-        Comparable ni = set.last();
-        do {
-            ni = (Comparable) set.last();
-            set.remove(ni);
-            if (!setA.contains(ni)) {
-                setA.add(ni);
-                TreeSet setB = this.closure(setA);
-                setB.removeAll(setA);
-                if (setB.isEmpty() || ((Comparable) setB.first()).compareTo(ni) >= 1) {
-                    setA = this.closure(setA);
-                    success = true;
-                } else {
-                    setA.remove(ni);
-                }
-            } else {
-                setA.remove(ni);
+        TreeSet<Comparable> next = this.lecticSuccessor(cl.getSetA());
+        if (next == null) {
+            return new Concept(new TreeSet<Comparable>(), false);
+        }
+        return new Concept(next, false);
+    }
+
+    /**
+     * Returns the lecticaly next closed set of the specified one.
+     *
+     * @param closed a closed set
+     *
+     * @return the next closed set, or null if the specified closed set is the
+     *         last one
+     */
+    private TreeSet<Comparable> lecticSuccessor(SortedSet<Comparable> closed) {
+        TreeSet<Comparable> set = new TreeSet<Comparable>(this.getSet());
+        TreeSet<Comparable> setA = new TreeSet<Comparable>(closed);
+        while (!set.isEmpty()) {
+            Comparable ni = set.pollLast();
+            if (setA.remove(ni)) {
+                continue;
+            }
+            setA.add(ni);
+            TreeSet<Comparable> closure = this.closure(setA);
+            TreeSet<Comparable> setB = new TreeSet<Comparable>(closure);
+            setB.removeAll(setA);
+            if (setB.isEmpty() || setB.first().compareTo(ni) >= 1) {
+                return closure;
             }
-        } while (!success && ni.compareTo(this.getSet().first()) >= 1);
-        return new Concept(setA, false);
+            setA.remove(ni);
+        }
+        return null;
     }
 
     /**
@@ -313,4 +543,72 @@ public abstract class ClosureSystem {
         // Finally, return the list of reducible elements with their equivalent attributes.
         return red;
     }
+
+    /**
+     * This class implements a lazy iterator over the closed sets.
+     */
+    private class ClosuresIterator implements Iterator<Concept> {
+
+        /**
+         * The next closed set, null when the iteration is over.
+         */
+        private TreeSet<Comparable> next;
+
+        /**
+         * The budget of the iteration.
+         */
+        private final Budget budget;
+
+        /**
+         * Constructs the iterator, starting from the closure of the empty set.
+         *
+         * @param budget the budget of the iteration
+         */
+        ClosuresIterator(Budget budget) {
+            this.budget = budget;
+            this.next = ClosureSystem.this.closure(new ComparableSet());
+        }
+
+        /**
+         * Checks if there is a next closed set.
+         *
+         * @return true if there is a next closed set
+         */
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        /**
+         * Returns the next closed set, and computes its successor.
+         *
+         * @return the next closed set
+         *
+         * @throws NoSuchElementException if there is no next closed set
+         * @throws java.util.concurrent.CancellationException if the budget
+         *                                                    is exhausted or
+         *                                                    cancelled
+         */
+        @Override
+        public Concept next() {
+            if (this.next == null) {
+                throw new NoSuchElementException();
+            }
+            this.budget.charge();
+            Concept concept = new Concept(this.next, false);
+            ClosureSystem.this.conceptEmitted(concept);
+            this.next = ClosureSystem.this.lecticSuccessor(this.next);
+            return concept;
+        }
+
+        /**
+         * The remove operation is not supported.
+         *
+         * @throws UnsupportedOperationException
+         */
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
@@ -612,37 +612,9 @@ public class Concept extends Node {
         // For a non reduced closure system, the precedence graph is not acyclic,
         // and therefore strongly connected components have to be used.
         ComparableSet f = new ComparableSet(this.getSetA());
-        long start = System.currentTimeMillis();
-        System.out.print("Precedence graph... ");
-        ConcreteDGraph prec = init.precedenceGraph();
-        System.out.println(System.currentTimeMillis() - start + "ms");
-        start = System.currentTimeMillis();
-        System.out.print("Srongly connected component... ");
-        DAGraph<SortedSet<Node<Comparable>>, ?>  acyclPrec = prec.getStronglyConnectedComponent();
-        System.out.println(System.currentTimeMillis() - start + "ms");
-        ComparableSet newVal = new ComparableSet();
-        newVal.addAll(f);
-        for (Object x : f) {
-            // computes nx, the strongly connected component containing x
-            Node<SortedSet<Node<Comparable>>> nx = null;
-            for (Node cc : acyclPrec.getNodes()) {
-                TreeSet<Node> cC = (TreeSet<Node>) cc.getContent();
-                for (Node y : cC) {
-                    if (x.equals(y.getContent())) {
-                        nx = cc;
-                    }
-                }
-            }
-            // computes the minorants of nx in the acyclic graph
-            SortedSet<Node<SortedSet<Node<Comparable>>>> ccMinNx = acyclPrec.minorants(nx);
-            // removes from newVal every minorants of nx
-            for (Node cc : ccMinNx) {
-                TreeSet<Node> cC = (TreeSet<Node>) cc.getContent();
-                for (Node y : cC) {
-                    newVal.remove(y.getContent());
-                }
-            }
-        }
+        long start = init.startPhase("precedence");
+        ComparableSet newVal = new PrecedenceIndex(init).newValuation(f);
+        init.endPhase("precedence", start);
         // computes the node belonging in S\F
         Set<Node<Comparable>> n = new TreeSet<Node<Comparable>>();
         for (Node in : dependenceGraph.getNodes()) {
@@ -650,8 +622,7 @@ public class Concept extends Node {
                 n.add(in);
             }
         }
-        System.out.print("Dependance... ");
-        start = System.currentTimeMillis();
+        start = init.startPhase("dependance");
         // computes the dependance relation between nodes in S\F
         // and valuated this relation by the subset of S\F
         TreeSet<Edge> e = new TreeSet<Edge>();
@@ -687,9 +658,8 @@ public class Concept extends Node {
                 }
             }
         }
-        System.out.println(System.currentTimeMillis() - start + "ms");
-        System.out.print("Subgraph... ");
-        start = System.currentTimeMillis();
+        init.endPhase("dependance", start);
+        start = init.startPhase("subgraph");
         // computes the dependance subgraph of the closed set F as the reduction
         // of the dependance graph composed of nodes in S\A and edges of the dependance relation
         ConcreteDGraph sub = dependenceGraph.getSubgraphByNodes(n);
@@ -698,7 +668,7 @@ public class Concept extends Node {
         // that corresponds to successors of the closed set F
         DAGraph cfc = delta.getStronglyConnectedComponent();
         SortedSet<Node> sccmin = cfc.getSinks();
-        System.out.println(System.currentTimeMillis() - start + "ms");
+        init.endPhase("subgraph", start);
         ArrayList<TreeSet<Comparable>> immSucc = new ArrayList<TreeSet<Comparable>>();
         for (Node n1 : sccmin) {
             TreeSet s = new TreeSet(f);
@@ -15,13 +15,22 @@ import org.thegalactic.context.Context;
 import org.thegalactic.descriptionset.DescriptionSetClosureSystem;
 import org.thegalactic.descriptionset.DescriptionSetConcept;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.Vector;
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 
+import org.thegalactic.util.Budget;
 import org.thegalactic.util.ComparableSet;
 import org.thegalactic.dgraph.DAGraph;
 import org.thegalactic.dgraph.ConcreteDGraph;
@@ -139,26 +148,211 @@ public class ConceptLattice extends Lattice {
      * @return a concept lattice
      */
     public static ConceptLattice completeLattice(ClosureSystem init) {
+        return completeLattice(init, new Budget());
+    }
+
+    /**
+     * Generates and returns the complete closed set lattice of the specified
+     * closure system, as {@link #completeLattice(ClosureSystem)} does, the
+     * budget being charged for each closed set, and checked for each closed
+     * set whose successors are computed.
+     *
+     * When the budget runs out while the closed sets are generated, the
+     * lattice of the closed sets found so far is returned, all of them being
+     * ordered. When it runs out while they are ordered, the successors of the
+     * remaining closed sets are missing. In both cases,
+     * {@link Budget#isExhausted} tells that the lattice is partial.
+     *
+     * @param init   a closure system (an ImplicationalSystem or a Context)
+     * @param budget the budget of the computation
+     *
+     * @return a concept lattice, partial when the budget is exhausted
+     */
+    public static ConceptLattice completeLattice(ClosureSystem init, Budget budget) {
+        long start = init.startPhase("completeLattice");
         ConceptLattice lattice = new ConceptLattice();
-        // compute all the closed set with allClosures
+        List<Concept> concepts = closures(init, budget);
+        for (Concept cl : concepts) {
+            lattice.addNode(cl);
+        }
+        Budget bound = edgeBudget(budget);
+        for (Concept source : concepts) {
+            if (bound.isExhausted()) {
+                break;
+            }
+            for (Concept target : concepts) {
+                if (target.containsAllInA(source.getSetA())) {
+                    lattice.addEdge(source, target);
+                    init.edgeAdded();
+                }
+            }
+        }
+        init.endPhase("completeLattice", start);
+        return lattice;
+    }
+
+    /**
+     * Returns the closed sets of the specified closure system generated by
+     * {@link ClosureSystem#closures(Budget)} within the specified budget, in
+     * the phase of {@link ClosureSystem#allClosures}.
+     *
+     * @param init   a closure system
+     * @param budget the budget of the computation
+     *
+     * @return the closed sets found before the budget is exhausted
+     */
+    private static List<Concept> closures(ClosureSystem init, Budget budget) {
+        long start = init.startPhase("allClosures");
+        List<Concept> concepts = new ArrayList<Concept>();
+        Iterator<Concept> closures = init.closures(budget);
+        try {
+            while (closures.hasNext()) {
+                concepts.add(closures.next());
+            }
+        } catch (CancellationException e) {
+            if (!budget.isExhausted()) {
+                throw e;
+            }
+        }
+        init.endPhase("allClosures", start);
+        return concepts;
+    }
+
+    /**
+     * Returns the budget of the computation of the edges between the closed
+     * sets found within the specified budget.
+     *
+     * The edges of the closed sets found before the budget is exhausted are
+     * computed in full, since these closed sets are at most as many as the
+     * budget allows. Otherwise, the budget keeps bounding the computation.
+     *
+     * @param budget the budget of the closed sets
+     *
+     * @return the budget of the edges
+     */
+    private static Budget edgeBudget(Budget budget) {
+        if (budget.isExhausted()) {
+            return new Budget();
+        }
+        return budget;
+    }
 
-        Vector<Concept> allclosure = init.allClosures();
-        for (Concept cl : allclosure) {
+    /**
+     * Generates and returns the Hasse diagram of the closed set lattice of the
+     * specified closure system, that can be an implicational system
+     * (ImplicationalSystem) or a context.
+     *
+     * All closures are first generated using the method
+     * {@link ClosureSystem#closures} that implements the well-known Next
+     * Closure algorithm, as for {@link #completeLattice}. Then, only their
+     * cover relation is computed by {@link CoverRelation#lowerCovers} on
+     * bitsets of elements, instead of the inclusion relation. The dependance
+     * graph of the lattice isn't computed.
+     *
+     * @param init a closure system (an ImplicationalSystem or a Context)
+     *
+     * @return a concept lattice
+     */
+    public static ConceptLattice coverLattice(ClosureSystem init) {
+        return coverLattice(init, new Budget());
+    }
+
+    /**
+     * Generates and returns the Hasse diagram of the closed set lattice of the
+     * specified closure system, as {@link #coverLattice(ClosureSystem)} does,
+     * the budget being charged for each closed set, and checked for each
+     * closed set whose lower covers are computed.
+     *
+     * When the budget runs out while the closed sets are generated, the
+     * Hasse diagram of the closed sets found so far is returned: they come
+     * first in the lectic order, and are thus closed under intersection. When
+     * it runs out while the covers are computed, the lower covers of the
+     * remaining closed sets are missing. In both cases,
+     * {@link Budget#isExhausted} tells that the lattice is partial.
+     *
+     * @param init   a closure system (an ImplicationalSystem or a Context)
+     * @param budget the budget of the computation
+     *
+     * @return a concept lattice, partial when the budget is exhausted
+     */
+    public static ConceptLattice coverLattice(ClosureSystem init, Budget budget) {
+        long start = init.startPhase("coverLattice");
+        ConceptLattice lattice = new ConceptLattice();
+        TreeMap<Comparable, Integer> indexes = new TreeMap<Comparable, Integer>();
+        for (Comparable element : init.getSet()) {
+            indexes.put(element, indexes.size());
+        }
+        List<Concept> concepts = closures(init, budget);
+        List<BitSet> sets = new ArrayList<BitSet>();
+        for (Concept cl : concepts) {
             lattice.addNode(cl);
+            BitSet set = new BitSet(indexes.size());
+            for (Comparable element : cl.getSetA()) {
+                set.set(indexes.get(element));
+            }
+            sets.add(set);
         }
+        addCovers(lattice, concepts, sets, init, edgeBudget(budget));
+        init.endPhase("coverLattice", start);
+        return lattice;
+    }
 
-        // an edge corresponds to an inclusion between two closed sets
-        for (Object source : lattice.getNodes()) {
-            for (Object target : lattice.getNodes()) {
-                if (((Concept) target).containsAllInA(((Concept) source).getSetA())) {
-                    lattice.addEdge((Node) source, (Node) target);
+    /**
+     * Computes the Hasse diagram of the Lattice of descriptionSets.
+     * Based on nextClosure(), concepts being ordered by their extents as for
+     * {@link #completeDescriptionLatticeLattice}, whose cover relation is
+     * computed by {@link CoverRelation#lowerCovers}.
+     *
+     * @param init a closure system representing description sets
+     * @return the Hasse diagram of the lattice
+     */
+    public static ConceptLattice coverDescriptionLattice(DescriptionSetClosureSystem init) {
+        ConceptLattice lattice = new ConceptLattice();
+        TreeMap<String, Integer> indexes = new TreeMap<String, Integer>();
+        List<DescriptionSetConcept> concepts = new ArrayList<DescriptionSetConcept>();
+        List<BitSet> sets = new ArrayList<BitSet>();
+        Vector<DescriptionSetConcept> allclosure = init.allDescriptionClosures();
+        for (DescriptionSetConcept cl : allclosure) {
+            lattice.addNode(cl);
+            concepts.add(cl);
+            BitSet set = new BitSet();
+            for (Object observation : cl.getExtent()) {
+                Integer index = indexes.get((String) observation);
+                if (index == null) {
+                    index = indexes.size();
+                    indexes.put((String) observation, index);
                 }
+                set.set(index);
             }
+            sets.add(set);
         }
-        // Hasse diagram is computed
+        addCovers(lattice, concepts, sets, null, new Budget());
         return lattice;
     }
 
+    /**
+     * Adds to the specified lattice an edge from each node to the nodes
+     * covering it, each edge being reported to the listener of the specified
+     * closure system.
+     *
+     * @param lattice a lattice
+     * @param nodes   the nodes of the lattice
+     * @param sets    the sets of the nodes, ordered as them by inclusion
+     * @param init    the closure system of the lattice, or null
+     * @param budget  the budget of the computation of the covers
+     */
+    private static void addCovers(ConceptLattice lattice, List<? extends Node> nodes, List<BitSet> sets, ClosureSystem init, Budget budget) {
+        int[][] covers = CoverRelation.lowerCovers(sets, budget);
+        for (int k = 0; k < covers.length; k++) {
+            for (int cover : covers[k]) {
+                lattice.addEdge(nodes.get(cover), nodes.get(k));
+                if (init != null) {
+                    init.edgeAdded();
+                }
+            }
+        }
+    }
+
     /**
      * Computes the Complete Lattice of descriptionSets.
      * Based on nextClosure()
@@ -211,6 +405,26 @@ public class ConceptLattice extends Lattice {
      * @return a concept lattice
      */
     public static ConceptLattice diagramLattice(ClosureSystem init) {
+        return diagramLattice(init, new Budget());
+    }
+
+    /**
+     * Generates and returns the Hasse diagram of the closed set lattice of the
+     * specified closure system, as {@link #diagramLattice(ClosureSystem)}
+     * does, the budget being charged for each closed set.
+     *
+     * When the budget runs out, the Hasse diagram of the closed sets found so
+     * far is returned: its edges are covers of the lattice, but the
+     * successors of the last closed sets may be missing, as
+     * {@link Budget#isExhausted} tells.
+     *
+     * @param init   a closure system (an ImplicationalSystem or a Context)
+     * @param budget the budget of the computation
+     *
+     * @return a concept lattice, partial when the budget is exhausted
+     */
+    public static ConceptLattice diagramLattice(ClosureSystem init, Budget budget) {
+        long start = init.startPhase("diagramLattice");
         ConceptLattice lattice = new ConceptLattice();
         //if (Diagram) {
         // computes the dependance graph of the closure system
@@ -222,9 +436,17 @@ public class ConceptLattice extends Lattice {
 //        lattice.setDependencyGraph(graph);
         // intialize the close set lattice with botom element
         Concept bot = new Concept(init.closure(new ComparableSet()), false);
-        lattice.addNode(bot);
-        // recursive genaration from the botom element with diagramLattice
-        lattice.recursiveDiagramLattice(bot, init);
+        try {
+            budget.charge();
+            lattice.addNode(bot);
+            init.conceptEmitted(bot);
+            // recursive genaration from the botom element
+            lattice.generateDiagram(bot, init, 0, new PrecedenceIndex(init), budget);
+        } catch (CancellationException e) {
+            if (!budget.isExhausted()) {
+                throw e;
+            }
+        }
         // minimalisation of edge's content to get only inclusion-minimal valuation for each edge
         /**
          * for (Edge ed : lattice.dependanceGraph.getEdges()) {
@@ -234,6 +456,7 @@ public class ConceptLattice extends Lattice {
          * (X1.containsAll(X2) && !X2.containsAll(X1))
          * ((TreeSet<ComparableSet>)ed.getContent()).remove(X1); }*
          */
+        init.endPhase("diagramLattice", start);
         return lattice;
     }
 
@@ -262,6 +485,25 @@ public class ConceptLattice extends Lattice {
      * @return a concept iceberg
      */
     public static ConceptLattice diagramIceberg(Context init, double support) {
+        return diagramIceberg(init, support, new Budget());
+    }
+
+    /**
+     * Generates and returns the Hasse diagram of the closed set iceberg of the
+     * specified context, as {@link #diagramIceberg(Context, double)} does, the
+     * budget being charged for each closed set.
+     *
+     * When the budget runs out, the Hasse diagram of the closed sets found so
+     * far is returned, as for {@link #diagramLattice(ClosureSystem, Budget)}.
+     *
+     * @param init    a context
+     * @param support a support value, between 0 and 1.
+     * @param budget  the budget of the computation
+     *
+     * @return a concept iceberg, partial when the budget is exhausted
+     */
+    public static ConceptLattice diagramIceberg(Context init, double support, Budget budget) {
+        long start = init.startPhase("diagramIceberg");
         ConceptLattice lattice = new ConceptLattice();
         // computes the dependance graph of the closure system
         // addition of nodes in the precedence graph
@@ -272,10 +514,107 @@ public class ConceptLattice extends Lattice {
 //        lattice.setDependencyGraph(graph);
         // intialize the close set lattice with bottom element
         Concept bot = new Concept(init.closure(new ComparableSet()), false);
-        lattice.addNode(bot);
         int threshold = (int) (support * init.getExtent(bot.getSetA()).size());
-        // recursive genaration from the botom element with diagramLattice
-        lattice.recursiveDiagramIceberg(bot, init, threshold);
+        try {
+            budget.charge();
+            lattice.addNode(bot);
+            init.conceptEmitted(bot);
+            // recursive genaration from the botom element with diagramLattice
+            lattice.generateDiagram(bot, init, threshold, new PrecedenceIndex(init), budget);
+        } catch (CancellationException e) {
+            if (!budget.isExhausted()) {
+                throw e;
+            }
+        }
+        init.endPhase("diagramIceberg", start);
+        return lattice;
+    }
+
+    /**
+     * Generates and returns the Hasse diagram of the closed set lattice of the
+     * specified closure system, as {@link #diagramLattice(ClosureSystem)} does,
+     * the immediate successors of the closed sets being computed in parallel
+     * by the specified number of threads.
+     *
+     * The closure system must not be modified during the generation, and its
+     * closure must support concurrent calls, as the ones of contexts and
+     * implicational systems do.
+     *
+     * @param init        a closure system (an ImplicationalSystem or a Context)
+     * @param parallelism number of threads
+     *
+     * @return a concept lattice
+     */
+    public static ConceptLattice diagramLattice(ClosureSystem init, int parallelism) {
+        return diagramLattice(init, parallelism, new Budget());
+    }
+
+    /**
+     * Generates and returns the Hasse diagram of the closed set lattice of the
+     * specified closure system in parallel, as
+     * {@link #diagramLattice(ClosureSystem, int)} does, the budget being
+     * charged for each closed set.
+     *
+     * When the budget runs out, no more closed set is searched and the Hasse
+     * diagram of the closed sets found so far is returned, as for
+     * {@link #diagramLattice(ClosureSystem, Budget)}.
+     *
+     * @param init        a closure system (an ImplicationalSystem or a Context)
+     * @param parallelism number of threads
+     * @param budget      the budget of the computation
+     *
+     * @return a concept lattice, partial when the budget is exhausted
+     */
+    public static ConceptLattice diagramLattice(ClosureSystem init, int parallelism, Budget budget) {
+        long start = init.startPhase("diagramLattice");
+        ConceptLattice lattice = new ConceptLattice();
+        Concept bot = new Concept(init.closure(new ComparableSet()), false);
+        new ParallelDiagramGenerator(lattice, init, 0, budget).generate(bot, parallelism);
+        init.endPhase("diagramLattice", start);
+        return lattice;
+    }
+
+    /**
+     * Generates and returns the Hasse diagram of the closed set iceberg of the
+     * specified context, as {@link #diagramIceberg(Context, double)} does, the
+     * immediate successors of the closed sets being computed in parallel by the
+     * specified number of threads.
+     *
+     * The context must not be modified during the generation.
+     *
+     * @param init        a context
+     * @param support     a support value, between 0 and 1.
+     * @param parallelism number of threads
+     *
+     * @return a concept iceberg
+     */
+    public static ConceptLattice diagramIceberg(Context init, double support, int parallelism) {
+        return diagramIceberg(init, support, parallelism, new Budget());
+    }
+
+    /**
+     * Generates and returns the Hasse diagram of the closed set iceberg of the
+     * specified context in parallel, as
+     * {@link #diagramIceberg(Context, double, int)} does, the budget being
+     * charged for each closed set.
+     *
+     * When the budget runs out, the Hasse diagram of the closed sets found so
+     * far is returned, as for {@link #diagramLattice(ClosureSystem, Budget)}.
+     *
+     * @param init        a context
+     * @param support     a support value, between 0 and 1.
+     * @param parallelism number of threads
+     * @param budget      the budget of the computation
+     *
+     * @return a concept iceberg, partial when the budget is exhausted
+     */
+    public static ConceptLattice diagramIceberg(Context init, double support, int parallelism, Budget budget) {
+        long start = init.startPhase("diagramIceberg");
+        ConceptLattice lattice = new ConceptLattice();
+        Concept bot = new Concept(init.closure(new ComparableSet()), false);
+        int threshold = (int) (support * init.getExtent(bot.getSetA()).size());
+        new ParallelDiagramGenerator(lattice, init, threshold, budget).generate(bot, parallelism);
+        init.endPhase("diagramIceberg", start);
         return lattice;
     }
 
@@ -837,55 +1176,92 @@ public class ConceptLattice extends Lattice {
      * @param init a closure system
      */
     public void recursiveDiagramLattice(Concept n, ClosureSystem init) {
-        Vector<TreeSet<Comparable>> immSucc = this.immediateSuccessors(n, init);
-        for (TreeSet<Comparable> setX : immSucc) {
-            Concept c = new Concept(new TreeSet(setX), false);
-            Concept ns = (Concept) this.getNode(c);
-            if (ns != null) {
-                // when ns already exists, addition of a new edge
-                this.addEdge(n, ns);
-            } else { // when ns don't already exists, addition of a new node and recursive treatment
-                this.addNode(c);
-                this.addEdge(n, c);
-                this.recursiveDiagramLattice(c, init);
+        this.generateDiagram(n, init, 0, new PrecedenceIndex(init), new Budget());
+    }
+
+    /**
+     * Generates the Hasse diagramme of the closed sets of the specified closure
+     * system issued from the specified concept, whose support is greater than
+     * the specified threshold.
+     *
+     * Concepts are generated depth first, as by a recursive generation, but
+     * with an explicit stack so that deep lattices do not exhaust the thread
+     * stack. Generated concepts are indexed by their closed set.
+     *
+     * @param n          a concept of this component
+     * @param init       a closure system
+     * @param threshold  a support threshold, as a number of observations of
+     *                   a context, or 0
+     * @param precedence the index of the precedence graph of the closure system
+     * @param budget     the budget of the generation, charged for each concept
+     *
+     * @throws CancellationException if the budget is exhausted or cancelled
+     */
+    private void generateDiagram(Concept n, ClosureSystem init, int threshold, PrecedenceIndex precedence, Budget budget) {
+        HashMap<TreeSet<Comparable>, Concept> index = this.conceptIndex();
+        ArrayDeque<Concept> concepts = new ArrayDeque<Concept>();
+        ArrayDeque<Iterator<TreeSet<Comparable>>> successors = new ArrayDeque<Iterator<TreeSet<Comparable>>>();
+        concepts.push(n);
+        successors.push(this.immediateSuccessors(n, init, precedence).iterator());
+        while (!concepts.isEmpty()) {
+            Iterator<TreeSet<Comparable>> immSucc = successors.peek();
+            if (!immSucc.hasNext()) {
+                concepts.pop();
+                successors.pop();
+            } else {
+                TreeSet<Comparable> setX = immSucc.next();
+                if (isFrequent(init, threshold, setX)) {
+                    Concept ns = index.get(setX);
+                    if (ns != null) {
+                        // when ns already exists, addition of a new edge
+                        this.addEdge(concepts.peek(), ns);
+                        init.edgeAdded();
+                    } else {
+                        // when ns don't already exists, addition of a new node and treatment of its successors
+                        budget.charge();
+                        Concept c = new Concept(new TreeSet(setX), false);
+                        this.addNode(c);
+                        index.put(c.getSetA(), c);
+                        this.addEdge(concepts.peek(), c);
+                        init.conceptEmitted(c);
+                        init.edgeAdded();
+                        concepts.push(c);
+                        successors.push(this.immediateSuccessors(c, init, precedence).iterator());
+                    }
+                }
             }
         }
     }
 
     /**
-     * Returns the Hasse diagramme of the closed set iceberg of the specified
-     * closure system issued from the specified concept.
+     * Returns the concepts of this component without set B, indexed by their
+     * set A.
      *
-     * Immediate successors generation is an adaptation of Bordat's theorem
-     * stating that there is a bijection between minimal strongly connected
-     * component of the precedence subgraph issued from the specified node, and
-     * its immediate successors.
-     *
-     * This treatment is performed in O(cCl|S|^3log g) where S is the initial
-     * set of elements, c is the number of closed sets that could be exponential
-     * in the worst case, Cl is the closure computation complexity and g is the
-     * number of minimal generators of the lattice.
-     *
-     * @param n         a concept
-     * @param init      a closure system
-     * @param threshold a support threshold, as a number of observations
-     */
-    private void recursiveDiagramIceberg(Concept n, ClosureSystem init, int threshold) {
-        Context context = (Context) init;
-        Vector<TreeSet<Comparable>> immSucc = this.immediateSuccessors(n, init);
-        for (TreeSet<Comparable> setX : immSucc) {
-            if (context.getExtentNb(setX) >= threshold) {
-                Concept c = new Concept(new TreeSet(setX), false);
-                Concept ns = (Concept) this.getNode(c);
-                if (ns != null) {
-                    this.addEdge(n, ns);
-                } else {
-                    this.addNode(c);
-                    this.addEdge(n, c);
-                    this.recursiveDiagramIceberg(c, init, threshold);
-                }
+     * @return the index of the concepts
+     */
+    HashMap<TreeSet<Comparable>, Concept> conceptIndex() {
+        HashMap<TreeSet<Comparable>, Concept> index = new HashMap<TreeSet<Comparable>, Concept>();
+        for (Object node : this.getNodes()) {
+            if (node instanceof Concept && ((Concept) node).hasSetA() && !((Concept) node).hasSetB()) {
+                index.put(((Concept) node).getSetA(), (Concept) node);
             }
         }
+        return index;
+    }
+
+    /**
+     * Checks if the specified closed set reaches the specified support
+     * threshold.
+     *
+     * @param init      a closure system, that is a context when the threshold
+     *                  is positive
+     * @param threshold a support threshold, as a number of observations, or 0
+     * @param setX      a closed set
+     *
+     * @return true if the support of the closed set reaches the threshold
+     */
+    static boolean isFrequent(ClosureSystem init, int threshold, TreeSet<Comparable> setX) {
+        return threshold <= 0 || ((Context) init).getExtentNb(setX) >= threshold;
     }
 
     /**
@@ -914,90 +1290,58 @@ public class ConceptLattice extends Lattice {
      * @return a set of immediate successors
      */
     public Vector<TreeSet<Comparable>> immediateSuccessors(Node n, ClosureSystem init) {
-        // Initialisation of the dependance graph when not initialised by method recursiveDiagramLattice
-        if (!this.hasDependencyGraph()) {
-            ConcreteDGraph graph = new ConcreteDGraph();
-            for (Comparable c : init.getSet()) {
-                graph.addNode(new Node(c));
-            }
-            this.setDependencyGraph(graph);
-        }
+        return this.immediateSuccessors(n, init, new PrecedenceIndex(init));
+    }
+
+    /**
+     * Returns the list of immediate successors of a given node of the lattice,
+     * using the specified index of the precedence graph of the closure system,
+     * which is computed once for all the nodes of a lattice.
+     *
+     * @param n          a node
+     * @param init       a closure system
+     * @param precedence the index of the precedence graph of the closure system
+     *
+     * @return a set of immediate successors
+     */
+    Vector<TreeSet<Comparable>> immediateSuccessors(Node n, ClosureSystem init, PrecedenceIndex precedence) {
+        ConcreteDGraph dependencyGraph = this.initDependencyGraph(init);
         // computes newVal, the subset to be used to valuate every new dependance relation
         // newVal = F\predecessors of F in the precedence graph of the closure system
         // For a non reduced closure system, the precedence graph is not acyclic,
         // and therefore strongly connected components have to be used.
         ComparableSet setF = new ComparableSet(((Concept) n).getSetA());
-        ConcreteDGraph prec = init.precedenceGraph();
-        DAGraph acyclPrec = prec.getStronglyConnectedComponent();
-        ComparableSet newVal = new ComparableSet();
-        newVal.addAll(setF);
-        for (Object x : setF) {
-            // computes nx, the strongly connected component containing x
-            Node nx = null;
-            for (Object cc : acyclPrec.getNodes()) {
-                TreeSet<Node> setCC = (TreeSet<Node>) ((Node) cc).getContent();
-                for (Node y : setCC) {
-                    if (x.equals(y.getContent())) {
-                        nx = (Node) cc;
-                    }
-                }
-            }
-            // computes the minorants of nx in the acyclic graph
-            SortedSet<Node> ccMinNx = acyclPrec.minorants(nx);
-            // removes from newVal every minorants of nx
-            for (Node cc : ccMinNx) {
-                TreeSet<Node> setCC = (TreeSet<Node>) cc.getContent();
-                for (Node y : setCC) {
-                    newVal.remove(y.getContent());
-                }
-            }
-        }
+        ComparableSet newVal = precedence.newValuation(setF);
         // computes the node belonging in S\F
         TreeSet<Node> nodes = new TreeSet<Node>();
-        for (Object in : this.getDependencyGraph().getNodes()) {
+        for (Object in : dependencyGraph.getNodes()) {
             if (!setF.contains(((Node) in).getContent())) {
                 nodes.add((Node) in);
             }
         }
         // computes the dependance relation between nodes in S\F
-        // and valuated this relation by the subset of S\F
-        TreeSet<Edge> edges = new TreeSet<Edge>();
-        for (Node source : nodes) {
-            for (Node target : nodes) {
-                if (!source.equals(target)) {
-                    // check if source is in dependance relation with target
-                    // i.e. "source" belongs to the closure of "F+target"
-                    ComparableSet fPlusTo = new ComparableSet(setF);
-                    fPlusTo.add(target.getContent());
-                    fPlusTo = new ComparableSet(init.closure(fPlusTo));
-                    if (fPlusTo.contains(source.getContent())) {
-                        // there is a dependance relation between source and target
-                        // search for an existing edge between source and target
-                        Edge ed = this.getDependencyGraph().getEdge(source, target);
-                        if (ed == null) {
-                            ed = new Edge(source, target, new TreeSet<ComparableSet>());
-                            this.getDependencyGraph().addEdge(ed);
-                        }
-                        edges.add(ed);
-                        // check if F is a minimal set closed for dependance relation between source and target
-                        ((TreeSet<ComparableSet>) ed.getContent()).add(newVal);
-                        TreeSet<ComparableSet> valEd = new TreeSet<ComparableSet>((TreeSet<ComparableSet>) ed.getContent());
-                        for (ComparableSet x1 : valEd) {
-                            if (x1.containsAll(newVal) && !newVal.containsAll(x1)) {
-                                ((TreeSet<ComparableSet>) ed.getContent()).remove(x1);
-                            }
-                            if (!x1.containsAll(newVal) && newVal.containsAll(x1)) {
-                                ((TreeSet<ComparableSet>) ed.getContent()).remove(newVal);
-                            }
-                        }
-                    }
+        // i.e. "source" belongs to the closure of "F+target"
+        // the closure of "F+target" being computed once for each target
+        ConcreteDGraph delta = new ConcreteDGraph();
+        for (Node node : nodes) {
+            delta.addNode(node);
+        }
+        for (Node target : nodes) {
+            ComparableSet fPlusTo = new ComparableSet(setF);
+            fPlusTo.add(target.getContent());
+            fPlusTo = new ComparableSet(init.closure(fPlusTo));
+            for (Node source : nodes) {
+                if (!source.equals(target) && fPlusTo.contains(source.getContent())) {
+                    delta.addEdge(source, target);
                 }
             }
         }
-        // computes the dependance subgraph of the closed set F as the reduction
-        // of the dependance graph composed of nodes in S\A and edges of the dependance relation
-        ConcreteDGraph sub = this.getDependencyGraph().getSubgraphByNodes(nodes);
-        ConcreteDGraph delta = sub.getSubgraphByEdges(edges);
+        // valuates this relation in the dependance graph by the subset newVal
+        synchronized (dependencyGraph) {
+            for (Object edge : delta.getEdges()) {
+                this.addValuation(dependencyGraph, (Edge) edge, newVal);
+            }
+        }
         // computes the sources of the CFC of the dependance subgraph
         // that corresponds to successors of the closed set F
         DAGraph cfc = delta.getStronglyConnectedComponent();
@@ -1014,6 +1358,449 @@ public class ConceptLattice extends Lattice {
         return immSucc;
     }
 
+    /**
+     * Returns the dependance graph of this component, initialised with the
+     * elements of the specified closure system when it does not exist.
+     *
+     * @param init a closure system
+     *
+     * @return the dependance graph
+     */
+    synchronized ConcreteDGraph initDependencyGraph(ClosureSystem init) {
+        // Initialisation of the dependance graph when not initialised by method recursiveDiagramLattice
+        if (!this.hasDependencyGraph()) {
+            ConcreteDGraph graph = new ConcreteDGraph();
+            for (Comparable c : init.getSet()) {
+                graph.addNode(new Node(c));
+            }
+            this.setDependencyGraph(graph);
+        }
+        return this.getDependencyGraph();
+    }
+
+    /**
+     * Returns the dependency graph of this component.
+     *
+     * The dependency graph kept since the generation of this component, or
+     * recomputed when the component has been updated since, is the one of
+     * Bordat's generation, over the attributes: it is computed from the
+     * immediate successors of each concept in the closure system of the
+     * intents of this component.
+     *
+     * @return the dependency graph
+     */
+    @Override
+    public ConcreteDGraph getDependencyGraph() {
+        if (!this.hasDependencyGraph()) {
+            this.computeDependencyGraph(new Budget());
+        }
+        return super.getDependencyGraph();
+    }
+
+    /**
+     * Returns the dependency graph of this component, as
+     * {@link #getDependencyGraph()} does, the budget being checked for each
+     * concept whose immediate successors are computed.
+     *
+     * When the budget runs out, the dependencies found so far are returned.
+     * The dependency graph is only kept by this component when it is
+     * complete.
+     *
+     * @param budget the budget of the computation
+     *
+     * @return the dependency graph, partial when the budget is exhausted
+     */
+    @Override
+    public ConcreteDGraph getDependencyGraph(Budget budget) {
+        if (this.hasDependencyGraph()) {
+            return super.getDependencyGraph();
+        }
+        return this.computeDependencyGraph(budget);
+    }
+
+    /**
+     * Computes the dependency graph of this component from the immediate
+     * successors of its concepts in the closure system of its intents.
+     *
+     * @param budget the budget of the computation
+     *
+     * @return the dependency graph, kept by this component when it is complete
+     */
+    private synchronized ConcreteDGraph computeDependencyGraph(Budget budget) {
+        if (this.getNodes().isEmpty()) {
+            this.setDependencyGraph(new ConcreteDGraph());
+            return super.getDependencyGraph();
+        }
+        ClosureSystem intents = new IntentClosure(this);
+        PrecedenceIndex precedence = new PrecedenceIndex(intents);
+        ConcreteDGraph graph = this.initDependencyGraph(intents);
+        for (Object node : new ArrayList<Object>(this.getNodes())) {
+            if (budget.isExhausted()) {
+                this.setDependencyGraph(null);
+                break;
+            }
+            this.immediateSuccessors((Node) node, intents, precedence);
+        }
+        return graph;
+    }
+
+    /**
+     * Adds a valuation to the edge of the dependance graph between the ends of
+     * the specified edge, keeping only the inclusion-minimal valuations.
+     *
+     * @param dependencyGraph the dependance graph
+     * @param edge            an edge between nodes of the dependance graph
+     * @param newVal          the valuation
+     */
+    private void addValuation(ConcreteDGraph dependencyGraph, Edge edge, ComparableSet newVal) {
+        // search for an existing edge between source and target
+        Edge ed = dependencyGraph.getEdge(edge.getSource(), edge.getTarget());
+        if (ed == null) {
+            ed = new Edge(edge.getSource(), edge.getTarget(), new TreeSet<ComparableSet>());
+            dependencyGraph.addEdge(ed);
+        }
+        // check if F is a minimal set closed for dependance relation between source and target
+        ((TreeSet<ComparableSet>) ed.getContent()).add(newVal);
+        TreeSet<ComparableSet> valEd = new TreeSet<ComparableSet>((TreeSet<ComparableSet>) ed.getContent());
+        for (ComparableSet x1 : valEd) {
+            if (x1.containsAll(newVal) && !newVal.containsAll(x1)) {
+                ((TreeSet<ComparableSet>) ed.getContent()).remove(x1);
+            }
+            if (!x1.containsAll(newVal) && newVal.containsAll(x1)) {
+                ((TreeSet<ComparableSet>) ed.getContent()).remove(newVal);
+            }
+        }
+    }
+
+    /*
+     * ------------- INCREMENTAL METHODS ------------------
+     */
+
+    /**
+     * Adds an observation with the specified intent to this component, which
+     * is then the concept lattice of the context extended by the observation.
+     *
+     * This treatment is an implementation of the AddIntent algorithm of van
+     * der Merwe, Obiedkov and Kourie. The concept whose intent is the closure
+     * of the specified intent is searched from the concept of all attributes,
+     * going down while the intents include the specified intent. When the
+     * closure is not the intent itself, a new concept is inserted between the
+     * closure and its new lower covers, which are recursively added
+     * themselves as intersections of the intent with the intents of the lower
+     * covers of the closure. Only the concepts whose intent meets the
+     * specified intent are visited, and the observation is finally added to
+     * the extents of the concept of the observation and of its lower
+     * concepts.
+     *
+     * Attributes of the intent that do not belong to the concept of all
+     * attributes are added to it when its extent is empty, or to a new
+     * concept of empty extent above it.
+     *
+     * This component must be the Hasse diagram of a concept lattice (or of a
+     * closed set lattice, whose concepts have no set B), and the observation
+     * must not already be in it.
+     *
+     * @param obs    a new observation
+     * @param intent the attributes of the observation
+     *
+     * @return the concept of the observation
+     */
+    public Concept addObject(Comparable obs, Set<Comparable> intent) {
+        TreeSet<Comparable> setA = new TreeSet<Comparable>(intent);
+        Concept concept = this.addIntent(setA, this.greatestConcept(setA));
+        if (concept.hasSetB()) {
+            // the observation belongs to the extent of the concepts whose intent is included in its intent
+            ArrayDeque<Node> queue = new ArrayDeque<Node>();
+            HashSet<Node> visited = new HashSet<Node>();
+            queue.add(concept);
+            visited.add(concept);
+            while (!queue.isEmpty()) {
+                Node node = queue.poll();
+                ((Concept) node).addToB(obs);
+                for (Object predecessor : this.getPredecessorNodes(node)) {
+                    if (visited.add((Node) predecessor)) {
+                        queue.add((Node) predecessor);
+                    }
+                }
+            }
+        }
+        this.setDependencyGraph(null);
+        return concept;
+    }
+
+    /**
+     * Removes an observation with the specified intent from this component,
+     * which is then the concept lattice of the context without the
+     * observation, as after {@link Context#removeFromObservations}.
+     *
+     * The observation is removed from the extents of the concept of the
+     * observation and of its lower concepts. Each of these concepts whose
+     * extent becomes equal to the extent of one of its upper covers is no
+     * longer a concept, and is merged into the cover: it is removed from this
+     * component, its lower covers being linked to its upper covers unless
+     * another path links them. Only the concepts of the observation and their
+     * neighbours are visited.
+     *
+     * This component must be the Hasse diagram of a concept lattice, whose
+     * concepts have a set B.
+     *
+     * @param obs    an observation
+     * @param intent the attributes of the observation
+     *
+     * @return true if the observation has been removed, false if it does not
+     *         belong to this component
+     *
+     * @throws IllegalStateException if the concepts have no set B
+     */
+    public boolean removeObject(Comparable obs, Set<Comparable> intent) {
+        if (this.getNodes().isEmpty()) {
+            return false;
+        }
+        TreeSet<Comparable> setA = new TreeSet<Comparable>(intent);
+        Concept concept = this.greatestConcept(new TreeSet<Comparable>());
+        if (!concept.getSetA().containsAll(setA)) {
+            return false;
+        }
+        concept = this.closureConcept(setA, concept);
+        if (!concept.hasSetB()) {
+            throw new IllegalStateException("Concepts have no set B");
+        }
+        if (!concept.getSetB().contains(obs)) {
+            return false;
+        }
+        // the observation belongs to the extent of the concepts whose intent is included in its intent
+        List<Concept> concepts = new ArrayList<Concept>();
+        ArrayDeque<Node> queue = new ArrayDeque<Node>();
+        HashSet<Node> visited = new HashSet<Node>();
+        queue.add(concept);
+        visited.add(concept);
+        while (!queue.isEmpty()) {
+            Concept node = (Concept) queue.poll();
+            node.getSetB().remove(obs);
+            concepts.add(node);
+            for (Object predecessor : this.getPredecessorNodes(node)) {
+                if (visited.add((Node) predecessor)) {
+                    queue.add((Node) predecessor);
+                }
+            }
+        }
+        this.setDependencyGraph(null);
+        // a concept whose extent is the one of an upper cover is merged into it
+        for (Concept node : concepts) {
+            for (Object successor : this.getSuccessorNodes(node)) {
+                if (((Concept) successor).getSetB().size() == node.getSetB().size()) {
+                    this.removeConcept(node);
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the specified concept from this component, linking its lower
+     * covers to its upper covers unless another path links them.
+     *
+     * @param concept a concept of this component
+     */
+    private void removeConcept(Concept concept) {
+        List<Object> predecessors = new ArrayList<Object>(this.getPredecessorNodes(concept));
+        List<Object> successors = new ArrayList<Object>(this.getSuccessorNodes(concept));
+        this.removeNode(concept);
+        this.setDependencyGraph(null);
+        for (Object predecessor : predecessors) {
+            for (Object successor : successors) {
+                boolean cover = true;
+                for (Object other : this.getSuccessorNodes((Node) predecessor)) {
+                    if (((Concept) successor).getSetA().containsAll(((Concept) other).getSetA())) {
+                        cover = false;
+                        break;
+                    }
+                }
+                if (cover) {
+                    this.addEdge((Node) predecessor, (Node) successor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the concept of all attributes of this component, extended by
+     * the specified intent.
+     *
+     * @param intent a set of attributes
+     *
+     * @return the concept of all attributes
+     */
+    private Concept greatestConcept(TreeSet<Comparable> intent) {
+        if (this.getNodes().isEmpty()) {
+            Concept concept = new Concept(intent, new TreeSet<Comparable>());
+            this.addNode(concept);
+            return concept;
+        }
+        Node node = (Node) this.getNodes().first();
+        SortedSet successors = this.getSuccessorNodes(node);
+        while (!successors.isEmpty()) {
+            node = (Node) successors.first();
+            successors = this.getSuccessorNodes(node);
+        }
+        Concept greatest = (Concept) node;
+        if (!greatest.getSetA().containsAll(intent)) {
+            if (greatest.hasSetB() && greatest.getSetB().isEmpty()) {
+                greatest.addAllToA(intent);
+            } else {
+                TreeSet<Comparable> all = new TreeSet<Comparable>(greatest.getSetA());
+                all.addAll(intent);
+                Concept concept = new Concept(all, new TreeSet<Comparable>());
+                if (!greatest.hasSetB()) {
+                    concept = new Concept(all, false);
+                }
+                this.addNode(concept);
+                this.addEdge(greatest, concept);
+                greatest = concept;
+            }
+        }
+        return greatest;
+    }
+
+    /**
+     * Returns the concept of the specified intent, which is added to this
+     * component when it does not exist.
+     *
+     * @param intent    a set of attributes
+     * @param generator a concept whose intent includes the specified one
+     *
+     * @return the concept of the intent
+     */
+    private Concept addIntent(TreeSet<Comparable> intent, Concept generator) {
+        Concept closure = this.closureConcept(intent, generator);
+        if (closure.getSetA().equals(intent)) {
+            return closure;
+        }
+        List<Concept> newParents = new ArrayList<Concept>();
+        for (Object parent : new ArrayList<Object>(this.getPredecessorNodes(closure))) {
+            Concept candidate = (Concept) parent;
+            if (!intent.containsAll(candidate.getSetA())) {
+                TreeSet<Comparable> meet = new TreeSet<Comparable>(candidate.getSetA());
+                meet.retainAll(intent);
+                candidate = this.addIntent(meet, candidate);
+            }
+            boolean addParent = true;
+            Iterator<Concept> iterator = newParents.iterator();
+            while (addParent && iterator.hasNext()) {
+                Concept newParent = iterator.next();
+                if (newParent.getSetA().containsAll(candidate.getSetA())) {
+                    addParent = false;
+                } else if (candidate.getSetA().containsAll(newParent.getSetA())) {
+                    iterator.remove();
+                }
+            }
+            if (addParent) {
+                newParents.add(candidate);
+            }
+        }
+        Concept concept = new Concept(intent, false);
+        if (closure.hasSetB()) {
+            concept = new Concept(intent, closure.getSetB());
+        }
+        this.addNode(concept);
+        for (Concept newParent : newParents) {
+            this.removeEdge(newParent, closure);
+            this.addEdge(newParent, concept);
+        }
+        this.addEdge(concept, closure);
+        return concept;
+    }
+
+    /**
+     * Returns the concept whose intent is the closure of the specified
+     * intent, searched from the specified concept.
+     *
+     * @param intent    a set of attributes
+     * @param generator a concept whose intent includes the specified one
+     *
+     * @return the concept of least intent including the specified one
+     */
+    private Concept closureConcept(TreeSet<Comparable> intent, Concept generator) {
+        Concept concept = generator;
+        boolean found = true;
+        while (found) {
+            found = false;
+            for (Object parent : this.getPredecessorNodes(concept)) {
+                if (((Concept) parent).getSetA().containsAll(intent)) {
+                    concept = (Concept) parent;
+                    found = true;
+                    break;
+                }
+            }
+        }
+        return concept;
+    }
+
+    /**
+     * This class gives the closure system of the intents of a concept lattice,
+     * the closure of a set of attributes being the intent of the least concept
+     * including it.
+     */
+    private static final class IntentClosure extends ClosureSystem {
+
+        /**
+         * The concept lattice.
+         */
+        private final ConceptLattice lattice;
+
+        /**
+         * The concept of all attributes.
+         */
+        private final Concept greatest;
+
+        /**
+         * Constructs the closure system of the intents of the specified
+         * concept lattice, which must not be empty.
+         *
+         * @param lattice a concept lattice
+         */
+        IntentClosure(ConceptLattice lattice) {
+            this.lattice = lattice;
+            this.greatest = lattice.greatestConcept(new TreeSet<Comparable>());
+        }
+
+        /**
+         * Returns the attributes of the concept lattice.
+         *
+         * @return the set of attributes
+         */
+        @Override
+        public SortedSet<Comparable> getSet() {
+            return new TreeSet<Comparable>(this.greatest.getSetA());
+        }
+
+        /**
+         * Returns the intent of the least concept including the specified set
+         * of attributes.
+         *
+         * @param set a set of attributes
+         *
+         * @return the closure of the set
+         */
+        @Override
+        public TreeSet<Comparable> closure(TreeSet<Comparable> set) {
+            return new TreeSet<Comparable>(this.lattice.closureConcept(set, this.greatest).getSetA());
+        }
+
+        /**
+         * This closure system can not be saved.
+         *
+         * @param filename the name of the file
+         *
+         * @throws UnsupportedOperationException always
+         */
+        @Override
+        public void save(final String filename) {
+            throw new UnsupportedOperationException("Intents can not be saved");
+        }
+    }
+
     /**
      * Save the description of this component in a file whose name is specified.
      *
@@ -0,0 +1,133 @@
+package org.thegalactic.lattice;
+
+/*
+ * CoverRelation.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+
+import org.thegalactic.util.Budget;
+
+/**
+ * This class computes the cover relation of a family of sets closed under
+ * intersection, i.e. the Hasse diagram of their inclusion order, with the
+ * iPred algorithm of Baixeries, Szathmary, Valtchev and Godin.
+ *
+ * Sets are visited by ascending cardinality. The lower covers of a set are
+ * found among its intersections with the sets of the border, i.e. the sets
+ * already visited without any cover yet. A candidate is a lower cover when
+ * the set shares no element with the faces of the candidate, i.e. the
+ * elements added by the covers of the candidate found so far. Each set is
+ * thus intersected with the border only, instead of being compared with all
+ * the other sets.
+ *
+ * ~~~
+ * int[][] covers = CoverRelation.lowerCovers(intents);
+ * ~~~
+ */
+public final class CoverRelation {
+
+    /**
+     * This class is not designed to be instantiated.
+     */
+    private CoverRelation() {
+    }
+
+    /**
+     * Returns the lower covers of each of the specified sets.
+     *
+     * The sets must be distinct and closed under intersection.
+     *
+     * @param sets a family of sets closed under intersection
+     *
+     * @return the positions in the family of the lower covers of each set, by
+     *         position of the set
+     *
+     * @throws IllegalArgumentException if the sets are not closed under
+     *                                  intersection
+     */
+    public static int[][] lowerCovers(List<BitSet> sets) {
+        return lowerCovers(sets, new Budget());
+    }
+
+    /**
+     * Returns the lower covers of each of the specified sets, as
+     * {@link #lowerCovers(List)} does, the budget being checked for each set.
+     *
+     * When the budget is exhausted or cancelled, the sets not visited yet are
+     * given no lower cover.
+     *
+     * @param sets   a family of sets closed under intersection
+     * @param budget the budget of the computation
+     *
+     * @return the positions in the family of the lower covers of each set, by
+     *         position of the set
+     *
+     * @throws IllegalArgumentException if the sets are not closed under
+     *                                  intersection
+     */
+    public static int[][] lowerCovers(List<BitSet> sets, Budget budget) {
+        int size = sets.size();
+        HashMap<BitSet, Integer> positions = new HashMap<BitSet, Integer>();
+        long[] keys = new long[size];
+        for (int k = 0; k < size; k++) {
+            positions.put(sets.get(k), k);
+            keys[k] = (long) sets.get(k).cardinality() << 32 | k;
+        }
+        Arrays.sort(keys);
+        BitSet[] faces = new BitSet[size];
+        List<List<Integer>> covers = new ArrayList<List<Integer>>(size);
+        for (int k = 0; k < size; k++) {
+            faces[k] = new BitSet();
+            covers.add(new ArrayList<Integer>());
+        }
+        BitSet border = new BitSet(size);
+        BitSet candidates = new BitSet(size);
+        for (long key : keys) {
+            if (budget.isExhausted()) {
+                break;
+            }
+            int k = (int) key;
+            BitSet set = sets.get(k);
+            for (int b = border.nextSetBit(0); b >= 0; b = border.nextSetBit(b + 1)) {
+                BitSet intersection = (BitSet) set.clone();
+                intersection.and(sets.get(b));
+                Integer candidate = positions.get(intersection);
+                if (candidate == null) {
+                    throw new IllegalArgumentException("The sets are not closed under intersection");
+                }
+                candidates.set(candidate);
+            }
+            for (int c = candidates.nextSetBit(0); c >= 0; c = candidates.nextSetBit(c + 1)) {
+                if (!faces[c].intersects(set)) {
+                    covers.get(k).add(c);
+                    BitSet face = (BitSet) set.clone();
+                    face.andNot(sets.get(c));
+                    faces[c].or(face);
+                    border.clear(c);
+                }
+            }
+            candidates.clear();
+            border.set(k);
+        }
+        int[][] result = new int[size][];
+        for (int k = 0; k < size; k++) {
+            List<Integer> list = covers.get(k);
+            result[k] = new int[list.size()];
+            for (int p = 0; p < result[k].length; p++) {
+                result[k][p] = list.get(p);
+            }
+        }
+        return result;
+    }
+}
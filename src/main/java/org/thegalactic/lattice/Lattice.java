@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 
+import org.thegalactic.util.Budget;
 import org.thegalactic.util.ComparableSet;
 import org.thegalactic.context.Context;
 import org.thegalactic.dgraph.DAGraph;
@@ -869,11 +870,51 @@ public class Lattice<N, E> extends DAGraph<N, E> {
         if (!(this.dependencyGraph == null)) {
             return this.dependencyGraph;
         }
-        this.dependencyGraph = new ConcreteDGraph();
+        this.dependencyGraph = this.computeDependencyGraph(new Budget());
+        return this.dependencyGraph;
+    }
+
+    /**
+     * Returns the dependency graph of this component, as
+     * {@link #getDependencyGraph()} does, the budget being checked for each
+     * join-irreducible whose dependencies are computed.
+     *
+     * When the budget runs out, the dependencies found so far are returned, as
+     * {@link Budget#isExhausted} tells. The dependency graph is only kept by
+     * this component when it is complete.
+     *
+     * @param budget the budget of the computation
+     *
+     * @return the dependency graph, partial when the budget is exhausted
+     */
+    public ConcreteDGraph getDependencyGraph(Budget budget) {
+        if (this.hasDependencyGraph()) {
+            return this.getDependencyGraph();
+        }
+        ConcreteDGraph graph = this.computeDependencyGraph(budget);
+        if (!budget.isExhausted()) {
+            this.dependencyGraph = graph;
+        }
+        return graph;
+    }
+
+    /**
+     * Computes the dependency graph of this component, the budget being
+     * checked for each join-irreducible whose dependencies are computed.
+     *
+     * When the budget is exhausted or cancelled, the dependencies of the
+     * remaining join-irreducibles are missing.
+     *
+     * @param budget the budget of the computation
+     *
+     * @return the dependency graph
+     */
+    private ConcreteDGraph computeDependencyGraph(Budget budget) {
+        ConcreteDGraph graph = new ConcreteDGraph();
         // nodes of the dependency graph are join-irreducibles
         TreeSet<Node<N>> joins = this.joinIrreducibles();
         for (Node<N> j : joins) {
-            this.dependencyGraph.addNode(j);
+            graph.addNode(j);
         }
         // computes the transitive closure of the join-irreducibles subgraph of this compnent
         DAGraph joinG = this.irreduciblesSubgraph();
@@ -881,6 +922,9 @@ public class Lattice<N, E> extends DAGraph<N, E> {
         // edges of the dependency graph are dependency relation between join-irreducibles
         // they are first valuated by nodes of the lattice
         for (Node<N> j1 : joins) {
+            if (budget.isExhausted()) {
+                break;
+            }
             SortedSet<Node<N>> majj1 = this.majorants(j1);
             for (Node<N> j2 : joins) {
                 if (!j1.equals(j2)) {
@@ -894,10 +938,10 @@ public class Lattice<N, E> extends DAGraph<N, E> {
                         // when j2 V x greather than j1 then add a new edge from j1 to J2
                         // or only a new valuation when the edge already exists
                         if (majj1.contains(this.join(j2, x))) {
-                            Edge ed = this.dependencyGraph.getEdge(j1, j2);
+                            Edge ed = graph.getEdge(j1, j2);
                             if (ed == null) {
                                 ed = new Edge(j1, j2, new TreeSet<ComparableSet>());
-                                this.dependencyGraph.addEdge(ed);
+                                graph.addEdge(ed);
                             }
                             // add {Jx minus predecessors in joinG of j in Jx} as valuation of edge
                             // from j1 to j2
@@ -936,7 +980,7 @@ public class Lattice<N, E> extends DAGraph<N, E> {
          * (X1.containsAll(X2) && !X2.containsAll(X1))
          * ((TreeSet<ComparableSet>)ed.getContent()).remove(X1); }*
          */
-        return this.dependencyGraph;
+        return graph;
     }
 
     /**
@@ -976,7 +1020,34 @@ public class Lattice<N, E> extends DAGraph<N, E> {
      * @return the canonical direct basis of the lattice
      */
     public ImplicationalSystem getCanonicalDirectBasis() {
-        ConcreteDGraph odGraph = this.getDependencyGraph();
+        return this.basis(this.getDependencyGraph());
+    }
+
+    /**
+     * Returns the canonical direct basis of the lattice, as
+     * {@link #getCanonicalDirectBasis()} does, the budget being checked while
+     * the dependency graph is computed.
+     *
+     * When the budget runs out, the rules deduced from the dependencies found
+     * so far are returned, as {@link Budget#isExhausted} tells: they hold in
+     * the lattice, but some rules of the basis are missing.
+     *
+     * @param budget the budget of the computation
+     *
+     * @return the canonical direct basis, partial when the budget is exhausted
+     */
+    public ImplicationalSystem getCanonicalDirectBasis(Budget budget) {
+        return this.basis(this.getDependencyGraph(budget));
+    }
+
+    /**
+     * Returns the rules deduced from the specified dependency graph.
+     *
+     * @param odGraph a dependency graph of this component
+     *
+     * @return the rules of the canonical direct basis
+     */
+    private ImplicationalSystem basis(ConcreteDGraph odGraph) {
         // initialise elements of the ImplicationalSystem with nodes of the ODGraph
         ImplicationalSystem bcd = new ImplicationalSystem();
         for (Object node : odGraph.getNodes()) {
@@ -0,0 +1,233 @@
+package org.thegalactic.lattice;
+
+/*
+ * ParallelDiagramGenerator.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.thegalactic.util.Budget;
+
+/**
+ * This class generates the Hasse diagram of a closed set lattice with
+ * Bordat's algorithm, the immediate successors of the generated concepts
+ * being computed in parallel.
+ *
+ * Each generated concept is a task of a thread pool. A task computes the
+ * immediate successors of its concept, and submits a new task for each
+ * successor that is not yet indexed. Concepts are indexed by their closed
+ * set in a concurrent map, so that a successor reached from several concepts
+ * is generated once. The valuations of the dependance graph are updated
+ * under its lock, and the cover edges are queued and added to the lattice
+ * once all the tasks are done.
+ *
+ * The concepts and the edges are reported to the listener of the closure
+ * system as they are indexed, from the threads of the pool.
+ *
+ * The budget is charged for each new concept. Once it is exhausted, no task
+ * is submitted any more, and the concepts indexed so far are added to the
+ * lattice.
+ *
+ * The closure system must not be modified during the generation.
+ */
+final class ParallelDiagramGenerator {
+
+    /**
+     * The generated lattice.
+     */
+    private final ConceptLattice lattice;
+
+    /**
+     * The closure system.
+     */
+    private final ClosureSystem init;
+
+    /**
+     * The support threshold, or 0.
+     */
+    private final int threshold;
+
+    /**
+     * The budget of the generation.
+     */
+    private final Budget budget;
+
+    /**
+     * The index of the precedence graph of the closure system.
+     */
+    private final PrecedenceIndex precedence;
+
+    /**
+     * Concepts by closed set.
+     */
+    private final ConcurrentHashMap<TreeSet<Comparable>, Concept> concepts;
+
+    /**
+     * Cover edges, as pairs of concepts.
+     */
+    private final ConcurrentLinkedQueue<Concept[]> edges;
+
+    /**
+     * Number of submitted tasks not yet done.
+     */
+    private final AtomicInteger pending;
+
+    /**
+     * Released when all the tasks are done.
+     */
+    private final CountDownLatch done;
+
+    /**
+     * First failure of a task.
+     */
+    private final AtomicReference<Throwable> failure;
+
+    /**
+     * The thread pool.
+     */
+    private ExecutorService executor;
+
+    /**
+     * Constructs a generator of the specified lattice.
+     *
+     * @param lattice   the generated lattice
+     * @param init      the closure system
+     * @param threshold a support threshold, as a number of observations of a
+     *                  context, or 0
+     * @param budget    the budget of the generation
+     */
+    ParallelDiagramGenerator(ConceptLattice lattice, ClosureSystem init, int threshold, Budget budget) {
+        this.lattice = lattice;
+        this.init = init;
+        this.threshold = threshold;
+        this.budget = budget;
+        this.precedence = new PrecedenceIndex(init);
+        this.concepts = new ConcurrentHashMap<TreeSet<Comparable>, Concept>(lattice.conceptIndex());
+        this.edges = new ConcurrentLinkedQueue<Concept[]>();
+        this.pending = new AtomicInteger();
+        this.done = new CountDownLatch(1);
+        this.failure = new AtomicReference<Throwable>();
+    }
+
+    /**
+     * Generates the diagram issued from the specified bottom concept, which
+     * is added to the lattice unless the budget is already exhausted.
+     *
+     * The first failure of a task is rethrown, wrapped in an
+     * IllegalStateException unless it is an Error.
+     *
+     * @param bottom      the bottom concept
+     * @param parallelism number of threads
+     */
+    void generate(Concept bottom, int parallelism) {
+        this.lattice.initDependencyGraph(this.init);
+        try {
+            this.budget.charge();
+        } catch (CancellationException e) {
+            if (!this.budget.isExhausted()) {
+                throw e;
+            }
+            return;
+        }
+        this.concepts.put(bottom.getSetA(), bottom);
+        this.init.conceptEmitted(bottom);
+        this.executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            this.submit(bottom);
+            this.done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generation interrupted", e);
+        } finally {
+            this.executor.shutdownNow();
+        }
+        Throwable cause = this.failure.get();
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        if (cause != null) {
+            throw new IllegalStateException("Generation failed", cause);
+        }
+        for (Concept concept : this.concepts.values()) {
+            if (!this.lattice.containsNode(concept)) {
+                this.lattice.addNode(concept);
+            }
+        }
+        for (Concept[] edge : this.edges) {
+            this.lattice.addEdge(edge[0], edge[1]);
+        }
+    }
+
+    /**
+     * Submits the task of the specified concept.
+     *
+     * @param concept a concept
+     */
+    private void submit(final Concept concept) {
+        this.pending.incrementAndGet();
+        this.executor.execute(new Runnable() {
+            /**
+             * Computes the successors of the concept.
+             */
+            @Override
+            public void run() {
+                try {
+                    if (ParallelDiagramGenerator.this.failure.get() == null && !ParallelDiagramGenerator.this.budget.isExhausted()) {
+                        ParallelDiagramGenerator.this.successors(concept);
+                    }
+                } catch (CancellationException e) {
+                    if (!ParallelDiagramGenerator.this.budget.isExhausted()) {
+                        ParallelDiagramGenerator.this.failure.compareAndSet(null, e);
+                    }
+                } catch (Throwable e) {
+                    ParallelDiagramGenerator.this.failure.compareAndSet(null, e);
+                } finally {
+                    if (ParallelDiagramGenerator.this.pending.decrementAndGet() == 0) {
+                        ParallelDiagramGenerator.this.done.countDown();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Indexes the immediate successors of the specified concept, and submits
+     * the tasks of the new ones.
+     *
+     * @param concept a concept
+     *
+     * @throws CancellationException if the budget is exhausted
+     */
+    private void successors(Concept concept) {
+        for (TreeSet<Comparable> setX : this.lattice.immediateSuccessors(concept, this.init, this.precedence)) {
+            if (ConceptLattice.isFrequent(this.init, this.threshold, setX)) {
+                Concept c = new Concept(new TreeSet<Comparable>(setX), false);
+                Concept ns = this.concepts.putIfAbsent(c.getSetA(), c);
+                if (ns == null) {
+                    this.edges.add(new Concept[]{concept, c});
+                    this.init.conceptEmitted(c);
+                    this.init.edgeAdded();
+                    this.budget.charge();
+                    this.submit(c);
+                } else {
+                    this.edges.add(new Concept[]{concept, ns});
+                    this.init.edgeAdded();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.thegalactic.lattice;
+
+/*
+ * PrecedenceIndex.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.thegalactic.util.ComparableSet;
+
+/**
+ * This class indexes the strongly connected components of the precedence
+ * graph of a closure system (see {@link ClosureSystem#precedenceGraph}), as
+ * used by Bordat's algorithm to valuate the dependance graph.
+ *
+ * There is an edge from `y` to `x` in the precedence graph when `y` belongs
+ * to the closure of `x`. Since closures are transitive, `x` and `y` belong to
+ * the same component when their closures are equal, and the elements of the
+ * components lesser than the one of `x` are the elements of the closure of
+ * `x` outside of its component. Both are computed once from the closures of
+ * the elements, instead of once per closed set.
+ */
+final class PrecedenceIndex {
+
+    /**
+     * Indexes of the elements.
+     */
+    private final TreeMap<Comparable, Integer> indexes;
+
+    /**
+     * Elements by index.
+     */
+    private final Comparable[] elements;
+
+    /**
+     * Component index by element index.
+     */
+    private final int[] components;
+
+    /**
+     * Elements of the strict minorant components by element index.
+     */
+    private final BitSet[] minorants;
+
+    /**
+     * Constructs the index of the precedence graph of the specified closure
+     * system.
+     *
+     * @param init a closure system
+     */
+    PrecedenceIndex(ClosureSystem init) {
+        this.indexes = new TreeMap<Comparable, Integer>();
+        for (Comparable element : init.getSet()) {
+            this.indexes.put(element, this.indexes.size());
+        }
+        int size = this.indexes.size();
+        this.elements = this.indexes.keySet().toArray(new Comparable[size]);
+        BitSet[] closures = new BitSet[size];
+        HashMap<BitSet, Integer> classes = new HashMap<BitSet, Integer>();
+        this.components = new int[size];
+        for (int k = 0; k < size; k++) {
+            ComparableSet set = new ComparableSet();
+            set.add(this.elements[k]);
+            closures[k] = this.toBitSet(init.closure(set));
+            Integer component = classes.get(closures[k]);
+            if (component == null) {
+                component = classes.size();
+                classes.put(closures[k], component);
+            }
+            this.components[k] = component;
+        }
+        this.minorants = new BitSet[size];
+        for (int k = 0; k < size; k++) {
+            this.minorants[k] = (BitSet) closures[k].clone();
+            for (int j = closures[k].nextSetBit(0); j >= 0; j = closures[k].nextSetBit(j + 1)) {
+                if (this.components[j] == this.components[k]) {
+                    this.minorants[k].clear(j);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the component index of the specified element.
+     *
+     * @param element an element of the closure system
+     *
+     * @return the component index
+     */
+    int getComponent(Comparable element) {
+        return this.components[this.indexes.get(element)];
+    }
+
+    /**
+     * Returns the elements of the specified set that belong to no strict
+     * minorant component of the component of an element of the set.
+     *
+     * @param set a set of elements of the closure system
+     *
+     * @return a new set of elements
+     */
+    ComparableSet newValuation(Set<Comparable> set) {
+        BitSet removed = new BitSet(this.elements.length);
+        for (Comparable element : set) {
+            removed.or(this.minorants[this.indexes.get(element)]);
+        }
+        ComparableSet result = new ComparableSet();
+        for (Comparable element : set) {
+            if (!removed.get(this.indexes.get(element))) {
+                result.add(element);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the bitset of the specified set of elements.
+     *
+     * @param set a set of elements of the closure system
+     *
+     * @return the bitset
+     */
+    private BitSet toBitSet(Set<Comparable> set) {
+        BitSet bits = new BitSet(this.elements.length);
+        for (Comparable element : set) {
+            bits.set(this.indexes.get(element));
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,165 @@
+package org.thegalactic.lattice;
+
+/*
+ * ProgressCounter.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class gives a listener counting the events of the treatments of a
+ * closure system, and summing the durations of their phases by name.
+ *
+ * The memory allocated for the emitted concepts is estimated from the size of
+ * their sets, each element of a set being counted as a tree entry.
+ *
+ * ~~~
+ * ProgressCounter counter = new ProgressCounter();
+ * context.setListener(counter);
+ * ConceptLattice lattice = context.closedSetLattice(true);
+ * long concepts = counter.getConcepts();
+ * ~~~
+ *
+ * This class is thread-safe.
+ */
+public final class ProgressCounter implements ProgressListener {
+
+    /**
+     * Estimated size of a concept without its elements, in bytes.
+     */
+    private static final long CONCEPT_BYTES = 96;
+
+    /**
+     * Estimated size of an element of a set, in bytes.
+     */
+    private static final long ELEMENT_BYTES = 40;
+
+    /**
+     * Number of emitted concepts.
+     */
+    private final AtomicLong concepts = new AtomicLong();
+
+    /**
+     * Number of computed closures.
+     */
+    private final AtomicLong closures = new AtomicLong();
+
+    /**
+     * Number of added edges.
+     */
+    private final AtomicLong edges = new AtomicLong();
+
+    /**
+     * Estimated size of the emitted concepts, in bytes.
+     */
+    private final AtomicLong allocation = new AtomicLong();
+
+    /**
+     * Total durations by phase, in nanoseconds.
+     */
+    private final Map<String, Long> durations = new LinkedHashMap<String, Long>();
+
+    /**
+     * Nothing is counted at the start of a phase.
+     *
+     * @param phase the name of the phase
+     */
+    public void phaseStarted(String phase) {
+    }
+
+    /**
+     * Adds the duration of a phase to the total duration of its name.
+     *
+     * @param phase    the name of the phase
+     * @param duration the duration of the phase in nanoseconds
+     */
+    public synchronized void phaseEnded(String phase, long duration) {
+        Long total = this.durations.get(phase);
+        if (total == null) {
+            total = 0L;
+        }
+        this.durations.put(phase, total + duration);
+    }
+
+    /**
+     * Counts an emitted concept and estimates its size.
+     *
+     * @param concept the concept
+     */
+    public void conceptEmitted(Concept concept) {
+        this.concepts.incrementAndGet();
+        long elements = concept.getSetA().size();
+        if (concept.hasSetB()) {
+            elements += concept.getSetB().size();
+        }
+        this.allocation.addAndGet(CONCEPT_BYTES + ELEMENT_BYTES * elements);
+    }
+
+    /**
+     * Counts a computed closure.
+     */
+    public void closureComputed() {
+        this.closures.incrementAndGet();
+    }
+
+    /**
+     * Counts an added edge.
+     */
+    public void edgeAdded() {
+        this.edges.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of emitted concepts.
+     *
+     * @return the number of concepts
+     */
+    public long getConcepts() {
+        return this.concepts.get();
+    }
+
+    /**
+     * Returns the number of computed closures.
+     *
+     * @return the number of closures
+     */
+    public long getClosures() {
+        return this.closures.get();
+    }
+
+    /**
+     * Returns the number of added edges.
+     *
+     * @return the number of edges
+     */
+    public long getEdges() {
+        return this.edges.get();
+    }
+
+    /**
+     * Returns the estimated size of the emitted concepts.
+     *
+     * @return a size in bytes
+     */
+    public long getAllocationEstimate() {
+        return this.allocation.get();
+    }
+
+    /**
+     * Returns the total durations of the ended phases by name, in the order
+     * of their first end.
+     *
+     * @return a new map of durations in nanoseconds
+     */
+    public synchronized Map<String, Long> getDurations() {
+        return new LinkedHashMap<String, Long>(this.durations);
+    }
+}
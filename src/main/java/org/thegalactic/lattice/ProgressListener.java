@@ -0,0 +1,59 @@
+package org.thegalactic.lattice;
+
+/*
+ * ProgressListener.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+/**
+ * This interface is implemented by the listeners of the treatments of a
+ * closure system: generation of its closed sets and lattices, computation of
+ * its bijective components and transformations of implicational systems.
+ *
+ * A listener is attached to a closure system by
+ * {@link ClosureSystem#setListener}. Treatments are divided in named phases,
+ * possibly nested, and report the concepts they emit, the closures they
+ * compute and the edges they add. When no listener is attached, nothing is
+ * reported, and phases are not timed.
+ *
+ * Parallel treatments call the listener from several threads.
+ */
+public interface ProgressListener {
+
+    /**
+     * Reports the start of a phase.
+     *
+     * @param phase the name of the phase
+     */
+    void phaseStarted(String phase);
+
+    /**
+     * Reports the end of a phase.
+     *
+     * @param phase    the name of the phase
+     * @param duration the duration of the phase in nanoseconds
+     */
+    void phaseEnded(String phase, long duration);
+
+    /**
+     * Reports an emitted concept or closed set.
+     *
+     * @param concept the concept
+     */
+    void conceptEmitted(Concept concept);
+
+    /**
+     * Reports a computed closure.
+     */
+    void closureComputed();
+
+    /**
+     * Reports an added edge.
+     */
+    void edgeAdded();
+}
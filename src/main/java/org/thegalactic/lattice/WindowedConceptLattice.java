@@ -0,0 +1,265 @@
+package org.thegalactic.lattice;
+
+/*
+ * WindowedConceptLattice.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * This class maintains the concept lattice of the last observations of a
+ * stream.
+ *
+ * The window holds at most a fixed number of observations. Each new
+ * observation is inserted in the lattice with
+ * {@link ConceptLattice#addObject}, the oldest observation being first
+ * removed with {@link ConceptLattice#removeObject} when the window is full,
+ * so that the lattice is updated incrementally instead of being regenerated.
+ * The lattice is at any time the Hasse diagram of the concept lattice of the
+ * observations of the window, and its frequent concepts are given for any
+ * support by {@link #frequentConcepts}.
+ *
+ * The duration of each update is measured, and the number of updates, the
+ * last, maximal and mean durations are available.
+ *
+ * ~~~
+ * WindowedConceptLattice window = new WindowedConceptLattice(1000);
+ * window.add(transaction, items);
+ * List<Concept> frequent = window.frequentConcepts(100);
+ * ~~~
+ */
+public final class WindowedConceptLattice {
+
+    /**
+     * Maximal number of observations.
+     */
+    private final int capacity;
+
+    /**
+     * Intents of the observations of the window, from the oldest.
+     */
+    private final LinkedHashMap<Comparable, TreeSet<Comparable>> observations;
+
+    /**
+     * The concept lattice of the window.
+     */
+    private final ConceptLattice lattice;
+
+    /**
+     * Number of updates.
+     */
+    private long updates;
+
+    /**
+     * Duration of the last update in nanoseconds.
+     */
+    private long lastLatency;
+
+    /**
+     * Maximal duration of an update in nanoseconds.
+     */
+    private long maxLatency;
+
+    /**
+     * Total duration of the updates in nanoseconds.
+     */
+    private long totalLatency;
+
+    /**
+     * Constructs an empty window of the specified capacity.
+     *
+     * @param capacity maximal number of observations
+     *
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public WindowedConceptLattice(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.observations = new LinkedHashMap<Comparable, TreeSet<Comparable>>();
+        this.lattice = new ConceptLattice();
+    }
+
+    /**
+     * Returns the maximal number of observations.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Returns the number of observations of the window.
+     *
+     * @return the number of observations
+     */
+    public int size() {
+        return this.observations.size();
+    }
+
+    /**
+     * Returns the observations of the window, from the oldest.
+     *
+     * @return an unmodifiable set of observations
+     */
+    public Set<Comparable> getObservations() {
+        return Collections.unmodifiableSet(this.observations.keySet());
+    }
+
+    /**
+     * Returns the attributes of the specified observation of the window.
+     *
+     * @param obs an observation
+     *
+     * @return an unmodifiable set of attributes, or null if the observation
+     *         does not belong to the window
+     */
+    public Set<Comparable> getIntent(Comparable obs) {
+        TreeSet<Comparable> intent = this.observations.get(obs);
+        if (intent == null) {
+            return null;
+        }
+        return Collections.unmodifiableSet(intent);
+    }
+
+    /**
+     * Returns the concept lattice of the window.
+     *
+     * The lattice is updated by the window and must not be modified.
+     *
+     * @return the Hasse diagram of the concept lattice
+     */
+    public ConceptLattice getLattice() {
+        return this.lattice;
+    }
+
+    /**
+     * Adds an observation to the window, the oldest observation being
+     * removed when the window is full.
+     *
+     * @param obs    a new observation
+     * @param intent the attributes of the observation
+     *
+     * @return the removed observation, or null
+     *
+     * @throws IllegalArgumentException if the observation already belongs to
+     *                                  the window
+     */
+    public Comparable add(Comparable obs, Set<Comparable> intent) {
+        if (this.observations.containsKey(obs)) {
+            throw new IllegalArgumentException("The observation already belongs to the window");
+        }
+        long start = System.nanoTime();
+        Comparable evicted = null;
+        if (this.observations.size() == this.capacity) {
+            evicted = this.observations.keySet().iterator().next();
+            this.lattice.removeObject(evicted, this.observations.remove(evicted));
+        }
+        TreeSet<Comparable> setA = new TreeSet<Comparable>(intent);
+        this.observations.put(obs, setA);
+        this.lattice.addObject(obs, setA);
+        this.measure(System.nanoTime() - start);
+        return evicted;
+    }
+
+    /**
+     * Removes an observation from the window.
+     *
+     * @param obs an observation
+     *
+     * @return true if the observation has been removed, false if it does not
+     *         belong to the window
+     */
+    public boolean remove(Comparable obs) {
+        if (!this.observations.containsKey(obs)) {
+            return false;
+        }
+        long start = System.nanoTime();
+        this.lattice.removeObject(obs, this.observations.remove(obs));
+        this.measure(System.nanoTime() - start);
+        return true;
+    }
+
+    /**
+     * Returns the concepts of the window whose extent has at least the
+     * specified number of observations.
+     *
+     * @param support a minimal number of observations
+     *
+     * @return the frequent concepts
+     */
+    public List<Concept> frequentConcepts(int support) {
+        List<Concept> concepts = new ArrayList<Concept>();
+        for (Object node : this.lattice.getNodes()) {
+            Concept concept = (Concept) node;
+            if (concept.getSetB().size() >= support) {
+                concepts.add(concept);
+            }
+        }
+        return concepts;
+    }
+
+    /**
+     * Returns the number of updates of the window.
+     *
+     * @return the number of updates
+     */
+    public long getUpdateCount() {
+        return this.updates;
+    }
+
+    /**
+     * Returns the duration of the last update.
+     *
+     * @return a duration in nanoseconds
+     */
+    public long getLastLatency() {
+        return this.lastLatency;
+    }
+
+    /**
+     * Returns the maximal duration of an update.
+     *
+     * @return a duration in nanoseconds
+     */
+    public long getMaxLatency() {
+        return this.maxLatency;
+    }
+
+    /**
+     * Returns the mean duration of the updates.
+     *
+     * @return a duration in nanoseconds, or 0 if there was no update
+     */
+    public double getMeanLatency() {
+        if (this.updates == 0) {
+            return 0;
+        }
+        return (double) this.totalLatency / this.updates;
+    }
+
+    /**
+     * Records the duration of an update.
+     *
+     * @param latency a duration in nanoseconds
+     */
+    private void measure(long latency) {
+        this.updates++;
+        this.lastLatency = latency;
+        this.maxLatency = Math.max(this.maxLatency, latency);
+        this.totalLatency += latency;
+    }
+}
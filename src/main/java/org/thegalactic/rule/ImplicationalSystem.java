@@ -657,6 +657,7 @@ public class ImplicationalSystem extends ClosureSystem {
      *         before and after this treatment
      */
     public int makeProper() {
+        long start = this.startPhase("makeProper");
         ImplicationalSystem save = new ImplicationalSystem(this);
         for (Rule rule : save.sigma) {
             // deletes elements of conclusion which are in the premise
@@ -675,7 +676,9 @@ public class ImplicationalSystem extends ClosureSystem {
                 this.removeRule(newR);
             }
         }
-        return save.sizeRules() - this.sizeRules();
+        int result = save.sizeRules() - this.sizeRules();
+        this.endPhase("makeProper", start);
+        return result;
     }
 
     /**
@@ -692,6 +695,7 @@ public class ImplicationalSystem extends ClosureSystem {
      *         before and after this treatment
      */
     public int makeUnary() {
+        long start = this.startPhase("makeUnary");
         ImplicationalSystem save = new ImplicationalSystem(this);
         for (Rule rule : save.sigma) {
             if (rule.getConclusion().size() > 1) {
@@ -706,7 +710,9 @@ public class ImplicationalSystem extends ClosureSystem {
                 }
             }
         }
-        return save.sizeRules() - this.sizeRules();
+        int result = save.sizeRules() - this.sizeRules();
+        this.endPhase("makeUnary", start);
+        return result;
     }
 
     /**
@@ -718,6 +724,7 @@ public class ImplicationalSystem extends ClosureSystem {
      *         before and after this treatment
      */
     public int makeCompact() {
+        long start = this.startPhase("makeCompact");
         ImplicationalSystem save = new ImplicationalSystem(this);
         int before = this.sigma.size();
         this.sigma = new TreeSet();
@@ -742,7 +749,9 @@ public class ImplicationalSystem extends ClosureSystem {
             }
             save.removeRule(rule1);
         }
-        return before - this.sigma.size();
+        int result = before - this.sigma.size();
+        this.endPhase("makeCompact", start);
+        return result;
     }
 
     /**
@@ -755,6 +764,7 @@ public class ImplicationalSystem extends ClosureSystem {
      *         before and after this treatment
      */
     public int makeCompactAssociation() {
+        long start = this.startPhase("makeCompactAssociation");
         ImplicationalSystem save = new ImplicationalSystem(this);
         int before = this.sigma.size();
         this.sigma = new TreeSet();
@@ -780,7 +790,9 @@ public class ImplicationalSystem extends ClosureSystem {
             }
             save.removeRule(rule1);
         }
-        return before - this.sigma.size();
+        int result = before - this.sigma.size();
+        this.endPhase("makeCompactAssociation", start);
+        return result;
     }
 
     /**
@@ -793,6 +805,7 @@ public class ImplicationalSystem extends ClosureSystem {
      *         before and after this treatment
      */
     public int makeRightMaximal() {
+        long start = this.startPhase("makeRightMaximal");
         int s = this.sizeRules();
         this.makeCompact();
         ImplicationalSystem save = new ImplicationalSystem(this);
@@ -802,7 +815,9 @@ public class ImplicationalSystem extends ClosureSystem {
                 this.replaceRule(rule, newR);
             }
         }
-        return s - this.sizeRules();
+        int result = s - this.sizeRules();
+        this.endPhase("makeRightMaximal", start);
+        return result;
     }
 
     /**
@@ -818,6 +833,7 @@ public class ImplicationalSystem extends ClosureSystem {
      *         before and after this treatment
      */
     public int makeLeftMinimal() {
+        long start = this.startPhase("makeLeftMinimal");
         this.makeUnary();
         ImplicationalSystem save = new ImplicationalSystem(this);
         for (Rule rule1 : save.sigma) {
@@ -830,7 +846,9 @@ public class ImplicationalSystem extends ClosureSystem {
             }
         }
         this.makeCompact();
-        return save.sizeRules() - this.sizeRules();
+        int result = save.sizeRules() - this.sizeRules();
+        this.endPhase("makeLeftMinimal", start);
+        return result;
     }
 
     /**
@@ -851,6 +869,7 @@ public class ImplicationalSystem extends ClosureSystem {
      *         before and after this treatment
      */
     public int makeDirect() {
+        long start = this.startPhase("makeDirect");
         this.makeUnary();
         this.makeProper();
         int s = this.sizeRules();
@@ -879,7 +898,9 @@ public class ImplicationalSystem extends ClosureSystem {
             }
         }
         this.makeCompact();
-        return s - this.sizeRules();
+        int result = s - this.sizeRules();
+        this.endPhase("makeDirect", start);
+        return result;
     }
 
     /**
@@ -895,6 +916,7 @@ public class ImplicationalSystem extends ClosureSystem {
      *         before and after this treatment
      */
     public int makeMinimum() {
+        long start = this.startPhase("makeMinimum");
         this.makeRightMaximal();
         ImplicationalSystem save = new ImplicationalSystem(this);
         for (Rule rule : save.sigma) {
@@ -904,7 +926,9 @@ public class ImplicationalSystem extends ClosureSystem {
                 this.removeRule(rule);
             }
         }
-        return save.sizeRules() - this.sizeRules();
+        int result = save.sizeRules() - this.sizeRules();
+        this.endPhase("makeMinimum", start);
+        return result;
     }
 
     /**
@@ -922,13 +946,16 @@ public class ImplicationalSystem extends ClosureSystem {
      *         before and after this treatment
      */
     public int makeCanonicalDirectBasis() {
+        long start = this.startPhase("makeCanonicalDirectBasis");
         int s = this.sizeRules();
         this.makeProper();
         this.makeLeftMinimal();
         this.makeDirect();
         this.makeLeftMinimal();
         this.makeCompact();
-        return s - this.sizeRules();
+        int result = s - this.sizeRules();
+        this.endPhase("makeCanonicalDirectBasis", start);
+        return result;
     }
 
     /**
@@ -943,6 +970,7 @@ public class ImplicationalSystem extends ClosureSystem {
      *         before and after this treatment
      */
     public int makeCanonicalBasis() {
+        long start = this.startPhase("makeCanonicalBasis");
         this.makeMinimum();
         ImplicationalSystem save = new ImplicationalSystem(this);
         for (Rule rule : save.sigma) {
@@ -954,7 +982,9 @@ public class ImplicationalSystem extends ClosureSystem {
             }
         }
         this.makeProper();
-        return save.sizeRules() - this.sizeRules();
+        int result = save.sizeRules() - this.sizeRules();
+        this.endPhase("makeCanonicalBasis", start);
+        return result;
     }
 
     /*
@@ -1114,6 +1144,7 @@ public class ImplicationalSystem extends ClosureSystem {
      * @return the closure of X for this component
      */
     public TreeSet<Comparable> closure(TreeSet<Comparable> x) {
+        this.closureComputed();
         TreeSet<Comparable> oldES = new TreeSet<Comparable>();
         // all the attributes are in their own closure
         TreeSet<Comparable> newES = new TreeSet<Comparable>(x);
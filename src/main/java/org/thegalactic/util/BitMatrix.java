@@ -0,0 +1,276 @@
+package org.thegalactic.util;
+
+/*
+ * BitMatrix.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.BitSet;
+
+/**
+ * This class gives a view of a binary matrix packed in 64-bit words.
+ *
+ * Each row is stored as `words(columns)` consecutive words, the bit `k` of
+ * the word `w` standing for the column `64 * w + k` as in
+ * {@link BitSet#valueOf(long[])}. Rows are split into segments of
+ * `rowsPerSegment(columns)` rows, each segment being a long buffer, so that
+ * a matrix can be larger than a single buffer. Buffers may be heap, direct
+ * or memory-mapped buffers: they are never copied.
+ *
+ * Rows are only read with absolute accesses, so that a matrix may be read by
+ * several threads at once. Rows of a matrix backed by writable buffers, such
+ * as the ones of {@link #allocateDirect}, are set with {@link #setRow} before
+ * the matrix is shared.
+ */
+public final class BitMatrix {
+
+    /**
+     * Maximal number of words of a segment.
+     */
+    private static final int SEGMENT_WORDS = 1 << 27;
+
+    /**
+     * Number of bits of a word.
+     */
+    private static final int WORD_SIZE = 64;
+
+    /**
+     * Segments of rows.
+     */
+    private final LongBuffer[] segments;
+
+    /**
+     * Number of rows.
+     */
+    private final int rows;
+
+    /**
+     * Number of columns.
+     */
+    private final int columns;
+
+    /**
+     * Number of words of a row.
+     */
+    private final int words;
+
+    /**
+     * Number of rows of a segment.
+     */
+    private final int rowsPerSegment;
+
+    /**
+     * Constructs a matrix from the specified segments.
+     *
+     * @param segments segments of `rowsPerSegment(columns)` rows, the last one
+     *                 being possibly shorter
+     * @param rows     number of rows
+     * @param columns  number of columns
+     */
+    public BitMatrix(final LongBuffer[] segments, final int rows, final int columns) {
+        this.segments = segments;
+        this.rows = rows;
+        this.columns = columns;
+        this.words = words(columns);
+        this.rowsPerSegment = rowsPerSegment(columns);
+    }
+
+    /**
+     * Returns the number of words of a row.
+     *
+     * @param columns number of columns
+     *
+     * @return the number of words
+     */
+    public static int words(final int columns) {
+        return (columns + WORD_SIZE - 1) / WORD_SIZE;
+    }
+
+    /**
+     * Returns the number of rows of a segment.
+     *
+     * @param columns number of columns
+     *
+     * @return the number of rows
+     */
+    public static int rowsPerSegment(final int columns) {
+        return Math.max(1, SEGMENT_WORDS / Math.max(1, words(columns)));
+    }
+
+    /**
+     * Returns the number of segments.
+     *
+     * @param rows    number of rows
+     * @param columns number of columns
+     *
+     * @return the number of segments
+     */
+    public static int segments(final int rows, final int columns) {
+        final int size = rowsPerSegment(columns);
+        return (rows + size - 1) / size;
+    }
+
+    /**
+     * Returns the number of bytes of a segment.
+     *
+     * A segment has at most {@link #SEGMENT_WORDS} words, so that its size
+     * never exceeds 2^30 bytes.
+     *
+     * @param count   number of rows of the segment
+     * @param columns number of columns
+     *
+     * @return the number of bytes
+     */
+    static int segmentBytes(final int count, final int columns) {
+        return count * words(columns) * (Long.SIZE / Byte.SIZE);
+    }
+
+    /**
+     * Allocates a matrix of cleared bits outside the heap.
+     *
+     * @param rows    number of rows
+     * @param columns number of columns
+     *
+     * @return the matrix
+     */
+    public static BitMatrix allocateDirect(final int rows, final int columns) {
+        final int size = rowsPerSegment(columns);
+        final LongBuffer[] segments = new LongBuffer[segments(rows, columns)];
+        for (int s = 0; s < segments.length; s++) {
+            final int count = Math.min(size, rows - s * size);
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(segmentBytes(count, columns));
+            segments[s] = buffer.order(ByteOrder.nativeOrder()).asLongBuffer();
+        }
+        return new BitMatrix(segments, rows, columns);
+    }
+
+    /**
+     * Returns the number of rows of this matrix.
+     *
+     * @return the number of rows
+     */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Returns the number of columns of this matrix.
+     *
+     * @return the number of columns
+     */
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * Returns a word of the specified row.
+     *
+     * @param row   a row
+     * @param index index of the word in the row
+     *
+     * @return the word
+     */
+    public long word(final int row, final int index) {
+        return this.segments[row / this.rowsPerSegment].get((row % this.rowsPerSegment) * this.words + index);
+    }
+
+    /**
+     * Checks the bit of the specified row and column.
+     *
+     * @param row    a row
+     * @param column a column
+     *
+     * @return true if the bit is set
+     */
+    public boolean get(final int row, final int column) {
+        return (this.word(row, column / WORD_SIZE) & (1L << column)) != 0;
+    }
+
+    /**
+     * Returns the specified row as a new bitset.
+     *
+     * @param row a row
+     *
+     * @return the bitset
+     */
+    public BitSet getRow(final int row) {
+        final long[] result = new long[this.words];
+        for (int i = 0; i < this.words; i++) {
+            result[i] = this.word(row, i);
+        }
+        return BitSet.valueOf(result);
+    }
+
+    /**
+     * Replaces the specified row by the specified words.
+     *
+     * @param row    a row
+     * @param values words of length `words(getColumns())`
+     */
+    public void setRow(final int row, final long[] values) {
+        final LongBuffer segment = this.segments[row / this.rowsPerSegment];
+        final int offset = (row % this.rowsPerSegment) * this.words;
+        for (int i = 0; i < this.words; i++) {
+            segment.put(offset + i, values[i]);
+        }
+    }
+
+    /**
+     * Returns words of length `words(getColumns())` with all columns set.
+     *
+     * @return the words
+     */
+    public long[] full() {
+        final long[] result = new long[this.words];
+        for (int i = 0; i < this.words; i++) {
+            result[i] = -1L;
+        }
+        if (this.columns % WORD_SIZE != 0) {
+            result[this.words - 1] = (1L << this.columns) - 1;
+        }
+        return result;
+    }
+
+    /**
+     * Intersects the specified words with the specified row.
+     *
+     * @param row    a row
+     * @param result words of length `words(getColumns())`
+     *
+     * @return true if the result is not empty
+     */
+    public boolean and(final int row, final long[] result) {
+        final LongBuffer segment = this.segments[row / this.rowsPerSegment];
+        final int offset = (row % this.rowsPerSegment) * this.words;
+        long any = 0;
+        for (int i = 0; i < this.words; i++) {
+            result[i] &= segment.get(offset + i);
+            any |= result[i];
+        }
+        return any != 0;
+    }
+
+    /**
+     * Returns the intersection of the rows of the specified bitset.
+     *
+     * @param set a bitset of rows
+     *
+     * @return the bitset of columns set in all the rows
+     */
+    public BitSet intersection(final BitSet set) {
+        final long[] result = this.full();
+        boolean any = this.columns > 0;
+        for (int i = set.nextSetBit(0); i >= 0 && any; i = set.nextSetBit(i + 1)) {
+            any = this.and(i, result);
+        }
+        return BitSet.valueOf(result);
+    }
+}
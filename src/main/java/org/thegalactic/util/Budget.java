@@ -0,0 +1,177 @@
+package org.thegalactic.util;
+
+/*
+ * Budget.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class bounds a computation of closed sets or concepts by a deadline, a
+ * maximal number of concepts and a maximal used heap, and allows another
+ * thread to cancel it.
+ *
+ * The computation charges the budget for each concept it finds, and checks it
+ * at its own pace: once the budget is exhausted, or cancelled, the next charge
+ * or check throws a {@link CancellationException} which stops the computation.
+ * The lattices computed within a budget catch it, and give the lattice of the
+ * concepts found so far:
+ *
+ * ~~~
+ * Budget budget = new Budget(60000, 1000000, 0);
+ * ConceptLattice lattice = context.conceptLattice(true, budget);
+ * if (budget.isExhausted()) {
+ *     System.out.println("Partial lattice: " + budget.getReason());
+ * }
+ * ~~~
+ *
+ * A budget is thread-safe, and is used by a single computation.
+ */
+public final class Budget {
+
+    /**
+     * Deadline as given by {@link System#nanoTime}, meaningful when the
+     * timeout is positive.
+     */
+    private final long deadline;
+
+    /**
+     * Timeout in milliseconds, or 0.
+     */
+    private final long timeout;
+
+    /**
+     * Maximal number of concepts, or 0.
+     */
+    private final long maxConcepts;
+
+    /**
+     * Maximal used heap in bytes, or 0.
+     */
+    private final long maxHeap;
+
+    /**
+     * Number of charged concepts.
+     */
+    private final AtomicLong concepts;
+
+    /**
+     * Reason of the exhaustion, or null.
+     */
+    private final AtomicReference<String> reason;
+
+    /**
+     * Constructs an unlimited budget, that can only be cancelled.
+     */
+    public Budget() {
+        this(0, 0, 0);
+    }
+
+    /**
+     * Constructs a budget starting now.
+     *
+     * @param timeout     maximal duration in milliseconds, or 0 for no deadline
+     * @param maxConcepts maximal number of concepts, or 0 for no maximum
+     * @param maxHeap     maximal used heap in bytes, or 0 for no maximum
+     *
+     * @throws IllegalArgumentException if a bound is negative
+     */
+    public Budget(long timeout, long maxConcepts, long maxHeap) {
+        if (timeout < 0 || maxConcepts < 0 || maxHeap < 0) {
+            throw new IllegalArgumentException("The bounds must not be negative");
+        }
+        this.timeout = timeout;
+        this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        this.maxConcepts = maxConcepts;
+        this.maxHeap = maxHeap;
+        this.concepts = new AtomicLong();
+        this.reason = new AtomicReference<String>();
+    }
+
+    /**
+     * Returns the number of charged concepts.
+     *
+     * @return the number of concepts
+     */
+    public long getConcepts() {
+        return this.concepts.get();
+    }
+
+    /**
+     * Cancels the computation, which stops at its next charge or check.
+     */
+    public void cancel() {
+        this.reason.compareAndSet(null, "Computation cancelled");
+    }
+
+    /**
+     * Checks if this budget is exhausted or cancelled, without throwing.
+     *
+     * @return true if the computation has to stop
+     */
+    public boolean isExhausted() {
+        this.update();
+        return this.reason.get() != null;
+    }
+
+    /**
+     * Returns the reason of the exhaustion of this budget.
+     *
+     * @return the reason, or null if this budget is not exhausted
+     */
+    public String getReason() {
+        return this.reason.get();
+    }
+
+    /**
+     * Charges a concept to this budget, and checks it.
+     *
+     * @throws CancellationException if this budget is exhausted or cancelled
+     */
+    public void charge() {
+        if (this.maxConcepts > 0 && this.concepts.incrementAndGet() > this.maxConcepts) {
+            this.reason.compareAndSet(null, "Maximal number of concepts reached");
+        } else if (this.maxConcepts == 0) {
+            this.concepts.incrementAndGet();
+        }
+        this.check();
+    }
+
+    /**
+     * Checks this budget.
+     *
+     * @throws CancellationException if this budget is exhausted or cancelled
+     */
+    public void check() {
+        this.update();
+        String exhausted = this.reason.get();
+        if (exhausted != null) {
+            throw new CancellationException(exhausted);
+        }
+    }
+
+    /**
+     * Records the reason of the exhaustion of this budget when its deadline
+     * or its maximal heap is reached.
+     */
+    private void update() {
+        if (this.timeout > 0 && System.nanoTime() - this.deadline > 0) {
+            this.reason.compareAndSet(null, "Deadline reached");
+        }
+        if (this.maxHeap > 0) {
+            Runtime runtime = Runtime.getRuntime();
+            if (runtime.totalMemory() - runtime.freeMemory() > this.maxHeap) {
+                this.reason.compareAndSet(null, "Maximal heap reached");
+            }
+        }
+    }
+}
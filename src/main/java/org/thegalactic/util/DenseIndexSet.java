@@ -0,0 +1,202 @@
+package org.thegalactic.util;
+
+/*
+ * DenseIndexSet.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.BitSet;
+
+/**
+ * This class gives a representation of a dense set of indexes as a bitset.
+ *
+ * The set turns back into a sorted array when it becomes twice sparser than
+ * the threshold, so that alternate additions and removals around the
+ * threshold do not convert it each time.
+ */
+final class DenseIndexSet extends IndexSet {
+
+    /**
+     * The indexes.
+     */
+    private final BitSet bits;
+
+    /**
+     * Number of indexes in bits.
+     */
+    private int size;
+
+    /**
+     * Constructs a set from the specified bitset.
+     *
+     * @param bits a bitset owned by this set
+     * @param size cardinality of the bitset
+     */
+    DenseIndexSet(final BitSet bits, final int size) {
+        this.bits = bits;
+        this.size = size;
+    }
+
+    /**
+     * Returns the bitset of this set, which must not be modified.
+     *
+     * @return the bitset
+     */
+    BitSet bits() {
+        return this.bits;
+    }
+
+    /**
+     * Returns the set fitting the density of this set.
+     *
+     * @param capacity number of possible indexes
+     *
+     * @return this set or a sparse copy
+     */
+    private IndexSet fit(final int capacity) {
+        if (isSparse(2 * this.size, capacity)) {
+            return create(this.bits, capacity);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the number of indexes of this set.
+     *
+     * @return the number of indexes
+     */
+    @Override
+    public int cardinality() {
+        return this.size;
+    }
+
+    /**
+     * Checks if the specified index belongs to this set.
+     *
+     * @param index an index
+     *
+     * @return true if the index belongs to this set
+     */
+    @Override
+    public boolean contains(final int index) {
+        return this.bits.get(index);
+    }
+
+    /**
+     * Returns the first index of this set greater than or equal to the
+     * specified one.
+     *
+     * @param from the starting index
+     *
+     * @return the next index, or -1 if there is no such index
+     */
+    @Override
+    public int nextIndex(final int from) {
+        return this.bits.nextSetBit(from);
+    }
+
+    /**
+     * Adds the specified index.
+     *
+     * @param index    an index
+     * @param capacity number of possible indexes
+     *
+     * @return the set holding the result
+     */
+    @Override
+    public IndexSet add(final int index, final int capacity) {
+        if (!this.bits.get(index)) {
+            this.bits.set(index);
+            this.size++;
+        }
+        return this.fit(capacity);
+    }
+
+    /**
+     * Removes the specified index.
+     *
+     * @param index    an index
+     * @param capacity number of possible indexes
+     *
+     * @return the set holding the result
+     */
+    @Override
+    public IndexSet remove(final int index, final int capacity) {
+        if (this.bits.get(index)) {
+            this.bits.clear(index);
+            this.size--;
+        }
+        return this.fit(capacity);
+    }
+
+    /**
+     * Returns the set fitting the density of this set.
+     *
+     * @param capacity number of possible indexes
+     *
+     * @return the set holding the result
+     */
+    @Override
+    public IndexSet optimize(final int capacity) {
+        if (isSparse(this.size, capacity)) {
+            return create(this.bits, capacity);
+        }
+        return this;
+    }
+
+    /**
+     * Returns a new bitset with the indexes of this set.
+     *
+     * @return a bitset
+     */
+    @Override
+    public BitSet toBitSet() {
+        return (BitSet) this.bits.clone();
+    }
+
+    /**
+     * Returns a new set with the indexes of this set.
+     *
+     * @return a copy of this set
+     */
+    @Override
+    public IndexSet copy() {
+        return new DenseIndexSet((BitSet) this.bits.clone(), this.size);
+    }
+
+    /**
+     * Keeps in the first `count` values of the specified sorted array the
+     * ones belonging to this set.
+     *
+     * @param values sorted and distinct indexes
+     * @param count  number of indexes in `values`
+     *
+     * @return the number of kept indexes
+     */
+    @Override
+    int retain(final int[] values, final int count) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (this.bits.get(values[i])) {
+                values[kept] = values[i];
+                kept++;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Intersects the specified bitset with this set.
+     *
+     * @param other a bitset
+     */
+    @Override
+    void and(final BitSet other) {
+        other.and(this.bits);
+    }
+}
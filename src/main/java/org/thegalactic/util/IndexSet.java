@@ -0,0 +1,242 @@
+package org.thegalactic.util;
+
+/*
+ * IndexSet.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * This class gives a representation of a set of non-negative indexes whose
+ * storage depends on its density.
+ *
+ * A sparse set is stored as a sorted array of indexes, and a dense set as a
+ * bitset. The capacity is the number of possible indexes: a sorted array costs
+ * 32 bits by index whereas a bitset costs one bit by possible index.
+ *
+ * Modification methods return the set holding the result, which is either
+ * this set or a new set using the representation fitting the new density.
+ * The result must replace this set:
+ *
+ * ~~~
+ * set = set.add(index, capacity);
+ * ~~~
+ */
+public abstract class IndexSet {
+
+    /**
+     * Cost in bits of an index in a sorted array.
+     */
+    static final int RATIO = 32;
+
+    /**
+     * Creates an empty set.
+     *
+     * @return an empty set
+     */
+    public static IndexSet create() {
+        return new SparseIndexSet(new int[0], 0);
+    }
+
+    /**
+     * Creates a set from the specified sorted and distinct indexes.
+     *
+     * The array is owned by the set if a sparse representation is chosen.
+     *
+     * @param values   sorted and distinct indexes
+     * @param size     number of indexes in `values`
+     * @param capacity number of possible indexes
+     *
+     * @return the set
+     */
+    public static IndexSet create(final int[] values, final int size, final int capacity) {
+        if (isSparse(size, capacity)) {
+            return new SparseIndexSet(values, size);
+        }
+        final BitSet bits = new BitSet(capacity);
+        for (int i = 0; i < size; i++) {
+            bits.set(values[i]);
+        }
+        return new DenseIndexSet(bits, size);
+    }
+
+    /**
+     * Creates a set from the specified bitset.
+     *
+     * The bitset is not owned by the set.
+     *
+     * @param bits     a bitset
+     * @param capacity number of possible indexes
+     *
+     * @return the set
+     */
+    public static IndexSet create(final BitSet bits, final int capacity) {
+        final int size = bits.cardinality();
+        if (isSparse(size, capacity)) {
+            final int[] values = new int[size];
+            int k = 0;
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                values[k] = i;
+                k++;
+            }
+            return new SparseIndexSet(values, size);
+        }
+        return new DenseIndexSet((BitSet) bits.clone(), size);
+    }
+
+    /**
+     * Checks if a sorted array is smaller than a bitset.
+     *
+     * @param cardinality number of indexes
+     * @param capacity    number of possible indexes
+     *
+     * @return true if a sorted array is smaller
+     */
+    public static boolean isSparse(final int cardinality, final int capacity) {
+        return (long) cardinality * RATIO < capacity;
+    }
+
+    /**
+     * Computes the intersection of the specified sets, restricted to the
+     * specified bitset.
+     *
+     * The intersection starts from the smallest set. When this one is sparse,
+     * its indexes are filtered by the other sets without any bitset of the
+     * size of the capacity, sparse sets being intersected by galloping.
+     *
+     * @param sets     a list of sets
+     * @param universe the bitset of all indexes
+     *
+     * @return the bitset of indexes belonging to all the sets
+     */
+    public static BitSet intersection(final List<IndexSet> sets, final BitSet universe) {
+        if (sets.isEmpty()) {
+            return (BitSet) universe.clone();
+        }
+        IndexSet smallest = sets.get(0);
+        for (final IndexSet set : sets) {
+            if (set.cardinality() < smallest.cardinality()) {
+                smallest = set;
+            }
+        }
+        final BitSet result = new BitSet();
+        if (smallest instanceof SparseIndexSet) {
+            final int[] values = ((SparseIndexSet) smallest).toArray();
+            int size = values.length;
+            for (final IndexSet set : sets) {
+                if (set != smallest && size > 0) {
+                    size = set.retain(values, size);
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                result.set(values[i]);
+            }
+        } else {
+            result.or(((DenseIndexSet) smallest).bits());
+            for (final IndexSet set : sets) {
+                if (set != smallest && !result.isEmpty()) {
+                    set.and(result);
+                }
+            }
+        }
+        result.and(universe);
+        return result;
+    }
+
+    /**
+     * Returns the number of indexes of this set.
+     *
+     * @return the number of indexes
+     */
+    public abstract int cardinality();
+
+    /**
+     * Checks if the specified index belongs to this set.
+     *
+     * @param index an index
+     *
+     * @return true if the index belongs to this set
+     */
+    public abstract boolean contains(int index);
+
+    /**
+     * Returns the first index of this set greater than or equal to the
+     * specified one.
+     *
+     * @param from the starting index
+     *
+     * @return the next index, or -1 if there is no such index
+     */
+    public abstract int nextIndex(int from);
+
+    /**
+     * Adds the specified index.
+     *
+     * @param index    an index
+     * @param capacity number of possible indexes
+     *
+     * @return the set holding the result
+     */
+    public abstract IndexSet add(int index, int capacity);
+
+    /**
+     * Removes the specified index.
+     *
+     * @param index    an index
+     * @param capacity number of possible indexes
+     *
+     * @return the set holding the result
+     */
+    public abstract IndexSet remove(int index, int capacity);
+
+    /**
+     * Returns the set fitting the density of this set.
+     *
+     * Modification methods delay the return to a sorted array, this method
+     * does not.
+     *
+     * @param capacity number of possible indexes
+     *
+     * @return the set holding the result
+     */
+    public abstract IndexSet optimize(int capacity);
+
+    /**
+     * Returns a new bitset with the indexes of this set.
+     *
+     * @return a bitset
+     */
+    public abstract BitSet toBitSet();
+
+    /**
+     * Returns a new set with the indexes of this set.
+     *
+     * @return a copy of this set
+     */
+    public abstract IndexSet copy();
+
+    /**
+     * Keeps in the first `size` values of the specified sorted array the
+     * ones belonging to this set.
+     *
+     * @param values sorted and distinct indexes
+     * @param size   number of indexes in `values`
+     *
+     * @return the number of kept indexes
+     */
+    abstract int retain(int[] values, int size);
+
+    /**
+     * Intersects the specified bitset with this set.
+     *
+     * @param bits a bitset
+     */
+    abstract void and(BitSet bits);
+}
@@ -0,0 +1,245 @@
+package org.thegalactic.util;
+
+/*
+ * SparseIndexSet.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * This class gives a representation of a sparse set of indexes as a sorted
+ * array.
+ *
+ * Intersections with a sorted array use a galloping search, whose cost is
+ * logarithmic in the gap between two consecutive common indexes.
+ */
+final class SparseIndexSet extends IndexSet {
+
+    /**
+     * Sorted and distinct indexes.
+     */
+    private int[] values;
+
+    /**
+     * Number of indexes in values.
+     */
+    private int size;
+
+    /**
+     * Constructs a set from the specified sorted and distinct indexes.
+     *
+     * @param values sorted and distinct indexes
+     * @param size   number of indexes in `values`
+     */
+    SparseIndexSet(final int[] values, final int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * Returns a copy of the indexes of this set.
+     *
+     * @return the sorted indexes
+     */
+    int[] toArray() {
+        return Arrays.copyOf(this.values, this.size);
+    }
+
+    /**
+     * Returns the position of the first value greater than or equal to the
+     * specified index, searching from the specified position.
+     *
+     * @param from  the starting position
+     * @param index an index
+     *
+     * @return a position in values, or size if there is no such value
+     */
+    private int gallop(final int from, final int index) {
+        int low = from;
+        int step = 1;
+        while (low + step < this.size && this.values[low + step] < index) {
+            low += step;
+            step <<= 1;
+        }
+        final int high = Math.min(low + step + 1, this.size);
+        final int position = Arrays.binarySearch(this.values, low, high, index);
+        if (position < 0) {
+            return -position - 1;
+        }
+        return position;
+    }
+
+    /**
+     * Returns the number of indexes of this set.
+     *
+     * @return the number of indexes
+     */
+    @Override
+    public int cardinality() {
+        return this.size;
+    }
+
+    /**
+     * Checks if the specified index belongs to this set.
+     *
+     * @param index an index
+     *
+     * @return true if the index belongs to this set
+     */
+    @Override
+    public boolean contains(final int index) {
+        return Arrays.binarySearch(this.values, 0, this.size, index) >= 0;
+    }
+
+    /**
+     * Returns the first index of this set greater than or equal to the
+     * specified one.
+     *
+     * @param from the starting index
+     *
+     * @return the next index, or -1 if there is no such index
+     */
+    @Override
+    public int nextIndex(final int from) {
+        final int position = this.gallop(0, from);
+        if (position < this.size) {
+            return this.values[position];
+        }
+        return -1;
+    }
+
+    /**
+     * Adds the specified index.
+     *
+     * @param index    an index
+     * @param capacity number of possible indexes
+     *
+     * @return the set holding the result
+     */
+    @Override
+    public IndexSet add(final int index, final int capacity) {
+        int position = Arrays.binarySearch(this.values, 0, this.size, index);
+        if (position >= 0) {
+            return this;
+        }
+        if (!isSparse(this.size + 1, capacity)) {
+            final BitSet bits = this.toBitSet();
+            bits.set(index);
+            return new DenseIndexSet(bits, this.size + 1);
+        }
+        position = -position - 1;
+        if (this.size == this.values.length) {
+            this.values = Arrays.copyOf(this.values, Math.max(2, this.size + (this.size >> 1) + 1));
+        }
+        System.arraycopy(this.values, position, this.values, position + 1, this.size - position);
+        this.values[position] = index;
+        this.size++;
+        return this;
+    }
+
+    /**
+     * Removes the specified index.
+     *
+     * @param index    an index
+     * @param capacity number of possible indexes
+     *
+     * @return the set holding the result
+     */
+    @Override
+    public IndexSet remove(final int index, final int capacity) {
+        final int position = Arrays.binarySearch(this.values, 0, this.size, index);
+        if (position >= 0) {
+            System.arraycopy(this.values, position + 1, this.values, position, this.size - position - 1);
+            this.size--;
+        }
+        return this;
+    }
+
+    /**
+     * Returns the set fitting the density of this set.
+     *
+     * @param capacity number of possible indexes
+     *
+     * @return the set holding the result
+     */
+    @Override
+    public IndexSet optimize(final int capacity) {
+        if (isSparse(this.size, capacity)) {
+            return this;
+        }
+        return new DenseIndexSet(this.toBitSet(), this.size);
+    }
+
+    /**
+     * Returns a new bitset with the indexes of this set.
+     *
+     * @return a bitset
+     */
+    @Override
+    public BitSet toBitSet() {
+        final BitSet bits = new BitSet();
+        for (int i = 0; i < this.size; i++) {
+            bits.set(this.values[i]);
+        }
+        return bits;
+    }
+
+    /**
+     * Returns a new set with the indexes of this set.
+     *
+     * @return a copy of this set
+     */
+    @Override
+    public IndexSet copy() {
+        return new SparseIndexSet(Arrays.copyOf(this.values, this.size), this.size);
+    }
+
+    /**
+     * Keeps in the first `count` values of the specified sorted array the
+     * ones belonging to this set.
+     *
+     * @param others sorted and distinct indexes
+     * @param count  number of indexes in `others`
+     *
+     * @return the number of kept indexes
+     */
+    @Override
+    int retain(final int[] others, final int count) {
+        int kept = 0;
+        int position = 0;
+        for (int i = 0; i < count && position < this.size; i++) {
+            position = this.gallop(position, others[i]);
+            if (position < this.size && this.values[position] == others[i]) {
+                others[kept] = others[i];
+                kept++;
+                position++;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Intersects the specified bitset with this set.
+     *
+     * @param bits a bitset
+     */
+    @Override
+    void and(final BitSet bits) {
+        int from = 0;
+        for (int i = 0; i < this.size; i++) {
+            bits.clear(from, this.values[i]);
+            from = this.values[i] + 1;
+        }
+        final int length = bits.length();
+        if (from < length) {
+            bits.clear(from, length);
+        }
+    }
+}
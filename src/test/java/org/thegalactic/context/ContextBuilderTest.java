@@ -0,0 +1,124 @@
+package org.thegalactic.context;
+
+/*
+ * ContextBuilderTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify
+ * it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.TreeSet;
+
+/**
+ * Test the org.thegalactic.context.ContextBuilder class.
+ */
+public class ContextBuilderTest {
+
+    /**
+     * Test the indexes of ContextBuilder.
+     */
+    @Test
+    public void testIndexes() {
+        ContextBuilder builder = new ContextBuilder();
+        assertEquals(0, builder.addAttribute("a"));
+        assertEquals(1, builder.addAttribute("b"));
+        assertEquals(0, builder.addAttribute("a"));
+        assertEquals(0, builder.addObservation("1"));
+        assertEquals(0, builder.addRow("1", 1));
+        assertEquals(1, builder.addRow("2", 0, 1));
+        assertEquals(2, builder.getAttributesSize());
+        assertEquals(2, builder.getObservationsSize());
+        assertTrue(builder.containsAttribute("b"));
+        assertFalse(builder.containsAttribute("c"));
+        assertTrue(builder.containsObservation("2"));
+        assertFalse(builder.containsObservation("3"));
+        assertTrue(builder.addCross("1", "a"));
+        assertFalse(builder.addCross("1", "c"));
+        assertFalse(builder.addCross("3", "a"));
+    }
+
+    /**
+     * Test the build method of ContextBuilder.
+     */
+    @Test
+    public void testBuild() {
+        ContextBuilder builder = new ContextBuilder();
+        int b = builder.addAttribute("b");
+        int a = builder.addAttribute("a");
+        int c = builder.addAttribute("c");
+        builder.addRow("1", a, b);
+        BitSet row = new BitSet();
+        row.set(b);
+        row.set(c);
+        builder.addRow("2", row);
+        builder.addObservation("3");
+        Context context = builder.build();
+        assertEquals(0, builder.getAttributesSize());
+        assertEquals(0, builder.getObservationsSize());
+        assertEquals("[a, b, c]", context.getAttributes().toString());
+        assertEquals("[1, 2, 3]", context.getObservations().toString());
+        assertEquals("[a, b]", context.getIntent("1").toString());
+        assertEquals("[b, c]", context.getIntent("2").toString());
+        assertEquals("[]", context.getIntent("3").toString());
+        assertEquals("[1, 2]", context.getExtent("b").toString());
+        assertEquals("[2]", context.getExtent("c").toString());
+        assertEquals(b, context.getAttributeIndex("b"));
+        assertEquals(2, context.getObservationIndex("3"));
+        TreeSet<Comparable> set = new TreeSet<Comparable>();
+        set.add("c");
+        assertEquals("[b, c]", context.closure(set).toString());
+        context.addToAttributes("d");
+        context.addExtentIntent("3", "d");
+        assertEquals("[3]", context.getExtent("d").toString());
+        assertEquals(3, context.getAttributeIndex("d"));
+    }
+
+    /**
+     * Test the build method of ContextBuilder on an existing context.
+     */
+    @Test
+    public void testBuildExisting() {
+        Context context = new Context();
+        context.addToAttributes("z");
+        context.addToObservations("9");
+        ContextBuilder builder = new ContextBuilder();
+        builder.addRow("1", builder.addAttribute("a"));
+        assertTrue(context == builder.build(context));
+        assertEquals("[a]", context.getAttributes().toString());
+        assertEquals("[1]", context.getObservations().toString());
+        assertEquals("[1]", context.getExtent("a").toString());
+    }
+
+    /**
+     * Test the addCross method of ContextBuilder with an unexisting attribute.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testAddCrossUnexisting() {
+        ContextBuilder builder = new ContextBuilder();
+        builder.addAttribute("a");
+        builder.addRow("1", 1);
+    }
+
+    /**
+     * Test the addRow method of ContextBuilder with an unexisting attribute.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testAddRowUnexisting() {
+        ContextBuilder builder = new ContextBuilder();
+        builder.addAttribute("a");
+        BitSet row = new BitSet();
+        row.set(1);
+        builder.addRow("1", row);
+    }
+}
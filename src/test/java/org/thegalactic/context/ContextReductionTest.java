@@ -0,0 +1,133 @@
+package org.thegalactic.context;
+
+/*
+ * ContextReductionTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify
+ * it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Test the org.thegalactic.context.ContextReduction class.
+ */
+public class ContextReductionTest {
+
+    /**
+     * Test attributes.
+     */
+    @Test
+    public void testAttributes() {
+        Context context = new Context();
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToAttributes("c");
+        context.addToAttributes("d");
+        context.addToAttributes("e");
+        context.addToObservations("1");
+        context.addToObservations("2");
+        context.addToObservations("3");
+        context.addExtentIntent("1", "a");
+        context.addExtentIntent("2", "a");
+        context.addExtentIntent("2", "b");
+        context.addExtentIntent("3", "b");
+        context.addExtentIntent("2", "c");
+        context.addExtentIntent("1", "d");
+        context.addExtentIntent("2", "d");
+        context.addExtentIntent("1", "e");
+        context.addExtentIntent("2", "e");
+        context.addExtentIntent("3", "e");
+        TreeMap<Comparable, TreeSet<Comparable>> red = ContextReduction.attributes(context);
+        assertEquals("{c=[a, b], d=[a], e=[]}", red.toString());
+        int size = context.conceptLattice(true).getNodes().size();
+        context.attributesReduction();
+        assertEquals("[a, b]", context.getAttributes().toString());
+        assertEquals(size, context.conceptLattice(true).getNodes().size());
+    }
+
+    /**
+     * Test attributes with an attribute whose extent is the greatest but not
+     * the set of all observations.
+     */
+    @Test
+    public void testAttributesMaximal() {
+        Context context = new Context();
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToObservations("1");
+        context.addToObservations("2");
+        context.addToObservations("3");
+        context.addExtentIntent("1", "a");
+        context.addExtentIntent("2", "a");
+        context.addExtentIntent("1", "b");
+        assertEquals("{}", ContextReduction.attributes(context).toString());
+    }
+
+    /**
+     * Test observations.
+     */
+    @Test
+    public void testObservations() {
+        Context context = new Context();
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToObservations("1");
+        context.addToObservations("2");
+        context.addToObservations("3");
+        context.addExtentIntent("1", "a");
+        context.addExtentIntent("2", "a");
+        context.addExtentIntent("3", "b");
+        assertEquals("{2=[1]}", context.observationsReduction().toString());
+        assertEquals("[1, 3]", context.getObservations().toString());
+    }
+
+    /**
+     * Test attributes on a context large enough to be reduced in parallel.
+     */
+    @Test
+    public void testAttributesParallel() {
+        Random random = new Random(0);
+        Context context = new Context();
+        for (int i = 0; i < 12; i++) {
+            context.addToObservations(i);
+        }
+        for (int j = 0; j < 600; j++) {
+            context.addToAttributes(j);
+            for (int i = 0; i < 12; i++) {
+                if (random.nextInt(3) != 0) {
+                    context.addExtentIntent(i, j);
+                }
+            }
+        }
+        TreeMap<Comparable, TreeSet<Comparable>> red = ContextReduction.attributes(context);
+        for (Map.Entry<Comparable, TreeSet<Comparable>> entry : red.entrySet()) {
+            assertEquals(context.getExtent(entry.getKey()), context.getExtent(entry.getValue()));
+        }
+        for (Comparable att : context.getAttributes()) {
+            if (!red.containsKey(att)) {
+                TreeSet<Comparable> extent = context.getExtent(att);
+                TreeSet<Comparable> larger = new TreeSet<Comparable>();
+                for (Comparable other : context.getAttributes()) {
+                    TreeSet<Comparable> otherExtent = context.getExtent(other);
+                    if (otherExtent.containsAll(extent) && otherExtent.size() > extent.size()) {
+                        larger.add(other);
+                    }
+                }
+                assertFalse(extent.equals(context.getExtent(larger)));
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.thegalactic.context;
+
+/*
+ * ContextSnapshotTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify
+ * it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.BitSet;
+import java.util.TreeSet;
+
+/**
+ * Test the org.thegalactic.context.ContextSnapshot class.
+ */
+public class ContextSnapshotTest {
+
+    /**
+     * Returns a small context.
+     *
+     * @return the context
+     */
+    private Context context() {
+        Context context = new Context();
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToAttributes("c");
+        context.addToObservations("1");
+        context.addToObservations("2");
+        context.addExtentIntent("1", "a");
+        context.addExtentIntent("1", "b");
+        context.addExtentIntent("2", "b");
+        context.addExtentIntent("2", "c");
+        return context;
+    }
+
+    /**
+     * Test that a snapshot is not changed by its context.
+     */
+    @Test
+    public void testCopyOnWrite() {
+        Context context = this.context();
+        ContextSnapshot snapshot = context.snapshot();
+        assertSame(snapshot, context.snapshot());
+        context.addExtentIntent("2", "a");
+        context.removeExtentIntent("1", "b");
+        context.addToObservations("3");
+        context.addExtentIntent("3", "c");
+        context.removeFromAttributes("b");
+        assertEquals("[a, b]", snapshot.getIntent("1").toString());
+        assertEquals("[b, c]", snapshot.getIntent("2").toString());
+        assertEquals("[1, 2]", snapshot.getExtent("b").toString());
+        assertEquals("[1, 2]", snapshot.getObservations().toString());
+        assertEquals("[a, b, c]", snapshot.getAttributes().toString());
+        assertEquals("[]", snapshot.getIntent("3").toString());
+        assertEquals("[a, c]", context.getIntent("2").toString());
+        ContextSnapshot next = context.snapshot();
+        assertNotSame(snapshot, next);
+        assertEquals("[a, c]", next.getIntent("2").toString());
+        assertEquals("[2, 3]", next.getExtent("c").toString());
+        assertEquals(-1, next.getAttributeIndex("b"));
+        context.reverse();
+        assertEquals("[a, c]", next.getIntent("2").toString());
+    }
+
+    /**
+     * Test closures of a snapshot.
+     */
+    @Test
+    public void testClosure() {
+        Context context = this.context();
+        ContextSnapshot snapshot = context.snapshot();
+        TreeSet<Comparable> set = new TreeSet<Comparable>();
+        set.add("c");
+        assertEquals(context.closure(set), snapshot.closure(set));
+        set.add("d");
+        assertEquals("[a, b, c]", snapshot.closure(set).toString());
+        BitSet bits = new BitSet();
+        bits.set(context.getAttributeIndex("a"));
+        assertEquals(context.closure(bits), snapshot.closure(bits));
+        assertEquals(context.closedSetLattice(true).getNodes().size(), snapshot.closedSetLattice(true).getNodes().size());
+        assertEquals(context.getIntent("2"), snapshot.toContext().getIntent("2"));
+    }
+
+    /**
+     * Test snapshots read by a thread while the context is changed.
+     *
+     * @throws InterruptedException When the thread is interrupted
+     */
+    @Test
+    public void testConcurrentReaders() throws InterruptedException {
+        final Context context = new Context();
+        for (int j = 0; j < 50; j++) {
+            context.addToAttributes(j);
+        }
+        final ContextSnapshot[] published = new ContextSnapshot[1];
+        published[0] = context.snapshot();
+        final int[] errors = new int[1];
+        Thread reader = new Thread() {
+            /**
+             * Checks that each snapshot has consistent extents and intents.
+             */
+            @Override
+            public void run() {
+                for (int k = 0; k < 50; k++) {
+                    ContextSnapshot snapshot;
+                    synchronized (published) {
+                        snapshot = published[0];
+                    }
+                    for (Comparable obs : snapshot.getObservations()) {
+                        for (Comparable att : snapshot.getIntent(obs)) {
+                            if (!snapshot.getExtent(att).contains(obs)) {
+                                errors[0]++;
+                            }
+                        }
+                    }
+                }
+            }
+        };
+        reader.start();
+        for (int i = 0; i < 200; i++) {
+            context.addToObservations(i);
+            for (int j = i % 7; j < 50; j += 3) {
+                context.addExtentIntent(i, j);
+            }
+            if (i % 10 == 0) {
+                context.removeExtentIntent(i / 2, 1);
+            }
+            ContextSnapshot snapshot = context.snapshot();
+            synchronized (published) {
+                published[0] = snapshot;
+            }
+        }
+        reader.join();
+        assertEquals(0, errors[0]);
+    }
+}
@@ -20,10 +20,13 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.TreeSet;
 
+import org.thegalactic.util.Budget;
 import org.thegalactic.util.Couple;
 import org.thegalactic.dgraph.Node;
+import org.thegalactic.lattice.Concept;
 import org.thegalactic.lattice.Lattice;
 import org.thegalactic.lattice.ConceptLattice;
 import org.thegalactic.lattice.LatticeFactory;
@@ -346,6 +349,151 @@ public class ContextTest {
         assertTrue(context.getIntentNb(observations) == 2);
     }
 
+    /**
+     * Test of closure.
+     */
+    @Test
+    public void testClosure() {
+        Context context = new Context();
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToAttributes("c");
+        context.addToObservations("1");
+        context.addToObservations("2");
+        context.addToObservations("3");
+        context.addExtentIntent("1", "a");
+        context.addExtentIntent("1", "b");
+        context.addExtentIntent("2", "a");
+        context.addExtentIntent("3", "b");
+        context.addExtentIntent("3", "c");
+        TreeSet<Comparable> attributes = new TreeSet();
+        assertEquals(new TreeSet(), context.closure(attributes));
+        attributes.add("c");
+        TreeSet<Comparable> closure = new TreeSet();
+        closure.add("b");
+        closure.add("c");
+        assertEquals(closure, context.closure(attributes));
+        attributes.add("a");
+        assertEquals(context.getAttributes(), context.closure(attributes));
+        attributes.add("d");
+        assertEquals(context.getAttributes(), context.closure(attributes));
+    }
+
+    /**
+     * Test of closure on bitsets.
+     */
+    @Test
+    public void testClosureBitSet() {
+        Context context = new Context();
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToAttributes("c");
+        context.addToObservations("1");
+        context.addToObservations("2");
+        context.addToObservations("3");
+        context.addExtentIntent("1", "a");
+        context.addExtentIntent("1", "b");
+        context.addExtentIntent("2", "a");
+        context.addExtentIntent("3", "b");
+        context.addExtentIntent("3", "c");
+        BitSet attributes = new BitSet();
+        attributes.set(2);
+        BitSet extent = new BitSet();
+        extent.set(2);
+        assertEquals(extent, context.getExtentBitSet(attributes));
+        BitSet closure = new BitSet();
+        closure.set(1, 3);
+        assertEquals(closure, context.closure(attributes));
+        assertEquals(closure, context.getIntentBitSet(extent));
+    }
+
+    /**
+     * Test the conceptLattice and closedSetIceberg methods within a budget.
+     */
+    @Test
+    public void testConceptLatticeBudget() {
+        Context context = Context.random(20, 3, 4);
+        Budget budget = new Budget(0, 4, 0);
+        ConceptLattice lattice = context.conceptLattice(true, budget);
+        assertTrue(budget.isExhausted());
+        assertEquals(4, lattice.getNodes().size());
+        for (Object node : lattice.getNodes()) {
+            assertTrue(((Concept) node).hasSetB());
+        }
+        budget = new Budget();
+        assertEquals(context.closedSetIceberg(0.2).getNodes().size(), context.closedSetIceberg(0.2, budget).getNodes().size());
+        assertFalse(budget.isExhausted());
+        budget = new Budget(0, 2, 0);
+        assertEquals(2, context.closedSetIceberg(0.2, budget).getNodes().size());
+        assertTrue(budget.isExhausted());
+    }
+
+    /**
+     * Test of intents and extents with unknown elements.
+     */
+    @Test
+    public void testUnknownElements() {
+        Context context = new Context();
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToObservations("1");
+        context.addToObservations("2");
+        context.addExtentIntent("1", "a");
+        context.addExtentIntent("2", "a");
+        context.addExtentIntent("2", "b");
+        TreeSet<Comparable> observations = new TreeSet();
+        observations.add("2");
+        observations.add("3");
+        assertEquals(new TreeSet(), context.getIntent(observations));
+        assertEquals(0, context.getIntentNb(observations));
+        TreeSet<Comparable> attributes = new TreeSet();
+        attributes.add("a");
+        attributes.add("c");
+        assertEquals(new TreeSet(), context.getExtent(attributes));
+        assertEquals(0, context.getExtentNb(attributes));
+        assertEquals(context.getAttributes(), context.closure(attributes));
+    }
+
+    /**
+     * Test the incremental maintenance of the bitset structures.
+     */
+    @Test
+    public void testIncrementalBitSets() {
+        Context context = new Context();
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToAttributes("c");
+        context.addToObservations("1");
+        context.addToObservations("2");
+        context.addToObservations("3");
+        context.addExtentIntent("1", "a");
+        context.addExtentIntent("1", "b");
+        context.addExtentIntent("2", "a");
+        context.addExtentIntent("3", "b");
+        context.addExtentIntent("3", "c");
+        int index = context.getAttributeIndex("c");
+        assertTrue(context.removeFromAttributes("a"));
+        assertEquals(-1, context.getAttributeIndex("a"));
+        assertEquals(index, context.getAttributeIndex("c"));
+        assertTrue(context.removeFromObservations("3"));
+        assertTrue(context.addToObservations("4"));
+        assertTrue(context.addToAttributes("d"));
+        context.addExtentIntent("4", "c");
+        context.addExtentIntent("4", "d");
+        context.removeExtentIntent("1", "b");
+        Context copy = new Context(context);
+        TreeSet<Comparable> attributes = new TreeSet();
+        attributes.add("c");
+        assertEquals(copy.closure(attributes), context.closure(attributes));
+        assertEquals(2, context.closure(attributes).size());
+        attributes.clear();
+        attributes.add("b");
+        assertEquals(copy.closure(attributes), context.closure(attributes));
+        assertEquals(3, context.closure(attributes).size());
+        assertEquals(3, context.getExtentNb(new TreeSet()));
+        assertEquals(copy.getIntent(context.getObservations()), context.getIntent(context.getObservations()));
+    }
+
     /**
      * Test of context reversion.
      */
@@ -451,4 +599,75 @@ public class ContextTest {
         TreeSet<Node> convex = ctx.getDivisionConvex(subContexts.get(0));
         assertEquals(subContexts.get(0).conceptLattice(true).getNodes().size() + convex.size(), l.getNodes().size());
     }
+
+    /**
+     * Test extents and closures of a sparse context.
+     */
+    @Test
+    public void testSparseExtent() {
+        Context context = new Context();
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToAttributes("c");
+        for (int i = 0; i < 1000; i++) {
+            context.addToObservations(i);
+        }
+        context.addExtentIntent(10, "a");
+        context.addExtentIntent(10, "b");
+        context.addExtentIntent(500, "a");
+        context.addExtentIntent(500, "b");
+        context.addExtentIntent(999, "a");
+        for (int i = 0; i < 1000; i += 2) {
+            context.addExtentIntent(i, "c");
+        }
+        TreeSet<Comparable> set = new TreeSet<Comparable>();
+        set.add("a");
+        assertEquals("[10, 500, 999]", context.getExtent(set).toString());
+        set.add("c");
+        assertEquals("[10, 500]", context.getExtent(set).toString());
+        assertEquals(2, context.getExtentNb(set));
+        assertEquals("[a, b, c]", context.closure(set).toString());
+        context.removeExtentIntent(500, "b");
+        set.remove("c");
+        assertEquals("[a]", context.closure(set).toString());
+        for (int i = 0; i < 1000; i += 2) {
+            context.removeExtentIntent(i, "c");
+        }
+        set.clear();
+        set.add("c");
+        assertEquals(0, context.getExtentNb(set));
+        context.setBitSets();
+        assertEquals(0, context.getExtentNb(set));
+        set.clear();
+        set.add("b");
+        assertEquals("[10]", context.getExtent(set).toString());
+    }
+
+    /**
+     * Test the symbol tables and the index based accessors of Context.
+     */
+    @Test
+    public void testSymbols() {
+        Context context = new Context();
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToObservations("1");
+        context.addToObservations("2");
+        context.addExtentIntent("1", "b");
+        context.addExtentIntent("2", "b");
+        int b = context.getAttributeIndex("b");
+        assertEquals("b", context.getAttribute(b));
+        assertEquals(2, context.extentBits(b).cardinality());
+        context.removeFromObservations("1");
+        assertEquals(1, context.extentBits(b).cardinality());
+        assertEquals(1, context.getObservationSymbols().size());
+        context.addToObservations("3");
+        int i = context.getObservationIndex("3");
+        assertEquals(0, i);
+        assertEquals("3", context.getObservation(i));
+        assertEquals(0, context.intentBits(i).cardinality());
+        context.reverse();
+        assertEquals("b", context.getObservation(b));
+        assertEquals(b, context.getObservationSymbols().getId("b"));
+    }
 }
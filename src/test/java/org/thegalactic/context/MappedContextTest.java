@@ -0,0 +1,54 @@
+package org.thegalactic.context;
+
+/*
+ * MappedContextTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify
+ * it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.TreeSet;
+
+/**
+ * Test the org.thegalactic.context.MappedContext class.
+ */
+public class MappedContextTest {
+
+    /**
+     * Test copyOf.
+     */
+    @Test
+    public void testCopyOf() {
+        Context context = new Context();
+        for (int j = 0; j < 70; j++) {
+            context.addToAttributes(j);
+        }
+        for (int i = 0; i < 6; i++) {
+            context.addToObservations("o" + i);
+            for (int j = i; j < 70; j += i + 1) {
+                context.addExtentIntent("o" + i, j);
+            }
+        }
+        context.removeFromAttributes(3);
+        context.removeFromObservations("o2");
+        MappedContext mapped = MappedContext.copyOf(context);
+        assertEquals(69, mapped.getAttributesSize());
+        assertEquals(5, mapped.getObservationsSize());
+        assertEquals(4, mapped.getAttribute(3));
+        assertEquals(2, mapped.getObservationIndex("o3"));
+        TreeSet<Comparable> set = new TreeSet<Comparable>();
+        set.add(12);
+        assertEquals(context.closure(set), mapped.closure(set));
+        assertEquals(context.getIntent("o5"), mapped.toContext().getIntent("o5"));
+        assertEquals(context.getExtent(69), mapped.toContext().getExtent(69));
+        assertEquals(context.closedSetLattice(true).getNodes().size(), mapped.closedSetLattice(true).getNodes().size());
+    }
+}
@@ -0,0 +1,61 @@
+package org.thegalactic.context;
+
+/*
+ * SymbolTableTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify
+ * it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test the org.thegalactic.context.SymbolTable class.
+ */
+public class SymbolTableTest {
+
+    /**
+     * Test add and remove.
+     */
+    @Test
+    public void testAddRemove() {
+        SymbolTable table = new SymbolTable();
+        assertEquals(0, table.add("a"));
+        assertEquals(1, table.add("b"));
+        assertEquals(2, table.add("c"));
+        assertEquals(1, table.add("b"));
+        assertEquals(3, table.size());
+        assertEquals(1, table.remove("b"));
+        assertEquals(-1, table.remove("b"));
+        assertFalse(table.contains("b"));
+        assertNull(table.getSymbol(1));
+        assertEquals("{0, 2}", table.getIds().toString());
+        assertEquals(1, table.add("d"));
+        assertEquals(3, table.add("e"));
+        assertEquals(4, table.size());
+        assertEquals(4, table.capacity());
+    }
+
+    /**
+     * Test getId and getSymbol.
+     */
+    @Test
+    public void testLookup() {
+        SymbolTable table = new SymbolTable();
+        table.add(10);
+        table.add(20);
+        assertTrue(table.contains(20));
+        assertEquals(1, table.getId(20));
+        assertEquals(-1, table.getId(30));
+        assertEquals(10, table.getSymbol(0));
+    }
+}
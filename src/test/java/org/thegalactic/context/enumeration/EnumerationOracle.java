@@ -0,0 +1,154 @@
+package org.thegalactic.context.enumeration;
+
+/*
+ * EnumerationOracle.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify
+ * it under the terms of the CeCILL-B license.
+ */
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.thegalactic.context.Context;
+
+/**
+ * Compares the concepts enumerated by the miners of the
+ * org.thegalactic.context.enumeration package with the ones of the
+ * FrequentCloseByOne class.
+ */
+final class EnumerationOracle {
+
+    /**
+     * Factory of the miner under test.
+     */
+    interface Miner {
+
+        /**
+         * Creates a miner.
+         *
+         * @param support minimal support of the concepts
+         *
+         * @return the miner
+         */
+        ConceptEnumerator create(int support);
+    }
+
+    /**
+     * This class is not designed to be publicly instantiated.
+     */
+    private EnumerationOracle() {
+    }
+
+    /**
+     * Returns a random context.
+     *
+     * @param seed         seed of the random generator
+     * @param observations number of observations
+     * @param attributes   number of attributes
+     * @param density      inverse of the probability of a cross
+     *
+     * @return the context
+     */
+    static Context random(long seed, int observations, int attributes, int density) {
+        Random random = new Random(seed);
+        Context context = new Context();
+        for (int j = 0; j < attributes; j++) {
+            context.addToAttributes("a" + j);
+        }
+        for (int i = 0; i < observations; i++) {
+            context.addToObservations("o" + i);
+            for (int j = 0; j < attributes; j++) {
+                if (random.nextInt(density) == 0) {
+                    context.addExtentIntent("o" + i, "a" + j);
+                }
+            }
+        }
+        return context;
+    }
+
+    /**
+     * Returns the extents enumerated by an enumerator, by intent.
+     *
+     * The handler may be called from several threads.
+     *
+     * @param enumerator an enumerator
+     * @param context    a context
+     *
+     * @return the extents by intent
+     */
+    static Map<BitSet, BitSet> concepts(ConceptEnumerator enumerator, Context context) {
+        final Map<BitSet, BitSet> concepts = new HashMap<BitSet, BitSet>();
+        enumerator.enumerate(context, new ConceptHandler() {
+            /**
+             * Stores a concept, checking that it is new.
+             *
+             * @param extent bitset of observations
+             * @param intent bitset of attributes
+             */
+            @Override
+            public void handle(BitSet extent, BitSet intent) {
+                synchronized (concepts) {
+                    assertNull(concepts.put(intent, extent));
+                }
+            }
+        });
+        return concepts;
+    }
+
+    /**
+     * Checks that a miner enumerates the frequent concepts of random,
+     * structured and degenerated contexts.
+     *
+     * @param miner factory of the miner
+     */
+    static void check(Miner miner) {
+        for (int k = 0; k < 10; k++) {
+            Context context = random(k, 60, 12, 2 + k % 3);
+            for (int support = 0; support <= 61; support += 4) {
+                check(miner, support, context);
+            }
+        }
+        for (int k = 0; k < 5; k++) {
+            Context context = Context.random(40, 4, 6);
+            for (int support = 0; support <= 10; support += 2) {
+                check(miner, support, context);
+            }
+        }
+        Context context = new Context();
+        check(miner, 0, context);
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        check(miner, 0, context);
+        assertEquals(0, concepts(miner.create(1), context).size());
+        context.addToObservations("1");
+        context.addToObservations("2");
+        check(miner, 0, context);
+        context.addExtentIntent("1", "a");
+        context.addExtentIntent("2", "a");
+        context.addExtentIntent("2", "b");
+        check(miner, 0, context);
+        check(miner, 1, context);
+        assertEquals(2, concepts(miner.create(1), context).size());
+    }
+
+    /**
+     * Checks that a miner enumerates the frequent concepts of a context.
+     *
+     * @param miner   factory of the miner
+     * @param support minimal support of the concepts
+     * @param context a context
+     */
+    private static void check(Miner miner, int support, Context context) {
+        assertEquals(concepts(new FrequentCloseByOne(support), context), concepts(miner.create(support), context));
+    }
+}
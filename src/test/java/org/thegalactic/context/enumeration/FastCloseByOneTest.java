@@ -0,0 +1,155 @@
+package org.thegalactic.context.enumeration;
+
+/*
+ * FastCloseByOneTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify
+ * it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+
+import org.thegalactic.context.Context;
+import org.thegalactic.lattice.Concept;
+import org.thegalactic.lattice.ConceptLattice;
+import org.thegalactic.util.Budget;
+
+/**
+ * Test the org.thegalactic.context.enumeration.FastCloseByOne class.
+ */
+public class FastCloseByOneTest {
+
+    /**
+     * Returns the descriptions of the concepts of a lattice.
+     *
+     * @param lattice a lattice
+     *
+     * @return the descriptions
+     */
+    private TreeSet<String> concepts(ConceptLattice lattice) {
+        TreeSet<String> concepts = new TreeSet<String>();
+        for (Object node : lattice.getNodes()) {
+            Concept concept = (Concept) node;
+            String extent = "";
+            if (concept.hasSetB()) {
+                extent = concept.getSetB().toString();
+            }
+            concepts.add(concept.getSetA() + extent);
+        }
+        return concepts;
+    }
+
+    /**
+     * Test the concept lattice.
+     */
+    @Test
+    public void testConceptLattice() {
+        for (long seed = 0; seed < 5; seed++) {
+            Context context = EnumerationOracle.random(seed, 12, 10, 3);
+            ConceptLattice expected = context.conceptLattice(true);
+            ConceptLattice lattice = context.conceptLattice(true, FastCloseByOne.getInstance());
+            assertEquals(this.concepts(expected), this.concepts(lattice));
+            assertEquals(expected.getEdges().size(), lattice.getEdges().size());
+        }
+    }
+
+    /**
+     * Test the transitively closed lattice.
+     */
+    @Test
+    public void testClosedSetLattice() {
+        Context context = EnumerationOracle.random(7, 10, 8, 3);
+        ConceptLattice expected = context.closedSetLattice(false);
+        ConceptLattice lattice = context.closedSetLattice(false, FastCloseByOne.getInstance());
+        assertEquals(this.concepts(expected), this.concepts(lattice));
+        assertEquals(expected.getEdges().size(), lattice.getEdges().size());
+    }
+
+    /**
+     * Test contexts of more than a word, with removed elements.
+     */
+    @Test
+    public void testLargeIndexes() {
+        Context context = EnumerationOracle.random(3, 70, 70, 3);
+        for (int j = 0; j < 66; j++) {
+            context.removeFromAttributes("a" + j);
+        }
+        for (int i = 0; i < 60; i++) {
+            context.removeFromObservations("o" + i);
+        }
+        ConceptCollector collector = new ConceptCollector(context, true);
+        FastCloseByOne.getInstance().enumerate(context, collector);
+        assertEquals(context.allClosures().size(), collector.size());
+        assertEquals(this.concepts(context.conceptLattice(true)),
+                this.concepts(collector.getLattice(true)));
+    }
+
+    /**
+     * Test contexts without attributes or observations.
+     */
+    @Test
+    public void testEmpty() {
+        ConceptCollector collector = new ConceptCollector(new Context(), true);
+        FastCloseByOne.getInstance().enumerate(new Context(), collector);
+        assertEquals(1, collector.size());
+        Context context = new Context();
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        ConceptLattice lattice = context.conceptLattice(true, FastCloseByOne.getInstance());
+        assertEquals("[[a, b][]]", this.concepts(lattice).toString());
+    }
+
+    /**
+     * Test the enumeration within a budget.
+     */
+    @Test
+    public void testBudget() {
+        Context context = EnumerationOracle.random(5, 12, 10, 3);
+        ConceptLattice expected = context.conceptLattice(true, FastCloseByOne.getInstance());
+        ConceptLattice result = context.conceptLattice(true, FastCloseByOne.getInstance(), new Budget());
+        assertEquals(this.concepts(expected), this.concepts(result));
+        Budget budget = new Budget(0, 5, 0);
+        ConceptCollector collector = new ConceptCollector(context, true, budget);
+        try {
+            FastCloseByOne.getInstance().enumerate(context, collector);
+            fail();
+        } catch (CancellationException e) {
+            assertEquals(5, collector.getConcepts().size());
+            assertEquals("Maximal number of concepts reached", budget.getReason());
+        }
+        collector = new ConceptCollector(context, false, new Budget(0, 5, 0));
+        try {
+            new ParallelCloseByOne(2).enumerate(context, collector);
+            fail();
+        } catch (CancellationException e) {
+            assertEquals(5, collector.getConcepts().size());
+        }
+    }
+
+    /**
+     * Test the partial lattice of an enumeration within a budget.
+     */
+    @Test
+    public void testPartialLattice() {
+        Context context = EnumerationOracle.random(5, 12, 10, 3);
+        Budget budget = new Budget(0, 5, 0);
+        ConceptLattice partial = context.conceptLattice(true, FastCloseByOne.getInstance(), budget);
+        assertTrue(budget.isExhausted());
+        assertEquals(5, partial.getNodes().size());
+        ConceptLattice closed = context.conceptLattice(false, FastCloseByOne.getInstance(), new Budget(0, 5, 0));
+        assertEquals(this.concepts(partial), this.concepts(closed));
+        closed.transitiveReduction();
+        assertEquals(closed.getEdges().size(), partial.getEdges().size());
+    }
+}
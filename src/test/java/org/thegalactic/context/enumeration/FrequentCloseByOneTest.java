@@ -0,0 +1,115 @@
+package org.thegalactic.context.enumeration;
+
+/*
+ * FrequentCloseByOneTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify
+ * it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.thegalactic.context.Context;
+import org.thegalactic.lattice.Concept;
+import org.thegalactic.lattice.ConceptLattice;
+
+/**
+ * Test the org.thegalactic.context.enumeration.FrequentCloseByOne class.
+ */
+public class FrequentCloseByOneTest {
+
+    /**
+     * Returns the intents enumerated by an enumerator whose extent has at
+     * least a number of observations.
+     *
+     * @param enumerator an enumerator
+     * @param context    a context
+     * @param support    minimal number of observations
+     *
+     * @return the intents
+     */
+    private Set<BitSet> intents(ConceptEnumerator enumerator, Context context, final int support) {
+        final Set<BitSet> intents = new HashSet<BitSet>();
+        enumerator.enumerate(context, new ConceptHandler() {
+            /**
+             * Stores a frequent intent, checking that it is new.
+             *
+             * @param extent bitset of observations
+             * @param intent bitset of attributes
+             */
+            @Override
+            public void handle(BitSet extent, BitSet intent) {
+                if (extent.cardinality() >= support) {
+                    assertTrue(intents.add(intent));
+                }
+            }
+        });
+        return intents;
+    }
+
+    /**
+     * Returns the sorted closed sets of a lattice as strings.
+     *
+     * @param lattice a closed set lattice
+     *
+     * @return the closed sets
+     */
+    private TreeSet<String> closedSets(ConceptLattice lattice) {
+        TreeSet<String> closedSets = new TreeSet<String>();
+        for (Object node : lattice.getNodes()) {
+            closedSets.add(((Concept) node).getSetA().toString());
+        }
+        return closedSets;
+    }
+
+    /**
+     * Test the constructor of class FrequentCloseByOne.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor() {
+        new FrequentCloseByOne(-1);
+    }
+
+    /**
+     * Test the enumerate method of class FrequentCloseByOne.
+     */
+    @Test
+    public void testEnumerate() {
+        for (int k = 0; k < 5; k++) {
+            Context context = Context.random(40, 4, 6);
+            for (int support = 0; support <= 41; support += 5) {
+                Set<BitSet> expected = this.intents(FastCloseByOne.getInstance(), context, support);
+                Set<BitSet> result = this.intents(new FrequentCloseByOne(support), context, 0);
+                assertEquals(expected, result);
+            }
+        }
+    }
+
+    /**
+     * Test the closedSetIceberg method of class Context.
+     */
+    @Test
+    public void testClosedSetIceberg() {
+        for (int k = 0; k < 5; k++) {
+            Context context = Context.random(40, 4, 6);
+            for (double support = 0; support <= 1; support += 0.25) {
+                ConceptLattice expected = ConceptLattice.diagramIceberg(context, support);
+                ConceptLattice result = context.closedSetIceberg(support);
+                assertEquals(this.closedSets(expected), this.closedSets(result));
+                assertEquals(expected.getEdges().size(), result.getEdges().size());
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.thegalactic.context.enumeration;
+
+/*
+ * LinearClosedMinerTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify
+ * it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.BitSet;
+import java.util.Map;
+
+import org.thegalactic.context.Context;
+
+/**
+ * Test the org.thegalactic.context.enumeration.LinearClosedMiner class.
+ */
+public class LinearClosedMinerTest {
+
+    /**
+     * Test the constructor of class LinearClosedMiner.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor() {
+        new LinearClosedMiner(-1);
+    }
+
+    /**
+     * Test the enumerate method of class LinearClosedMiner.
+     */
+    @Test
+    public void testEnumerate() {
+        EnumerationOracle.check(new EnumerationOracle.Miner() {
+            /**
+             * Creates a miner.
+             *
+             * @param support minimal support of the concepts
+             *
+             * @return the miner
+             */
+            @Override
+            public ConceptEnumerator create(int support) {
+                return new LinearClosedMiner(support);
+            }
+        });
+    }
+
+    /**
+     * Test the merge method of class LinearClosedMiner.Transaction.
+     */
+    @Test
+    public void testMerge() {
+        LinearClosedMiner.Transaction transaction = new LinearClosedMiner.Transaction(new int[]{1, 3, 5, 7, 8}, 3, 1, new int[]{0});
+        transaction.merge(new int[]{2, 3, 5, 7, 8}, 3, 2, new int[]{4, 6});
+        assertArrayEquals(new int[]{3, 5, 7, 8}, transaction.getItems());
+        assertEquals(2, transaction.getPrefix());
+        assertEquals(3, transaction.getWeight());
+        assertArrayEquals(new int[]{0, 4, 6}, transaction.getTids());
+        transaction.merge(new int[]{7, 8}, 0, 1, new int[]{9});
+        assertArrayEquals(new int[]{7, 8}, transaction.getItems());
+        assertEquals(0, transaction.getPrefix());
+        assertEquals(4, transaction.getWeight());
+        assertArrayEquals(new int[]{0, 4, 6, 9}, transaction.getTids());
+    }
+
+    /**
+     * Test the equals and hashCode methods of class LinearClosedMiner.Suffix.
+     */
+    @Test
+    public void testSuffix() {
+        LinearClosedMiner.Suffix suffix = new LinearClosedMiner.Suffix(new int[]{1, 3, 5, 7}, 2);
+        LinearClosedMiner.Suffix same = new LinearClosedMiner.Suffix(new int[]{0, 5, 7}, 1);
+        assertEquals(suffix, same);
+        assertEquals(suffix.hashCode(), same.hashCode());
+        assertFalse(suffix.equals(new LinearClosedMiner.Suffix(new int[]{1, 3, 5, 7}, 1)));
+        assertFalse(suffix.equals(new int[]{5, 7}));
+    }
+
+    /**
+     * Test that the merged rows keep their observations.
+     */
+    @Test
+    public void testEnumerateMergedRows() {
+        Context context = new Context();
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToAttributes("c");
+        for (int i = 0; i < 10; i++) {
+            context.addToObservations("o" + i);
+            context.addExtentIntent("o" + i, "a");
+            context.addExtentIntent("o" + i, "b");
+        }
+        context.addToObservations("o10");
+        context.addExtentIntent("o10", "c");
+        Map<BitSet, BitSet> concepts = EnumerationOracle.concepts(new LinearClosedMiner(10), context);
+        assertEquals(2, concepts.size());
+        BitSet intent = new BitSet();
+        intent.set(0, 2);
+        BitSet extent = new BitSet();
+        extent.set(0, 10);
+        assertEquals(extent, concepts.get(intent));
+    }
+}
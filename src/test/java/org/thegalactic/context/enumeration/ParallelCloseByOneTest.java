@@ -0,0 +1,61 @@
+package org.thegalactic.context.enumeration;
+
+/*
+ * ParallelCloseByOneTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify
+ * it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.BitSet;
+import java.util.Map;
+
+import org.thegalactic.context.Context;
+import org.thegalactic.lattice.ConceptLattice;
+
+/**
+ * Test the org.thegalactic.context.enumeration.ParallelCloseByOne class.
+ */
+public class ParallelCloseByOneTest {
+
+    /**
+     * Test that the concepts are the ones of the sequential enumeration.
+     */
+    @Test
+    public void testEnumerate() {
+        Context context = EnumerationOracle.random(11, 60, 24, 3);
+        Map<BitSet, BitSet> expected = EnumerationOracle.concepts(FastCloseByOne.getInstance(), context);
+        for (int parallelism = 1; parallelism <= 4; parallelism++) {
+            assertEquals(expected, EnumerationOracle.concepts(new ParallelCloseByOne(parallelism), context));
+        }
+    }
+
+    /**
+     * Test the concept lattice.
+     */
+    @Test
+    public void testConceptLattice() {
+        Context context = EnumerationOracle.random(5, 12, 10, 3);
+        ConceptLattice expected = context.conceptLattice(true, FastCloseByOne.getInstance());
+        ConceptLattice lattice = context.conceptLattice(true, new ParallelCloseByOne(3));
+        assertEquals(expected.getNodes().size(), lattice.getNodes().size());
+        assertEquals(expected.getEdges().size(), lattice.getEdges().size());
+    }
+
+    /**
+     * Test the parallelism.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testParallelism() {
+        assertEquals(Runtime.getRuntime().availableProcessors(), new ParallelCloseByOne().getParallelism());
+        new ParallelCloseByOne(0);
+    }
+}
@@ -0,0 +1,103 @@
+package org.thegalactic.context.enumeration;
+
+/*
+ * PatternTreeMinerTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify
+ * it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.thegalactic.context.Context;
+import org.thegalactic.lattice.ConceptLattice;
+
+/**
+ * Test the org.thegalactic.context.enumeration.PatternTreeMiner class.
+ */
+public class PatternTreeMinerTest {
+
+    /**
+     * Test the constructor of class PatternTreeMiner.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor() {
+        new PatternTreeMiner(-1);
+    }
+
+    /**
+     * Test the enumerate method of class PatternTreeMiner.
+     */
+    @Test
+    public void testEnumerate() {
+        EnumerationOracle.check(new EnumerationOracle.Miner() {
+            /**
+             * Creates a miner.
+             *
+             * @param support minimal support of the concepts
+             *
+             * @return the miner
+             */
+            @Override
+            public ConceptEnumerator create(int support) {
+                return new PatternTreeMiner(support);
+            }
+        });
+    }
+
+    /**
+     * Test the subsumption of the CFI-tree of class PatternTreeMiner.
+     */
+    @Test
+    public void testSubsumes() {
+        PatternTreeMiner.Tree closed = new PatternTreeMiner.Tree(6);
+        closed.max(new int[]{0, 2, 4}, 5);
+        assertTrue(closed.subsumes(new int[]{0, 2, 4}, 5));
+        assertTrue(closed.subsumes(new int[]{0, 4}, 5));
+        assertTrue(closed.subsumes(new int[]{2}, 3));
+        assertFalse(closed.subsumes(new int[]{0, 4}, 6));
+        assertFalse(closed.subsumes(new int[]{1, 4}, 2));
+        assertFalse(closed.subsumes(new int[]{5}, 1));
+        closed.max(new int[]{1, 4}, 7);
+        assertTrue(closed.subsumes(new int[]{4}, 7));
+        assertTrue(closed.subsumes(new int[]{1, 4}, 7));
+        assertFalse(closed.subsumes(new int[]{0, 4}, 6));
+        closed.max(new int[]{0, 2}, 8);
+        assertTrue(closed.subsumes(new int[]{0, 2}, 8));
+        assertFalse(closed.subsumes(new int[]{0, 2, 4}, 6));
+    }
+
+    /**
+     * Test the counts of the conditional trees of class PatternTreeMiner.
+     */
+    @Test
+    public void testAdd() {
+        PatternTreeMiner.Tree tree = new PatternTreeMiner.Tree(5);
+        tree.add(new int[]{0, 2, 3}, 2, 3);
+        tree.add(new int[]{0, 2, 4}, 3, 4);
+        assertTrue(tree.subsumes(new int[]{0, 2}, 7));
+        assertFalse(tree.subsumes(new int[]{0, 2}, 8));
+        assertTrue(tree.subsumes(new int[]{2, 4}, 4));
+        assertFalse(tree.subsumes(new int[]{3}, 1));
+    }
+
+    /**
+     * Test the iceberg of the concepts enumerated by class PatternTreeMiner.
+     */
+    @Test
+    public void testIceberg() {
+        Context context = EnumerationOracle.random(7, 50, 10, 3);
+        ConceptLattice expected = context.closedSetIceberg(0.2);
+        ConceptLattice result = context.closedSetLattice(true, new PatternTreeMiner(10));
+        assertEquals(expected.getNodes().size(), result.getNodes().size());
+        assertEquals(expected.getEdges().size(), result.getEdges().size());
+    }
+}
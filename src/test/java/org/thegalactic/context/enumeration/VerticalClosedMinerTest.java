@@ -0,0 +1,152 @@
+package org.thegalactic.context.enumeration;
+
+/*
+ * VerticalClosedMinerTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify
+ * it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import org.thegalactic.context.Context;
+import org.thegalactic.util.Budget;
+
+/**
+ * Test the org.thegalactic.context.enumeration.VerticalClosedMiner class.
+ */
+public class VerticalClosedMinerTest {
+
+    /**
+     * Test the constructor of class VerticalClosedMiner.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor() {
+        new VerticalClosedMiner(-1);
+    }
+
+    /**
+     * Test the constructor of class VerticalClosedMiner with a number of
+     * threads.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorParallelism() {
+        new VerticalClosedMiner(1, 0);
+    }
+
+    /**
+     * Test the getParallelism method of class VerticalClosedMiner.
+     */
+    @Test
+    public void testGetParallelism() {
+        assertEquals(3, new VerticalClosedMiner(1, 3).getParallelism());
+        assertEquals(Runtime.getRuntime().availableProcessors(), new VerticalClosedMiner(1).getParallelism());
+    }
+
+    /**
+     * Test the enumerate method of class VerticalClosedMiner.
+     */
+    @Test
+    public void testEnumerate() {
+        EnumerationOracle.check(new EnumerationOracle.Miner() {
+            /**
+             * Creates a miner.
+             *
+             * @param support minimal support of the concepts
+             *
+             * @return the miner
+             */
+            @Override
+            public ConceptEnumerator create(int support) {
+                return new VerticalClosedMiner(support, 1 + support % 4);
+            }
+        });
+    }
+
+    /**
+     * Test the property method of class VerticalClosedMiner.
+     */
+    @Test
+    public void testProperty() {
+        assertEquals(1, VerticalClosedMiner.property(5, 5, 5));
+        assertEquals(2, VerticalClosedMiner.property(5, 5, 7));
+        assertEquals(3, VerticalClosedMiner.property(5, 7, 5));
+        assertEquals(4, VerticalClosedMiner.property(3, 7, 5));
+        assertEquals(4, VerticalClosedMiner.property(0, 7, 5));
+    }
+
+    /**
+     * Test the diffset method of class VerticalClosedMiner, before and after
+     * the switch from extents to diffsets.
+     */
+    @Test
+    public void testDiffset() {
+        Random random = new Random(3);
+        for (int k = 0; k < 20; k++) {
+            BitSet prefix = this.random(random);
+            BitSet xi = this.random(random);
+            xi.and(prefix);
+            BitSet xj = this.random(random);
+            xj.and(prefix);
+            BitSet expected = (BitSet) xi.clone();
+            expected.andNot(xj);
+            assertEquals(expected, VerticalClosedMiner.diffset(xi, xj, false));
+            BitSet di = (BitSet) prefix.clone();
+            di.andNot(xi);
+            BitSet dj = (BitSet) prefix.clone();
+            dj.andNot(xj);
+            BitSet diffset = VerticalClosedMiner.diffset(di, dj, true);
+            assertEquals(expected, diffset);
+            BitSet common = (BitSet) xi.clone();
+            common.and(xj);
+            assertEquals(common.cardinality(), xi.cardinality() - diffset.cardinality());
+            assertEquals(VerticalClosedMiner.sum(common), VerticalClosedMiner.sum(xi) - VerticalClosedMiner.sum(diffset));
+        }
+    }
+
+    /**
+     * Returns a random bitset of observations.
+     *
+     * @param random a random generator
+     *
+     * @return the bitset
+     */
+    private BitSet random(Random random) {
+        BitSet bitset = new BitSet();
+        for (int i = 0; i < 40; i++) {
+            if (random.nextInt(3) > 0) {
+                bitset.set(i);
+            }
+        }
+        return bitset;
+    }
+
+    /**
+     * Test that the concepts are reported as they are found, so that a
+     * budget bounds the mining.
+     */
+    @Test
+    public void testBudget() {
+        Context context = EnumerationOracle.random(3, 60, 12, 2);
+        Budget budget = new Budget(0, 5, 0);
+        ConceptCollector collector = new ConceptCollector(context, true, budget);
+        try {
+            new VerticalClosedMiner(0, 2).enumerate(context, collector);
+            fail();
+        } catch (CancellationException e) {
+            assertEquals(5, collector.getConcepts().size());
+            assertEquals("Maximal number of concepts reached", budget.getReason());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+/*
+ * package-info.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+
+/**
+ * This package is for testing the org.thegalactic.context.enumeration package.
+ */
+package org.thegalactic.context.enumeration;
@@ -0,0 +1,155 @@
+package org.thegalactic.context.io;
+
+/*
+ * ContextSerializerBinaryTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.BitSet;
+import java.util.TreeSet;
+
+import org.thegalactic.context.Context;
+import org.thegalactic.context.MappedContext;
+
+/**
+ * Test the org.thegalactic.context.io.ContextSerializerBinary class.
+ */
+public class ContextSerializerBinaryTest {
+
+    /**
+     * Test getInstance.
+     */
+    @Test
+    public void testGetInstance() {
+        ContextSerializerBinary serializer = ContextSerializerBinary.getInstance();
+        assertEquals(serializer, ContextSerializerBinary.getInstance());
+    }
+
+    /**
+     * Test write and read.
+     *
+     * @throws IOException When an IOException occurs
+     */
+    @Test
+    public void testReadWrite() throws IOException {
+        File file = File.createTempFile("junit", ".bin");
+        String filename = file.getPath();
+        Context context = new Context();
+        for (int j = 0; j < 70; j++) {
+            context.addToAttributes("a" + j);
+        }
+        for (int i = 0; i < 5; i++) {
+            context.addToObservations(i);
+            for (int j = i; j < 70; j += i + 1) {
+                context.addExtentIntent(i, "a" + j);
+            }
+        }
+        context.save(filename);
+        Context copy = new Context(filename);
+        assertEquals(context.getAttributes(), copy.getAttributes());
+        assertEquals(context.getObservations(), copy.getObservations());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(context.getIntent(i), copy.getIntent(i));
+        }
+        assertEquals(context.getExtent("a69"), copy.getExtent("a69"));
+        file.delete();
+    }
+
+    /**
+     * Test map.
+     *
+     * @throws IOException When an IOException occurs
+     */
+    @Test
+    public void testMap() throws IOException {
+        File file = File.createTempFile("junit", ".bin");
+        String filename = file.getPath();
+        Context context = new Context();
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToAttributes("c");
+        context.addToObservations("1");
+        context.addToObservations("2");
+        context.addToObservations("3");
+        context.addExtentIntent("1", "a");
+        context.addExtentIntent("1", "b");
+        context.addExtentIntent("2", "a");
+        context.addExtentIntent("3", "b");
+        context.addExtentIntent("3", "c");
+        context.save(filename);
+        MappedContext mapped = MappedContext.open(filename);
+        assertEquals(3, mapped.getAttributesSize());
+        assertEquals(3, mapped.getObservationsSize());
+        assertEquals("b", mapped.getAttribute(1));
+        assertEquals(2, mapped.getObservationIndex("3"));
+        assertEquals(-1, mapped.getAttributeIndex("d"));
+        BitSet set = new BitSet();
+        set.set(2);
+        assertEquals("{1, 2}", mapped.closure(set).toString());
+        assertEquals("{2}", mapped.getExtentBitSet(set).toString());
+        TreeSet<Comparable> attributes = new TreeSet<Comparable>();
+        assertEquals("[]", mapped.closure(attributes).toString());
+        attributes.add("c");
+        assertEquals(context.closure(attributes), mapped.closure(attributes));
+        assertEquals(context.getSet(), mapped.getSet());
+        assertEquals(context.closedSetLattice(true).getNodes().size(), mapped.closedSetLattice(true).getNodes().size());
+        assertEquals(context.getIntent("3"), mapped.toContext().getIntent("3"));
+        file.delete();
+    }
+
+    /**
+     * Test read of an invalid file.
+     *
+     * @throws IOException When an IOException occurs
+     */
+    @Test(expected = IOException.class)
+    public void testReadInvalid() throws IOException {
+        File file = File.createTempFile("junit", ".bin");
+        file.deleteOnExit();
+        FileWriter writer = new FileWriter(file);
+        writer.write("Observations: 1 2 3\nAttributes: a b c d e\n");
+        writer.close();
+        new Context(file.getPath());
+    }
+
+    /**
+     * Test read of a file whose string length is misformed.
+     *
+     * @throws IOException When an IOException occurs
+     */
+    @Test
+    public void testReadMisformedLength() throws IOException {
+        File file = File.createTempFile("junit", ".bin");
+        file.deleteOnExit();
+        Context context = new Context();
+        context.addToAttributes("a");
+        context.addToObservations("1");
+        context.addExtentIntent("1", "a");
+        context.save(file.getPath());
+        // length of the first observation, after the header and its tag
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.seek(33);
+        raf.writeInt(Integer.MAX_VALUE);
+        raf.close();
+        try {
+            new Context(file.getPath());
+            fail("A misformed length must not be read");
+        } catch (IOException e) {
+            assertEquals("Misformed binary context", e.getMessage());
+        }
+    }
+}
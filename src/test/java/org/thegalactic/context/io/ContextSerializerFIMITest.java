@@ -13,7 +13,12 @@ package org.thegalactic.context.io;
  */
 import org.junit.Test;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
 
 import org.thegalactic.context.Context;
 import static org.junit.Assert.assertEquals;
@@ -61,4 +66,57 @@ public class ContextSerializerFIMITest {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Test read from a byte channel.
+     *
+     * @throws IOException When an IOException occurs
+     */
+    @Test
+    public void testReadChannel() throws IOException {
+        String data = "1 3 \r\n\n  20\t3\n2000000000 1";
+        Context context = new Context();
+        ContextSerializerFIMI.getInstance().read(context, Channels.newChannel(new ByteArrayInputStream(data.getBytes("US-ASCII"))));
+        assertEquals("[O1, O2, O3, O4]", context.getObservations().toString());
+        assertEquals("[1, 3, 20, 2000000000]", context.getAttributes().toString());
+        assertEquals("[1, 3]", context.getIntent("O1").toString());
+        assertEquals("[]", context.getIntent("O2").toString());
+        assertEquals("[3, 20]", context.getIntent("O3").toString());
+        assertEquals("[1, 2000000000]", context.getIntent("O4").toString());
+        Context copy = new Context();
+        ContextSerializerFIMI.getInstance().read(copy, new BufferedReader(new StringReader(data + "\n")));
+        assertEquals(context.getObservations(), copy.getObservations());
+        assertEquals(context.getExtent(3), copy.getExtent(3));
+        assertEquals(context.getExtent(2000000000), copy.getExtent(2000000000));
+    }
+
+    /**
+     * Test read of an invalid file.
+     *
+     * @throws IOException When an IOException occurs
+     */
+    @Test(expected = IOException.class)
+    public void testReadInvalid() throws IOException {
+        ContextSerializerFIMI.getInstance().read(new Context(), new BufferedReader(new StringReader("1 2\n3 a\n")));
+    }
+
+    /**
+     * Test read of a negative attribute.
+     *
+     * @throws IOException When an IOException occurs
+     */
+    @Test(expected = IOException.class)
+    public void testReadNegative() throws IOException {
+        ContextSerializerFIMI.getInstance().read(new Context(), new BufferedReader(new StringReader("1 2\n-3 1\n")));
+    }
+
+    /**
+     * Test read of an attribute overflowing an integer.
+     *
+     * @throws IOException When an IOException occurs
+     */
+    @Test(expected = IOException.class)
+    public void testReadOverflow() throws IOException {
+        ContextSerializerFIMI.getInstance().read(new Context(), new BufferedReader(new StringReader("1 2147483648\n")));
+    }
 }
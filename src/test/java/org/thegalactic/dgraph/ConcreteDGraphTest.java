@@ -368,6 +368,40 @@ public class ConcreteDGraphTest {
         assertTrue(graph.getPredecessorEdges(target).isEmpty());
     }
 
+    /**
+     * Test the removeNode method on a node with several incoming and outgoing
+     * edges.
+     */
+    @Test
+    public void testRemoveNodeSeveralEdges() {
+        Node node = new Node();
+        Node source1 = new Node();
+        Node source2 = new Node();
+        Node target1 = new Node();
+        Node target2 = new Node();
+        ConcreteDGraph graph = new ConcreteDGraph();
+        graph.addNode(node);
+        graph.addNode(source1);
+        graph.addNode(source2);
+        graph.addNode(target1);
+        graph.addNode(target2);
+        graph.addEdge(source1, node);
+        graph.addEdge(source2, node);
+        graph.addEdge(node, target1);
+        graph.addEdge(node, target2);
+        graph.addEdge(node, node);
+        graph.addEdge(source1, target1);
+        assertTrue(graph.removeNode(node));
+        assertFalse(graph.containsNode(node));
+        assertEquals(4, graph.sizeNodes());
+        assertEquals(1, graph.sizeEdges());
+        assertTrue(graph.containsEdge(source1, target1));
+        assertEquals(1, graph.getSuccessorEdges(source1).size());
+        assertTrue(graph.getSuccessorEdges(source2).isEmpty());
+        assertEquals(1, graph.getPredecessorEdges(target1).size());
+        assertTrue(graph.getPredecessorEdges(target2).isEmpty());
+    }
+
     /**
      * Test the removeNodes method.
      */
@@ -16,10 +16,15 @@ import org.thegalactic.rule.Rule;
 import org.junit.Test;
 
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertEquals;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
 
+import org.thegalactic.util.Budget;
 import org.thegalactic.util.ComparableSet;
 import org.thegalactic.context.Context;
 
@@ -134,6 +139,93 @@ public class ClosureSystemTest {
         assertEquals(context.getReducibleElements().size(), 1);
     }
 
+    /**
+     * Test for the closures method for Context.
+     */
+    @Test
+    public void testclosuresCTX() {
+        Context context = new Context();
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToAttributes("c");
+        context.addToObservations("1");
+        context.addToObservations("2");
+        context.addToObservations("3");
+        context.addExtentIntent("1", "a");
+        context.addExtentIntent("1", "b");
+        context.addExtentIntent("2", "a");
+        context.addExtentIntent("3", "b");
+        context.addExtentIntent("3", "c");
+        Iterator<Concept> closures = context.closures();
+        for (Concept closure : context.allClosures()) {
+            assertTrue(closures.hasNext());
+            assertEquals(closure, closures.next());
+        }
+        assertFalse(closures.hasNext());
+        assertEquals(context.nextClosure(new Concept(context.getSet(), false)).toString(), "[]");
+    }
+
+    /**
+     * Test for the closures method for an empty ImplicationalSystem.
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void testclosuresEmpty() {
+        Iterator<Concept> closures = new ImplicationalSystem().closures();
+        assertEquals(closures.next().getSetA().size(), 0);
+        assertFalse(closures.hasNext());
+        closures.next();
+    }
+
+    /**
+     * Test for the closures method within a budget.
+     */
+    @Test
+    public void testclosuresBudget() {
+        Context context = Context.random(20, 3, 4);
+        Iterator<Concept> closures = context.closures(new Budget(0, 4, 0));
+        int count = 0;
+        try {
+            while (closures.hasNext()) {
+                closures.next();
+                count++;
+            }
+        } catch (CancellationException e) {
+            assertEquals(4, count);
+        }
+        assertEquals(4, count);
+        Budget budget = new Budget();
+        budget.cancel();
+        assertEquals(context.closedSetLattice(false, true).getEdges().size(),
+                context.closedSetLattice(false, true, new Budget()).getEdges().size());
+        assertEquals(0, context.closedSetLattice(false, true, budget).getNodes().size());
+        budget = new Budget(0, 4, 0);
+        ConceptLattice partial = context.closedSetLattice(false, true, budget);
+        assertTrue(budget.isExhausted());
+        assertEquals(4, partial.getNodes().size());
+        assertTrue(partial.getEdges().size() >= 3);
+    }
+
+    /**
+     * Test for the closedSetLattice method within a budget.
+     */
+    @Test
+    public void testclosedSetLatticeBudget() {
+        Context context = Context.random(20, 3, 4);
+        for (boolean diagram : new boolean[]{true, false}) {
+            ConceptLattice expected = context.closedSetLattice(diagram);
+            Budget budget = new Budget();
+            ConceptLattice lattice = context.closedSetLattice(diagram, budget);
+            assertFalse(budget.isExhausted());
+            assertEquals(expected.getNodes().size(), lattice.getNodes().size());
+            assertEquals(expected.getEdges().size(), lattice.getEdges().size());
+            budget = new Budget(0, 4, 0);
+            ConceptLattice partial = context.closedSetLattice(diagram, budget);
+            assertTrue(budget.isExhausted());
+            assertEquals(4, partial.getNodes().size());
+            assertTrue(partial.getEdges().size() >= 3);
+        }
+    }
+
     /**
      * Test for the nextClosure method for Context.
      */
@@ -22,10 +22,14 @@ import java.util.Vector;
 import java.util.Scanner;
 import java.io.File;
 
+import org.thegalactic.util.Budget;
 import org.thegalactic.util.ComparableSet;
 import org.thegalactic.dgraph.DAGraph;
+import org.thegalactic.dgraph.Edge;
 import org.thegalactic.dgraph.Node;
 import org.thegalactic.context.Context;
+import org.thegalactic.context.enumeration.FastCloseByOne;
+import org.thegalactic.rule.ImplicationalSystem;
 
 /**
  * Test of class ConceptLattice.
@@ -363,6 +367,37 @@ public class ConceptLatticeTest {
         assertEquals(9, result.getEdges().size());
     }
 
+    /**
+     * Returns the descriptions of the edges of a lattice.
+     *
+     * @param lattice a lattice
+     *
+     * @return the descriptions
+     */
+    private TreeSet<String> edges(ConceptLattice lattice) {
+        TreeSet<String> edges = new TreeSet<String>();
+        for (Object edge : lattice.getEdges()) {
+            edges.add(((Edge) edge).getSource() + "->" + ((Edge) edge).getTarget());
+        }
+        return edges;
+    }
+
+    /**
+     * Test of coverLattice method, of class ConceptLattice.
+     */
+    @Test
+    public void testCoverLattice() {
+        for (int k = 0; k < 5; k++) {
+            Context cs = Context.random(10, 3, 4);
+            ConceptLattice expected = ConceptLattice.diagramLattice(cs);
+            ConceptLattice result = ConceptLattice.coverLattice(cs);
+            assertEquals(expected.getNodes().size(), result.getNodes().size());
+            assertEquals(expected.getEdges().size(), result.getEdges().size());
+            assertEquals(this.edges(expected), this.edges(result));
+            assertEquals(result.getEdges().size(), cs.closedSetLattice(false, true).getEdges().size());
+        }
+    }
+
     /**
      * Test of diagramLattice method, of class ConceptLattice.
      */
@@ -493,4 +528,245 @@ public class ConceptLatticeTest {
         ConceptLattice l = cs.conceptLattice(true);
         assertEquals(l.getNodes().size(), l.iceberg((float) 0.0).getNodes().size());
     }
+
+    /**
+     * Returns the descriptions of the valuated edges of the dependance graph
+     * of a lattice.
+     *
+     * @param lattice a lattice
+     *
+     * @return the descriptions
+     */
+    private TreeSet<String> dependencies(ConceptLattice lattice) {
+        TreeSet<String> edges = new TreeSet<String>();
+        for (Object edge : lattice.getDependencyGraph().getEdges()) {
+            edges.add(((Edge) edge).getSource() + "->" + ((Edge) edge).getTarget() + ((Edge) edge).getContent());
+        }
+        return edges;
+    }
+
+    /**
+     * Test of diagramLattice method in parallel, of class ConceptLattice.
+     */
+    @Test
+    public void testParallelDiagramLattice() {
+        for (int k = 0; k < 3; k++) {
+            Context cs = Context.random(12, 3, 4);
+            ConceptLattice expected = ConceptLattice.diagramLattice(cs);
+            ConceptLattice result = ConceptLattice.diagramLattice(cs, 4);
+            assertEquals(expected.getNodes().size(), result.getNodes().size());
+            assertEquals(this.edges(expected), this.edges(result));
+            assertEquals(this.dependencies(expected), this.dependencies(result));
+            ImplicationalSystem is = ImplicationalSystem.random(7, 4);
+            assertEquals(this.edges(ConceptLattice.diagramLattice(is)), this.edges(ConceptLattice.diagramLattice(is, 3)));
+        }
+    }
+
+    /**
+     * Test of diagramIceberg method in parallel, of class ConceptLattice.
+     */
+    @Test
+    public void testParallelDiagramIceberg() {
+        Context cs = Context.random(12, 3, 4);
+        ConceptLattice expected = ConceptLattice.diagramIceberg(cs, 0.3);
+        ConceptLattice result = ConceptLattice.diagramIceberg(cs, 0.3, 2);
+        assertEquals(this.edges(expected), this.edges(result));
+        assertTrue(result.getNodes().size() <= ConceptLattice.diagramLattice(cs).getNodes().size());
+    }
+
+    /**
+     * Test of diagramLattice and diagramIceberg methods in parallel with a
+     * budget, of class ConceptLattice.
+     */
+    @Test
+    public void testParallelDiagramLatticeBudget() {
+        Context cs = Context.random(12, 3, 4);
+        ConceptLattice expected = ConceptLattice.diagramLattice(cs);
+        assertEquals(this.edges(expected), this.edges(ConceptLattice.diagramLattice(cs, 3, new Budget())));
+        Budget budget = new Budget();
+        budget.cancel();
+        assertEquals(0, ConceptLattice.diagramLattice(cs, 3, budget).getNodes().size());
+        budget = new Budget(0, 5, 0);
+        ConceptLattice partial = ConceptLattice.diagramLattice(cs, 3, budget);
+        assertTrue(budget.isExhausted());
+        assertTrue(partial.getNodes().size() >= 5);
+        assertTrue(partial.getNodes().size() <= 5 + 3);
+        assertTrue(this.edges(expected).containsAll(this.edges(partial)));
+        budget = new Budget(0, 4, 0);
+        partial = ConceptLattice.diagramIceberg(cs, 0.1, 2, budget);
+        assertTrue(budget.isExhausted());
+        assertTrue(partial.getNodes().size() <= 4 + 2);
+        assertTrue(this.edges(ConceptLattice.diagramIceberg(cs, 0.1)).containsAll(this.edges(partial)));
+    }
+
+    /**
+     * Test of diagramLattice method in parallel, of class ConceptLattice, with
+     * an error thrown by a task.
+     */
+    @Test(expected = OutOfMemoryError.class)
+    public void testParallelDiagramLatticeError() {
+        Context cs = new Context() {
+            /**
+             * Fails for the sets of more than one attribute.
+             *
+             * @param set a set of attributes
+             *
+             * @return the closure of the set
+             */
+            @Override
+            public TreeSet<Comparable> closure(TreeSet<Comparable> set) {
+                if (set.size() > 1) {
+                    throw new OutOfMemoryError("closure");
+                }
+                return super.closure(set);
+            }
+        };
+        for (int k = 0; k < 5; k++) {
+            cs.addToAttributes(k);
+            cs.addToObservations(k);
+            for (int j = 0; j <= k; j++) {
+                cs.addExtentIntent(k, j);
+            }
+        }
+        ConceptLattice.diagramLattice(cs, 2);
+    }
+
+    /**
+     * Test of diagramLattice method on a chain, of class ConceptLattice.
+     */
+    @Test
+    public void testDiagramLatticeChain() {
+        Context cs = new Context();
+        for (int k = 0; k < 40; k++) {
+            cs.addToAttributes(k);
+            cs.addToObservations(k);
+            for (int j = 0; j <= k; j++) {
+                cs.addExtentIntent(k, j);
+            }
+        }
+        ConceptLattice result = ConceptLattice.diagramLattice(cs);
+        assertEquals(40, result.getNodes().size());
+        assertEquals(39, result.getEdges().size());
+        assertEquals(this.edges(result), this.edges(ConceptLattice.diagramLattice(cs, 4)));
+    }
+
+    /**
+     * Returns the descriptions of the concepts of a lattice.
+     *
+     * @param lattice a lattice
+     *
+     * @return the descriptions
+     */
+    private TreeSet<String> concepts(ConceptLattice lattice) {
+        TreeSet<String> concepts = new TreeSet<String>();
+        for (Object node : lattice.getNodes()) {
+            concepts.add(((Concept) node).getSetA() + "" + ((Concept) node).getSetB());
+        }
+        return concepts;
+    }
+
+    /**
+     * Test of addObject method, of class ConceptLattice.
+     */
+    @Test
+    public void testAddObject() {
+        for (int k = 0; k < 5; k++) {
+            Context cs = Context.random(15, 3, 4);
+            Context partial = new Context();
+            partial.addAllToAttributes(cs.getAttributes());
+            ConceptLattice result = partial.conceptLattice(true, FastCloseByOne.getInstance());
+            for (Comparable obs : cs.getObservations()) {
+                partial.addToObservations(obs);
+                for (Comparable att : cs.getIntent(obs)) {
+                    partial.addExtentIntent(obs, att);
+                }
+                Concept concept = result.addObject(obs, cs.getIntent(obs));
+                assertEquals(partial.closure(cs.getIntent(obs)), concept.getSetA());
+                ConceptLattice expected = partial.conceptLattice(true, FastCloseByOne.getInstance());
+                assertEquals(this.concepts(expected), this.concepts(result));
+                assertEquals(this.edges(expected), this.edges(result));
+            }
+        }
+    }
+
+    /**
+     * Test of addObject method with new attributes, of class ConceptLattice.
+     */
+    @Test
+    public void testAddObjectNewAttributes() {
+        ConceptLattice result = new ConceptLattice();
+        TreeSet<Comparable> intent = new TreeSet<Comparable>();
+        intent.add("a");
+        result.addObject("1", intent);
+        intent.add("b");
+        result.addObject("2", intent);
+        intent.remove("a");
+        intent.add("c");
+        result.addObject("3", intent);
+        assertEquals("[[][1, 2, 3], [a, b, c][], [a, b][2], [a][1, 2], [b, c][3], [b][2, 3]]",
+                this.concepts(result).toString());
+        assertEquals(7, result.getEdges().size());
+    }
+
+    /**
+     * Test of addObject method, of class ConceptLattice, with the canonical
+     * direct basis of the updated lattice.
+     */
+    @Test
+    public void testAddObjectBasis() {
+        for (int k = 0; k < 5; k++) {
+            Context cs = Context.random(12, 3, 5);
+            Context partial = new Context();
+            partial.addAllToAttributes(cs.getAttributes());
+            ConceptLattice result = partial.conceptLattice(true);
+            for (Comparable obs : cs.getObservations()) {
+                partial.addToObservations(obs);
+                for (Comparable att : cs.getIntent(obs)) {
+                    partial.addExtentIntent(obs, att);
+                }
+                result.addObject(obs, cs.getIntent(obs));
+                assertEquals(partial.conceptLattice(true).getCanonicalDirectBasis().getRules(),
+                        result.getCanonicalDirectBasis().getRules());
+            }
+        }
+    }
+
+    /**
+     * Test of removeObject method, of class ConceptLattice.
+     */
+    @Test
+    public void testRemoveObject() {
+        for (int k = 0; k < 5; k++) {
+            Context cs = Context.random(15, 3, 4);
+            ConceptLattice result = cs.conceptLattice(true, FastCloseByOne.getInstance());
+            for (Comparable obs : new TreeSet<Comparable>(cs.getObservations())) {
+                TreeSet<Comparable> intent = cs.getIntent(obs);
+                assertTrue(result.removeObject(obs, intent));
+                assertFalse(result.removeObject(obs, intent));
+                cs.removeFromObservations(obs);
+                ConceptLattice expected = cs.conceptLattice(true, FastCloseByOne.getInstance());
+                assertEquals(this.concepts(expected), this.concepts(result));
+                assertEquals(this.edges(expected), this.edges(result));
+            }
+            assertEquals(1, result.getNodes().size());
+        }
+    }
+
+    /**
+     * Test of removeObject method, of class ConceptLattice, with the canonical
+     * direct basis of the updated lattice.
+     */
+    @Test
+    public void testRemoveObjectBasis() {
+        for (int k = 0; k < 5; k++) {
+            Context cs = Context.random(12, 3, 5);
+            ConceptLattice result = cs.conceptLattice(true);
+            for (Comparable obs : new TreeSet<Comparable>(cs.getObservations())) {
+                assertTrue(result.removeObject(obs, cs.getIntent(obs)));
+                cs.removeFromObservations(obs);
+                assertEquals(cs.conceptLattice(true).getCanonicalDirectBasis().getRules(),
+                        result.getCanonicalDirectBasis().getRules());
+            }
+        }
+    }
 }
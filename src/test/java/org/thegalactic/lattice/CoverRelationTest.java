@@ -0,0 +1,110 @@
+package org.thegalactic.lattice;
+
+/*
+ * CoverRelationTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import org.thegalactic.util.Budget;
+
+/**
+ * Test the org.thegalactic.lattice.CoverRelation class.
+ */
+public class CoverRelationTest {
+
+    /**
+     * Returns a bitset.
+     *
+     * @param indexes indexes of the set bits
+     *
+     * @return the bitset
+     */
+    private BitSet bits(int... indexes) {
+        BitSet set = new BitSet();
+        for (int index : indexes) {
+            set.set(index);
+        }
+        return set;
+    }
+
+    /**
+     * Test the lower covers of the subsets of a set.
+     */
+    @Test
+    public void testLowerCovers() {
+        List<BitSet> sets = new ArrayList<BitSet>();
+        sets.add(this.bits(0, 1, 2));
+        sets.add(this.bits(0, 1));
+        sets.add(this.bits(2));
+        sets.add(this.bits());
+        sets.add(this.bits(0));
+        sets.add(this.bits(1));
+        int[][] covers = CoverRelation.lowerCovers(sets);
+        assertEquals("[1, 2]", Arrays.toString(covers[0]));
+        assertEquals("[4, 5]", Arrays.toString(covers[1]));
+        assertEquals("[3]", Arrays.toString(covers[2]));
+        assertEquals("[]", Arrays.toString(covers[3]));
+        assertEquals("[3]", Arrays.toString(covers[4]));
+        assertEquals("[3]", Arrays.toString(covers[5]));
+    }
+
+    /**
+     * Test the lower covers of a chain.
+     */
+    @Test
+    public void testChain() {
+        List<BitSet> sets = new ArrayList<BitSet>();
+        for (int k = 5; k >= 0; k--) {
+            sets.add(this.bits(new int[]{k}));
+            sets.get(sets.size() - 1).set(0, k);
+        }
+        int[][] covers = CoverRelation.lowerCovers(sets);
+        for (int k = 0; k < 5; k++) {
+            assertEquals(Arrays.toString(new int[]{k + 1}), Arrays.toString(covers[k]));
+        }
+        assertEquals(0, covers[5].length);
+    }
+
+    /**
+     * Test the lower covers within a cancelled budget.
+     */
+    @Test
+    public void testBudget() {
+        List<BitSet> sets = new ArrayList<BitSet>();
+        sets.add(this.bits(0, 1));
+        sets.add(this.bits(0));
+        sets.add(this.bits());
+        Budget budget = new Budget();
+        budget.cancel();
+        int[][] covers = CoverRelation.lowerCovers(sets, budget);
+        assertEquals(3, covers.length);
+        for (int[] cover : covers) {
+            assertEquals(0, cover.length);
+        }
+    }
+
+    /**
+     * Test a family not closed under intersection.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotClosed() {
+        List<BitSet> sets = new ArrayList<BitSet>();
+        sets.add(this.bits(0, 1));
+        sets.add(this.bits(1, 2));
+        CoverRelation.lowerCovers(sets);
+    }
+}
@@ -21,6 +21,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.TreeSet;
 
+import org.thegalactic.util.Budget;
 import org.thegalactic.util.ComparableSet;
 import org.thegalactic.dgraph.Node;
 import org.thegalactic.dgraph.ConcreteDGraph;
@@ -138,6 +139,31 @@ public class LatticeTest {
         assertTrue(is.containsRule(r));
     }
 
+    /**
+     * Test getCanonicalDirectBasis within a budget.
+     */
+    @Test
+    public void testgetCanonicalDirectBasisBudget() {
+        Lattice l = new Lattice();
+        Node a = new Node("a");
+        l.addNode(a);
+        Node b = new Node("b");
+        l.addNode(b);
+        Node c = new Node("c");
+        l.addNode(c);
+        l.addEdge(a, b);
+        l.addEdge(b, c);
+        Budget budget = new Budget();
+        budget.cancel();
+        assertTrue(l.getCanonicalDirectBasis(budget).getRules().isEmpty());
+        assertTrue(l.getDependencyGraph(budget).getEdges().isEmpty());
+        Rule r = new Rule();
+        r.addToPremise("c");
+        r.addToConclusion("b");
+        assertTrue(l.getCanonicalDirectBasis(new Budget()).containsRule(r));
+        assertTrue(l.getCanonicalDirectBasis(budget).containsRule(r));
+    }
+
     /**
      * Test getDependencyGraph method.
      */
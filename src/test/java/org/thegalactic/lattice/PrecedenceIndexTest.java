@@ -0,0 +1,107 @@
+package org.thegalactic.lattice;
+
+/*
+ * PrecedenceIndexTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.thegalactic.context.Context;
+import org.thegalactic.dgraph.ConcreteDGraph;
+import org.thegalactic.dgraph.DAGraph;
+import org.thegalactic.dgraph.Node;
+import org.thegalactic.rule.ImplicationalSystem;
+import org.thegalactic.util.ComparableSet;
+
+/**
+ * Test the org.thegalactic.lattice.PrecedenceIndex class.
+ */
+public class PrecedenceIndexTest {
+
+    /**
+     * Returns the valuation of a set computed from the strongly connected
+     * components of the precedence graph.
+     *
+     * @param init a closure system
+     * @param set  a set of elements
+     *
+     * @return the valuation
+     */
+    private ComparableSet expected(ClosureSystem init, TreeSet<Comparable> set) {
+        ConcreteDGraph prec = init.precedenceGraph();
+        DAGraph<SortedSet<Node<Comparable>>, ?> acyclPrec = prec.getStronglyConnectedComponent();
+        ComparableSet newVal = new ComparableSet();
+        newVal.addAll(set);
+        for (Comparable x : set) {
+            for (Node<SortedSet<Node<Comparable>>> cc : acyclPrec.getNodes()) {
+                for (Node<Comparable> y : cc.getContent()) {
+                    if (x.equals(y.getContent())) {
+                        for (Node<SortedSet<Node<Comparable>>> min : acyclPrec.minorants(cc)) {
+                            for (Node<Comparable> z : min.getContent()) {
+                                newVal.remove(z.getContent());
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return newVal;
+    }
+
+    /**
+     * Test the valuations of the closed sets of a closure system.
+     *
+     * @param init a closure system
+     */
+    private void check(ClosureSystem init) {
+        PrecedenceIndex index = new PrecedenceIndex(init);
+        for (Concept closure : init.allClosures()) {
+            assertEquals(this.expected(init, closure.getSetA()), index.newValuation(closure.getSetA()));
+        }
+    }
+
+    /**
+     * Test the valuations for random closure systems.
+     */
+    @Test
+    public void testNewValuation() {
+        for (int k = 0; k < 5; k++) {
+            this.check(ImplicationalSystem.random(6, 4));
+            this.check(Context.random(6, 2, 3));
+        }
+    }
+
+    /**
+     * Test the components of equivalent elements.
+     */
+    @Test
+    public void testGetComponent() {
+        Context context = new Context();
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToAttributes("c");
+        context.addToObservations("1");
+        context.addToObservations("2");
+        context.addExtentIntent("1", "a");
+        context.addExtentIntent("1", "b");
+        context.addExtentIntent("2", "c");
+        PrecedenceIndex index = new PrecedenceIndex(context);
+        assertEquals(index.getComponent("a"), index.getComponent("b"));
+        assertEquals(false, index.getComponent("a") == index.getComponent("c"));
+        TreeSet<Comparable> set = new TreeSet<Comparable>();
+        set.add("a");
+        set.add("b");
+        assertEquals("[a, b]", index.newValuation(set).toString());
+    }
+}
@@ -0,0 +1,202 @@
+package org.thegalactic.lattice;
+
+/*
+ * ProgressCounterTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify
+ * it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.thegalactic.context.Context;
+import org.thegalactic.rule.ImplicationalSystem;
+import org.thegalactic.util.Budget;
+
+/**
+ * Test the org.thegalactic.lattice.ProgressCounter class.
+ */
+public class ProgressCounterTest {
+
+    /**
+     * Test the listener accessors of class ClosureSystem.
+     */
+    @Test
+    public void testListener() {
+        Context context = Context.random(10, 3, 5);
+        assertNull(context.getListener());
+        ProgressCounter counter = new ProgressCounter();
+        context.setListener(counter);
+        assertSame(counter, context.getListener());
+        context.setListener(null);
+        context.allClosures();
+        assertEquals(0, counter.getConcepts());
+        assertEquals(0, counter.getClosures());
+        assertTrue(counter.getDurations().isEmpty());
+    }
+
+    /**
+     * Test a listener attached while a phase is running.
+     */
+    @Test
+    public void testListenerDuringPhase() {
+        Context context = Context.random(10, 3, 5);
+        long start = context.startPhase("late");
+        assertEquals(0, start);
+        ProgressCounter counter = new ProgressCounter();
+        context.setListener(counter);
+        context.endPhase("late", start);
+        assertFalse(counter.getDurations().containsKey("late"));
+        start = context.startPhase("late");
+        context.endPhase("late", start);
+        assertTrue(counter.getDurations().containsKey("late"));
+    }
+
+    /**
+     * Test the counts of the diagramLattice method of class ConceptLattice.
+     */
+    @Test
+    public void testDiagramLattice() {
+        Context context = Context.random(20, 4, 6);
+        ProgressCounter counter = new ProgressCounter();
+        context.setListener(counter);
+        ConceptLattice lattice = ConceptLattice.diagramLattice(context);
+        assertEquals(lattice.getNodes().size(), counter.getConcepts());
+        assertEquals(lattice.getEdges().size(), counter.getEdges());
+        assertTrue(counter.getClosures() > 0);
+        assertTrue(counter.getAllocationEstimate() > 0);
+        assertTrue(counter.getDurations().containsKey("diagramLattice"));
+    }
+
+    /**
+     * Test the counts of the parallel diagramLattice and diagramIceberg
+     * methods of class ConceptLattice.
+     */
+    @Test
+    public void testParallelDiagramLattice() {
+        Context context = Context.random(20, 4, 6);
+        ProgressCounter counter = new ProgressCounter();
+        context.setListener(counter);
+        ConceptLattice lattice = ConceptLattice.diagramLattice(context, 3);
+        assertEquals(lattice.getNodes().size(), counter.getConcepts());
+        assertEquals(lattice.getEdges().size(), counter.getEdges());
+        assertTrue(counter.getDurations().containsKey("diagramLattice"));
+        counter = new ProgressCounter();
+        context.setListener(counter);
+        lattice = ConceptLattice.diagramIceberg(context, 0.2, 3);
+        assertEquals(lattice.getNodes().size(), counter.getConcepts());
+        assertEquals(lattice.getEdges().size(), counter.getEdges());
+        assertTrue(counter.getDurations().containsKey("diagramIceberg"));
+    }
+
+    /**
+     * Test the counts of the coverLattice method of class ConceptLattice.
+     */
+    @Test
+    public void testCoverLattice() {
+        Context context = Context.random(20, 4, 6);
+        ProgressCounter counter = new ProgressCounter();
+        context.setListener(counter);
+        ConceptLattice lattice = ConceptLattice.coverLattice(context);
+        assertEquals(lattice.getNodes().size(), counter.getConcepts());
+        assertEquals(lattice.getEdges().size(), counter.getEdges());
+        assertTrue(counter.getDurations().containsKey("coverLattice"));
+    }
+
+    /**
+     * Test the phases of the immediateSuccessors method of class Concept.
+     */
+    @Test
+    public void testImmediateSuccessors() {
+        Context context = Context.random(10, 3, 5);
+        ProgressCounter counter = new ProgressCounter();
+        context.setListener(counter);
+        new Concept(context.closure(new TreeSet<Comparable>()), false).immediateSuccessors(context);
+        Map<String, Long> durations = counter.getDurations();
+        assertTrue(durations.containsKey("precedence"));
+        assertTrue(durations.containsKey("dependance"));
+        assertTrue(durations.containsKey("subgraph"));
+    }
+
+    /**
+     * Test the counts of the completeLattice method of class ConceptLattice.
+     */
+    @Test
+    public void testCompleteLattice() {
+        ImplicationalSystem is = ImplicationalSystem.random(7, 4);
+        ProgressCounter counter = new ProgressCounter();
+        is.setListener(counter);
+        ConceptLattice lattice = ConceptLattice.completeLattice(is);
+        assertEquals(lattice.getNodes().size(), counter.getConcepts());
+        assertEquals(lattice.getEdges().size(), counter.getEdges());
+        assertTrue(counter.getClosures() >= counter.getConcepts());
+        Map<String, Long> durations = counter.getDurations();
+        assertTrue(durations.containsKey("allClosures"));
+        assertTrue(durations.containsKey("completeLattice"));
+    }
+
+    /**
+     * Test the phases of the transformations of class ImplicationalSystem.
+     */
+    @Test
+    public void testCanonicalBasis() {
+        ImplicationalSystem is = ImplicationalSystem.random(7, 4);
+        ProgressCounter counter = new ProgressCounter();
+        is.setListener(counter);
+        is.makeCanonicalBasis();
+        Map<String, Long> durations = counter.getDurations();
+        assertTrue(durations.containsKey("makeCanonicalBasis"));
+        assertTrue(durations.containsKey("makeMinimum"));
+        assertTrue(durations.containsKey("makeRightMaximal"));
+        assertTrue(durations.containsKey("makeProper"));
+    }
+
+    /**
+     * Test the phases of the compute method of class BijectiveComponents.
+     */
+    @Test
+    public void testBijectiveComponents() {
+        ImplicationalSystem is = new ImplicationalSystem();
+        ProgressCounter counter = new ProgressCounter();
+        is.setListener(counter);
+        new BijectiveComponents(is).compute();
+        String[] phases = {"lattice", "reducedLattice", "table", "dependencyGraph", "minimalGenerators",
+            "canonicalDirectBasis", "canonicalBasis"};
+        for (String phase : phases) {
+            assertTrue(counter.getDurations().containsKey(phase));
+        }
+    }
+
+    /**
+     * Test the phases of the compute method of class BijectiveComponents
+     * within a budget.
+     */
+    @Test
+    public void testBijectiveComponentsBudget() {
+        ImplicationalSystem is = new ImplicationalSystem();
+        ProgressCounter counter = new ProgressCounter();
+        is.setListener(counter);
+        new BijectiveComponents(is).compute(new Budget());
+        assertTrue(counter.getDurations().containsKey("canonicalBasis"));
+        counter = new ProgressCounter();
+        is.setListener(counter);
+        Budget budget = new Budget();
+        budget.cancel();
+        new BijectiveComponents(is).compute(budget);
+        assertTrue(counter.getDurations().containsKey("lattice"));
+        assertFalse(counter.getDurations().containsKey("reducedLattice"));
+    }
+}
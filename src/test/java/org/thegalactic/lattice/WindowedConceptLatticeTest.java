@@ -0,0 +1,150 @@
+package org.thegalactic.lattice;
+
+/*
+ * WindowedConceptLatticeTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.thegalactic.context.Context;
+import org.thegalactic.context.enumeration.FastCloseByOne;
+
+/**
+ * Test the org.thegalactic.lattice.WindowedConceptLattice class.
+ */
+public class WindowedConceptLatticeTest {
+
+    /**
+     * Returns the sorted concepts of a lattice as strings.
+     *
+     * @param lattice a concept lattice
+     *
+     * @return the concepts
+     */
+    private TreeSet<String> concepts(List<Concept> lattice) {
+        TreeSet<String> concepts = new TreeSet<String>();
+        for (Concept concept : lattice) {
+            concepts.add(concept.getSetA().toString() + concept.getSetB().toString());
+        }
+        return concepts;
+    }
+
+    /**
+     * Returns the concepts of a lattice.
+     *
+     * @param lattice a concept lattice
+     *
+     * @return the concepts
+     */
+    private List<Concept> nodes(ConceptLattice lattice) {
+        List<Concept> nodes = new ArrayList<Concept>();
+        for (Object node : lattice.getNodes()) {
+            nodes.add((Concept) node);
+        }
+        return nodes;
+    }
+
+    /**
+     * Test the constructor of class WindowedConceptLattice.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor() {
+        new WindowedConceptLattice(0);
+    }
+
+    /**
+     * Test the add method of class WindowedConceptLattice.
+     */
+    @Test
+    public void testAdd() {
+        Context stream = Context.random(30, 3, 5);
+        WindowedConceptLattice window = new WindowedConceptLattice(8);
+        List<Comparable> observations = new ArrayList<Comparable>(stream.getObservations());
+        TreeSet<Comparable> attributes = new TreeSet<Comparable>();
+        for (int k = 0; k < observations.size(); k++) {
+            attributes.addAll(stream.getIntent(observations.get(k)));
+            Comparable evicted = window.add(observations.get(k), stream.getIntent(observations.get(k)));
+            if (k < 8) {
+                assertNull(evicted);
+            } else {
+                assertEquals(observations.get(k - 8), evicted);
+            }
+            Context partial = new Context();
+            partial.addAllToAttributes(attributes);
+            for (Comparable obs : window.getObservations()) {
+                partial.addToObservations(obs);
+                for (Comparable att : window.getIntent(obs)) {
+                    partial.addExtentIntent(obs, att);
+                }
+            }
+            ConceptLattice expected = partial.conceptLattice(true, FastCloseByOne.getInstance());
+            assertEquals(this.concepts(this.nodes(expected)), this.concepts(this.nodes(window.getLattice())));
+            assertEquals(expected.getEdges().size(), window.getLattice().getEdges().size());
+            assertEquals(expected.getCanonicalDirectBasis().getRules(), window.getLattice().getCanonicalDirectBasis().getRules());
+        }
+        assertEquals(8, window.size());
+        assertEquals(observations.size(), window.getUpdateCount());
+        assertTrue(window.getMaxLatency() >= window.getLastLatency());
+        assertTrue(window.getMeanLatency() <= window.getMaxLatency());
+    }
+
+    /**
+     * Test the add method of class WindowedConceptLattice with an observation
+     * of the window.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddTwice() {
+        WindowedConceptLattice window = new WindowedConceptLattice(2);
+        window.add("1", new TreeSet<Comparable>());
+        window.add("1", new TreeSet<Comparable>());
+    }
+
+    /**
+     * Test the remove method of class WindowedConceptLattice.
+     */
+    @Test
+    public void testRemove() {
+        WindowedConceptLattice window = new WindowedConceptLattice(3);
+        TreeSet<Comparable> intent = new TreeSet<Comparable>();
+        intent.add("a");
+        window.add("1", intent);
+        intent.add("b");
+        window.add("2", intent);
+        assertTrue(window.remove("1"));
+        assertFalse(window.remove("1"));
+        assertEquals(1, window.size());
+        assertEquals("[[a, b][2]]", this.concepts(window.frequentConcepts(1)).toString());
+    }
+
+    /**
+     * Test the frequentConcepts method of class WindowedConceptLattice.
+     */
+    @Test
+    public void testFrequentConcepts() {
+        WindowedConceptLattice window = new WindowedConceptLattice(2);
+        TreeSet<Comparable> intent = new TreeSet<Comparable>();
+        intent.add("a");
+        window.add("1", intent);
+        intent.add("b");
+        window.add("2", intent);
+        intent.remove("a");
+        window.add("3", intent);
+        assertEquals("[[a, b][2], [b][2, 3]]", this.concepts(window.frequentConcepts(1)).toString());
+        assertEquals("[[b][2, 3]]", this.concepts(window.frequentConcepts(2)).toString());
+    }
+}
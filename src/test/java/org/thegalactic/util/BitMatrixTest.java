@@ -0,0 +1,56 @@
+package org.thegalactic.util;
+
+/*
+ * BitMatrixTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify
+ * it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+
+/**
+ * Test the org.thegalactic.util.BitMatrix class.
+ */
+public class BitMatrixTest {
+
+    /**
+     * Test the segmentBytes method of class BitMatrix above 256 MB.
+     */
+    @Test
+    public void testSegmentBytes() {
+        assertEquals(1 << 28, BitMatrix.segmentBytes(1 << 20, 2048));
+        int rows = BitMatrix.rowsPerSegment(2048);
+        assertEquals(1 << 30, BitMatrix.segmentBytes(rows, 2048));
+        assertEquals(1 << 30, BitMatrix.segmentBytes(BitMatrix.rowsPerSegment(100), 100));
+        assertEquals(2, BitMatrix.segments(rows + 1, 2048));
+    }
+
+    /**
+     * Test the allocateDirect method of class BitMatrix.
+     */
+    @Test
+    public void testAllocateDirect() {
+        BitMatrix matrix = BitMatrix.allocateDirect(3, 130);
+        assertEquals(3, matrix.getRows());
+        assertEquals(130, matrix.getColumns());
+        BitSet row = new BitSet();
+        row.set(0);
+        row.set(129);
+        matrix.setRow(1, row.toLongArray());
+        assertTrue(matrix.get(1, 129));
+        assertFalse(matrix.get(0, 129));
+        assertEquals(row, matrix.getRow(1));
+        assertEquals(new BitSet(), matrix.getRow(2));
+    }
+}
@@ -0,0 +1,128 @@
+package org.thegalactic.util;
+
+/*
+ * BudgetTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify
+ * it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Test the org.thegalactic.util.Budget class.
+ */
+public class BudgetTest {
+
+    /**
+     * Test the constructor of class Budget.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor() {
+        new Budget(0, -1, 0);
+    }
+
+    /**
+     * Test an unlimited budget.
+     */
+    @Test
+    public void testUnlimited() {
+        Budget budget = new Budget();
+        for (int k = 0; k < 1000; k++) {
+            budget.charge();
+        }
+        assertEquals(1000, budget.getConcepts());
+        assertFalse(budget.isExhausted());
+        assertNull(budget.getReason());
+    }
+
+    /**
+     * Test the cancel method of class Budget.
+     */
+    @Test
+    public void testCancel() {
+        Budget budget = new Budget();
+        budget.check();
+        budget.cancel();
+        assertTrue(budget.isExhausted());
+        try {
+            budget.check();
+            fail();
+        } catch (CancellationException e) {
+            assertEquals("Computation cancelled", e.getMessage());
+        }
+    }
+
+    /**
+     * Test the maximal number of concepts of class Budget.
+     */
+    @Test
+    public void testMaxConcepts() {
+        Budget budget = new Budget(0, 3, 0);
+        budget.charge();
+        budget.charge();
+        budget.charge();
+        try {
+            budget.charge();
+            fail();
+        } catch (CancellationException e) {
+            assertEquals("Maximal number of concepts reached", budget.getReason());
+        }
+    }
+
+    /**
+     * Test the deadline of class Budget.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    public void testDeadline() throws InterruptedException {
+        Budget budget = new Budget(1, 0, 0);
+        Thread.sleep(5);
+        try {
+            budget.check();
+            fail();
+        } catch (CancellationException e) {
+            assertEquals("Deadline reached", budget.getReason());
+        }
+    }
+
+    /**
+     * Test the isExhausted method of class Budget after the deadline.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    public void testIsExhaustedDeadline() throws InterruptedException {
+        Budget budget = new Budget(1, 0, 0);
+        Thread.sleep(5);
+        assertTrue(budget.isExhausted());
+        assertEquals("Deadline reached", budget.getReason());
+    }
+
+    /**
+     * Test the maximal heap of class Budget.
+     */
+    @Test
+    public void testMaxHeap() {
+        Budget budget = new Budget(0, 0, 1);
+        try {
+            budget.check();
+            fail();
+        } catch (CancellationException e) {
+            assertEquals("Maximal heap reached", budget.getReason());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.thegalactic.util;
+
+/*
+ * IndexSetTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify
+ * it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Test the org.thegalactic.util.IndexSet class.
+ */
+public class IndexSetTest {
+
+    /**
+     * Test the create methods of IndexSet.
+     */
+    @Test
+    public void testCreate() {
+        BitSet bits = new BitSet();
+        bits.set(3);
+        bits.set(70);
+        IndexSet sparse = IndexSet.create(bits, 1000);
+        assertTrue(sparse instanceof SparseIndexSet);
+        assertEquals(bits, sparse.toBitSet());
+        IndexSet dense = IndexSet.create(bits, 10);
+        assertTrue(dense instanceof DenseIndexSet);
+        assertEquals(bits, dense.toBitSet());
+        IndexSet array = IndexSet.create(new int[] {3, 70}, 2, 1000);
+        assertTrue(array instanceof SparseIndexSet);
+        assertEquals(2, array.cardinality());
+        assertTrue(array.contains(70));
+        assertFalse(array.contains(4));
+        assertEquals(3, array.nextIndex(0));
+        assertEquals(70, array.nextIndex(4));
+        assertEquals(-1, array.nextIndex(71));
+    }
+
+    /**
+     * Test the add and remove methods of IndexSet.
+     */
+    @Test
+    public void testAddRemove() {
+        IndexSet set = IndexSet.create();
+        set = set.add(5, 80);
+        set = set.add(1, 80);
+        set = set.add(5, 80);
+        assertTrue(set instanceof SparseIndexSet);
+        assertEquals(2, set.cardinality());
+        assertEquals(1, set.nextIndex(0));
+        set = set.add(9, 80);
+        assertTrue(set instanceof DenseIndexSet);
+        assertEquals(3, set.cardinality());
+        set = set.remove(9, 80);
+        assertTrue(set instanceof DenseIndexSet);
+        set = set.remove(5, 80);
+        assertTrue(set instanceof SparseIndexSet);
+        assertEquals(1, set.cardinality());
+        assertTrue(set.contains(1));
+        assertTrue(set.optimize(16) instanceof DenseIndexSet);
+    }
+
+    /**
+     * Test the intersection method of IndexSet.
+     */
+    @Test
+    public void testIntersection() {
+        Random random = new Random(1);
+        int capacity = 5000;
+        for (int k = 0; k < 20; k++) {
+            ArrayList<IndexSet> sets = new ArrayList<IndexSet>();
+            BitSet expected = new BitSet();
+            expected.set(0, capacity);
+            for (int s = 0; s < 3; s++) {
+                BitSet bits = new BitSet();
+                int density = 2 + random.nextInt(200);
+                for (int i = 0; i < capacity; i++) {
+                    if (random.nextInt(density) < 2) {
+                        bits.set(i);
+                    }
+                }
+                sets.add(IndexSet.create(bits, capacity));
+                expected.and(bits);
+            }
+            BitSet universe = new BitSet();
+            universe.set(0, capacity);
+            assertEquals(expected, IndexSet.intersection(sets, universe));
+        }
+        BitSet universe = new BitSet();
+        universe.set(0, 4);
+        assertEquals(universe, IndexSet.intersection(new ArrayList<IndexSet>(), universe));
+    }
+}